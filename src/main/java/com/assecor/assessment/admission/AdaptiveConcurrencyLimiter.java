@@ -0,0 +1,85 @@
+package com.assecor.assessment.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limiter whose limit follows observed latency (AIMD).
+ * Every fast request grows the limit by {@code 1 / limit}, i.e. by roughly one per
+ * round of requests, while a request slower than the threshold shrinks it by the backoff ratio.
+ * The limit shrinks at most once per round trip: a slow request that was already in flight at the
+ * last decrease saw the old limit, so it does not shrink the new one again.
+ * Requests over the limit are rejected instead of queued.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private double estimatedLimit;
+    private boolean backedOff;
+    private long lastBackoffNanos;
+    private volatile int limit;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      long latencyThresholdNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.estimatedLimit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * Reserve a slot for a request.
+     *
+     * @return true if the request may proceed; it must then call {@link #release(long)}
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Free the slot of a finished request and adapt the limit to its latency.
+     *
+     * @param latencyNanos how long the request took
+     */
+    public void release(long latencyNanos) {
+        release(latencyNanos, System.nanoTime());
+    }
+
+    void release(long latencyNanos, long nowNanos) {
+        int current = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (latencyNanos > latencyThresholdNanos) {
+                if (!backedOff || nowNanos - latencyNanos - lastBackoffNanos >= 0) {
+                    estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+                    backedOff = true;
+                    lastBackoffNanos = nowNanos;
+                }
+            } else if (current * 2 >= limit) {
+                // Only grow while the limit is actually being used, otherwise it drifts to the maximum
+                estimatedLimit = Math.min(maxLimit, estimatedLimit + 1d / estimatedLimit);
+            }
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,160 @@
+package com.assecor.assessment.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sheds load before it reaches the controllers.
+ * Each client first has to get a token from its own bucket (429 otherwise), then a slot
+ * from the shared adaptive concurrency limiter (503 otherwise). Both rejections carry a
+ * Retry-After header so well-behaved clients back off instead of piling up in Tomcat.
+ * <p>
+ * At most {@code maxTrackedClients} buckets are kept; beyond that the least recently seen client is
+ * forgotten, and a background sweep drops buckets that have refilled completely.
+ */
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+    private static final long SWEEP_INTERVAL_SECONDS = 10;
+
+    private final AdmissionControlProperties properties;
+    private final AdaptiveConcurrencyLimiter limiter;
+    // Access ordered, so the eldest entry is the least recently seen client; guarded by itself
+    private final LinkedHashMap<String, TokenBucket> buckets;
+    private final ScheduledExecutorService sweeper;
+    private final Counter rateLimitedCounter;
+    private final Counter concurrencyLimitedCounter;
+
+    public AdmissionControlFilter(AdmissionControlProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = new AdaptiveConcurrencyLimiter(
+                properties.initialLimit(),
+                properties.minLimit(),
+                properties.maxLimit(),
+                properties.latencyThreshold().toNanos(),
+                properties.backoffRatio());
+        int maxTrackedClients = properties.maxTrackedClients();
+        this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                return size() > maxTrackedClients;
+            }
+        };
+        this.rateLimitedCounter = Counter.builder("admission.rejected.total")
+                .description("Total number of requests rejected by admission control")
+                .tag("reason", "rate_limit")
+                .register(meterRegistry);
+        this.concurrencyLimitedCounter = Counter.builder("admission.rejected.total")
+                .description("Total number of requests rejected by admission control")
+                .tag("reason", "concurrency_limit")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit")
+                .register(meterRegistry);
+        Gauge.builder("admission.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Number of requests currently admitted")
+                .register(meterRegistry);
+        Gauge.builder("admission.clients.tracked", this, AdmissionControlFilter::trackedClients)
+                .description("Number of clients with an active token bucket")
+                .register(meterRegistry);
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("admission-sweeper").daemon().factory());
+        sweeper.scheduleWithFixedDelay(() -> sweep(System.nanoTime()),
+                SWEEP_INTERVAL_SECONDS, SWEEP_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        String client = request.getRemoteAddr();
+
+        TokenBucket bucket = bucketFor(client, now);
+        if (!bucket.tryConsume(now)) {
+            rateLimitedCounter.increment();
+            logger.debug("Rate limit exceeded for client {}", client);
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, bucket.nanosUntilNextToken(now),
+                    "Rate limit exceeded, retry later");
+            return;
+        }
+
+        if (!limiter.tryAcquire()) {
+            concurrencyLimitedCounter.increment();
+            logger.debug("Concurrency limit of {} reached, shedding request from {}", limiter.getLimit(), client);
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1),
+                    "Server is at capacity, retry later");
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    private TokenBucket bucketFor(String client, long now) {
+        synchronized (buckets) {
+            return buckets.computeIfAbsent(client,
+                    key -> new TokenBucket(properties.burst(), properties.requestsPerSecond(), now));
+        }
+    }
+
+    /**
+     * Drops the buckets that have refilled completely; they behave exactly like new ones.
+     */
+    void sweep(long now) {
+        int removed;
+        synchronized (buckets) {
+            int before = buckets.size();
+            buckets.values().removeIf(bucket -> bucket.isFull(now));
+            removed = before - buckets.size();
+        }
+        logger.debug("Dropped {} idle client buckets", removed);
+    }
+
+    int trackedClients() {
+        synchronized (buckets) {
+            return buckets.size();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        sweeper.shutdownNow();
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos, String message)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"" + message + "\"}");
+    }
+
+    AdaptiveConcurrencyLimiter getLimiter() {
+        return limiter;
+    }
+}
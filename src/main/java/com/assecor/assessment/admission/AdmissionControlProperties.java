@@ -0,0 +1,32 @@
+package com.assecor.assessment.admission;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for the admission control in front of the REST controllers.
+ *
+ * @param enabled whether requests are subject to admission control at all
+ * @param requestsPerSecond sustained request rate allowed per client
+ * @param burst number of requests a client may send at once before being rate limited
+ * @param initialLimit concurrency limit to start with
+ * @param minLimit lower bound the concurrency limit never drops below
+ * @param maxLimit upper bound the concurrency limit never grows beyond
+ * @param latencyThreshold request latency above which the concurrency limit is reduced
+ * @param backoffRatio factor the concurrency limit is multiplied with on slow requests, at most once per round trip
+ * @param maxTrackedClients number of client buckets kept; beyond it the least recently seen client is evicted
+ */
+@ConfigurationProperties(prefix = "admission")
+public record AdmissionControlProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("50") double requestsPerSecond,
+        @DefaultValue("100") int burst,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("250ms") Duration latencyThreshold,
+        @DefaultValue("0.9") double backoffRatio,
+        @DefaultValue("10000") int maxTrackedClients) {
+}
@@ -0,0 +1,59 @@
+package com.assecor.assessment.admission;
+
+/**
+ * Token bucket limiting the request rate of a single client.
+ * Tokens are refilled lazily whenever the bucket is accessed.
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(int capacity, double tokensPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * Take one token if available.
+     *
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return true if the request may proceed
+     */
+    public synchronized boolean tryConsume(long nowNanos) {
+        refill(nowNanos);
+        if (tokens >= 1d) {
+            tokens -= 1d;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Time until the next token becomes available, used for the Retry-After header.
+     */
+    public synchronized long nanosUntilNextToken(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= 1d ? 0L : (long) Math.ceil((1d - tokens) / tokensPerNano);
+    }
+
+    /**
+     * A full bucket behaves exactly like a new one, so it can be dropped without losing state.
+     */
+    public synchronized boolean isFull(long nowNanos) {
+        refill(nowNanos);
+        return tokens >= capacity;
+    }
+
+    private void refill(long nowNanos) {
+        long elapsed = nowNanos - lastRefillNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(capacity, tokens + elapsed * tokensPerNano);
+            lastRefillNanos = nowNanos;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.assecor.assessment.cache;
+
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of person IDs per color, one bitset per color ID.
+ * Multi-color and negated color queries are answered with bitset unions and differences
+ * instead of SQL. The index is built lazily from the database on first use and then kept
+ * current by the write paths; writes whose affected persons are unknown call {@link #invalidate()}
+ * so the next query rebuilds it.
+ * Person IDs are used as bit positions and therefore have to fit into an {@code int}.
+ */
+@Component
+public class PersonColorIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonColorIndex.class);
+
+    private final PersonJpaRepository personJpaRepository;
+    private final ShardRouter shardRouter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, BitSet> personsByColor = new HashMap<>();
+    private boolean built;
+
+    public PersonColorIndex(PersonJpaRepository personJpaRepository, ShardRouter shardRouter,
+                            MeterRegistry meterRegistry) {
+        this.personJpaRepository = personJpaRepository;
+        this.shardRouter = shardRouter;
+        Gauge.builder("person.color.index.persons", this, PersonColorIndex::indexedPersons)
+                .description("Number of persons in the color bitset index")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Find the IDs of persons having any of the included colors and none of the excluded ones.
+     *
+     * @param includedColorIds colors to match; empty matches every person
+     * @param excludedColorIds colors to leave out
+     * @return the matching person IDs; iterate with {@link BitSet#nextSetBit(int)} for ascending order
+     */
+    public BitSet find(Collection<Long> includedColorIds, Collection<Long> excludedColorIds) {
+        lockBuilt();
+        try {
+            BitSet result = new BitSet();
+            if (includedColorIds.isEmpty()) {
+                personsByColor.values().forEach(result::or);
+            } else {
+                for (Long colorId : includedColorIds) {
+                    BitSet persons = personsByColor.get(colorId);
+                    if (persons != null) {
+                        result.or(persons);
+                    }
+                }
+            }
+            for (Long colorId : excludedColorIds) {
+                BitSet persons = personsByColor.get(colorId);
+                if (persons != null) {
+                    result.andNot(persons);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record the color of a created or updated person.
+     */
+    public void put(long personId, long colorId) {
+        int bit = Math.toIntExact(personId);
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            // A person has exactly one color, so clear it from whichever bitset held it before
+            personsByColor.values().forEach(persons -> persons.clear(bit));
+            personsByColor.computeIfAbsent(colorId, id -> new BitSet()).set(bit);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long personId) {
+        int bit = Math.toIntExact(personId);
+        lock.writeLock().lock();
+        try {
+            personsByColor.values().forEach(persons -> persons.clear(bit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move every person of one color to another, mirroring a bulk reassignment.
+     */
+    public void reassign(long fromColorId, long toColorId) {
+        lock.writeLock().lock();
+        try {
+            BitSet moved = personsByColor.remove(fromColorId);
+            if (moved != null) {
+                personsByColor.computeIfAbsent(toColorId, id -> new BitSet()).or(moved);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            built = false;
+            personsByColor.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Takes the read lock on a built index, building it first if needed. After a build the write lock is
+     * downgraded to the read lock, so an invalidation cannot empty it again before the caller reads.
+     */
+    private void lockBuilt() {
+        lock.readLock().lock();
+        if (built) {
+            return;
+        }
+        lock.readLock().unlock();
+
+        // The load runs under the write lock so no write can slip in between loading and installing
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                lock.readLock().lock();
+                return;
+            }
+            for (List<Object[]> rows : shardRouter.onEveryShard(personJpaRepository::findAllIdsWithColorId)) {
+                for (Object[] row : rows) {
+                    long personId = (Long) row[0];
+                    long colorId = (Long) row[1];
+                    personsByColor.computeIfAbsent(colorId, id -> new BitSet()).set(Math.toIntExact(personId));
+                }
+            }
+            built = true;
+            logger.info("Built color index for {} colors", personsByColor.size());
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private double indexedPersons() {
+        lock.readLock().lock();
+        try {
+            return personsByColor.values().stream().mapToInt(BitSet::cardinality).sum();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
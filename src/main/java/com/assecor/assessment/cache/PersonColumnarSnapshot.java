@@ -0,0 +1,460 @@
+package com.assecor.assessment.cache;
+
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonFilter;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory columnar copy of all persons for ad-hoc filter queries.
+ * Every person is a row spread over primitive arrays: names, lastnames and non-numeric zipcodes are
+ * codes into a shared string pool, cities are codes into their own dictionary, colors are stored by
+ * color ID and zipcodes of up to nine digits as plain ints. A filter is turned into sets of accepted
+ * codes once, so the scan itself only compares ints and is split across cores with fork/join.
+ * <p>
+ * Like {@link PersonColorIndex} the snapshot is built lazily from the database on first use and
+ * then kept current by the write paths; writes whose affected persons are unknown call
+ * {@link #invalidate()} so the next query rebuilds it.
+ */
+@Component
+public class PersonColumnarSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonColumnarSnapshot.class);
+    private static final int INITIAL_CAPACITY = 1024;
+    // Rows per fork/join leaf; smaller ranges cost more in task overhead than they gain in parallelism
+    private static final int SCAN_CHUNK_ROWS = 16_384;
+    private static final int MAX_NUMERIC_ZIP_DIGITS = 9;
+    private static final int[] POWERS_OF_TEN = {
+            1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000, 1_000_000_000
+    };
+
+    private final PersonJpaRepository personJpaRepository;
+    private final ShardRouter shardRouter;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ForkJoinPool scanPool = ForkJoinPool.commonPool();
+
+    private final StringDictionary strings = new StringDictionary();
+    private final StringDictionary cities = new StringDictionary();
+    private final Map<Integer, String> colorNames = new HashMap<>();
+    private final Map<Long, Integer> rowsById = new HashMap<>();
+
+    // Rows are kept dense: a deleted row is overwritten by the last one
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] versions = new long[INITIAL_CAPACITY];
+    private int[] nameCodes = new int[INITIAL_CAPACITY];
+    private int[] lastnameCodes = new int[INITIAL_CAPACITY];
+    private int[] cityCodes = new int[INITIAL_CAPACITY];
+    private int[] colorIds = new int[INITIAL_CAPACITY];
+    // Numeric zipcodes as value plus digit count (for leading zeros), others as -(string code + 1)
+    private int[] zipcodes = new int[INITIAL_CAPACITY];
+    private byte[] zipLengths = new byte[INITIAL_CAPACITY];
+    private int size;
+    private boolean built;
+
+    public PersonColumnarSnapshot(PersonJpaRepository personJpaRepository, ShardRouter shardRouter,
+                                  MeterRegistry meterRegistry) {
+        this.personJpaRepository = personJpaRepository;
+        this.shardRouter = shardRouter;
+        Gauge.builder("person.query.snapshot.rows", this, PersonColumnarSnapshot::rows)
+                .description("Number of persons in the columnar query snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Find all persons matching the filter.
+     *
+     * @param filter the criteria, all of which must match
+     * @return detached copies of the matching persons ordered by ID
+     */
+    public List<Person> query(PersonFilter filter) {
+        lockBuilt();
+        try {
+            Scan scan = prepare(filter);
+            int[] rows = scan == null ? new int[0] : scanPool.invoke(new ScanTask(scan, 0, size));
+            return materialize(rows);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record a created or fully updated person.
+     */
+    public void put(Person person) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            if (person.getColor() == null || person.getColor().getId() == null) {
+                invalidateLocked();
+                return;
+            }
+            Integer row = rowsById.get(person.getId());
+            if (row == null) {
+                row = size++;
+                ensureCapacity(size);
+                rowsById.put(person.getId(), row);
+            }
+            write(row, person);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Apply a partial update whose {@code null} fields stay unchanged and bump the version like the database did.
+     */
+    public void patch(long personId, Person changes) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.get(personId);
+            if (!built || row == null) {
+                return;
+            }
+            if (changes.getColor() != null && changes.getColor().getId() == null) {
+                invalidateLocked();
+                return;
+            }
+            if (changes.getName() != null) {
+                nameCodes[row] = strings.encode(changes.getName());
+            }
+            if (changes.getLastname() != null) {
+                lastnameCodes[row] = strings.encode(changes.getLastname());
+            }
+            if (changes.getZipcode() != null) {
+                writeZipcode(row, changes.getZipcode());
+            }
+            if (changes.getCity() != null) {
+                cityCodes[row] = cities.encode(changes.getCity());
+            }
+            if (changes.getColor() != null) {
+                writeColor(row, changes.getColor());
+            }
+            versions[row]++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long personId) {
+        lock.writeLock().lock();
+        try {
+            Integer row = rowsById.remove(personId);
+            if (row == null) {
+                return;
+            }
+            int last = --size;
+            if (row != last) {
+                moveRow(last, row);
+                rowsById.put(ids[row], row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Move every person of one color to another, mirroring a bulk reassignment.
+     */
+    public void reassign(long fromColorId, long toColorId) {
+        lock.writeLock().lock();
+        try {
+            if (!built) {
+                return;
+            }
+            int from = Math.toIntExact(fromColorId);
+            int to = Math.toIntExact(toColorId);
+            if (!colorNames.containsKey(to)) {
+                invalidateLocked();
+                return;
+            }
+            for (int row = 0; row < size; row++) {
+                if (colorIds[row] == from) {
+                    colorIds[row] = to;
+                    versions[row]++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rename a color; rows store the color ID, so only the dictionary entry changes.
+     */
+    public void renameColor(long colorId, String name) {
+        lock.writeLock().lock();
+        try {
+            colorNames.computeIfPresent(Math.toIntExact(colorId), (id, oldName) -> name);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void invalidate() {
+        lock.writeLock().lock();
+        try {
+            invalidateLocked();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void invalidateLocked() {
+        built = false;
+        size = 0;
+        rowsById.clear();
+        strings.clear();
+        cities.clear();
+        colorNames.clear();
+    }
+
+    /**
+     * Takes the read lock on a built snapshot, building it first if needed. After a build the write lock is
+     * downgraded to the read lock, so an invalidation cannot empty it again before the caller reads.
+     */
+    private void lockBuilt() {
+        lock.readLock().lock();
+        if (built) {
+            return;
+        }
+        lock.readLock().unlock();
+
+        // The load runs under the write lock so no write can slip in between loading and installing
+        lock.writeLock().lock();
+        try {
+            if (built) {
+                lock.readLock().lock();
+                return;
+            }
+            for (List<Person> persons : shardRouter.onEveryShard(personJpaRepository::findAll)) {
+                ensureCapacity(size + persons.size());
+                for (Person person : persons) {
+                    rowsById.put(person.getId(), size);
+                    write(size++, person);
+                }
+            }
+            built = true;
+            logger.info("Built columnar snapshot of {} persons ({} strings, {} cities)",
+                    size, strings.size(), cities.size());
+            lock.readLock().lock();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void write(int row, Person person) {
+        ids[row] = person.getId();
+        versions[row] = person.getVersion();
+        nameCodes[row] = strings.encode(person.getName());
+        lastnameCodes[row] = strings.encode(person.getLastname());
+        cityCodes[row] = cities.encode(person.getCity());
+        writeZipcode(row, person.getZipcode());
+        writeColor(row, person.getColor());
+    }
+
+    private void writeZipcode(int row, String zipcode) {
+        if (isNumeric(zipcode) && zipcode.length() <= MAX_NUMERIC_ZIP_DIGITS) {
+            zipcodes[row] = Integer.parseInt(zipcode);
+            zipLengths[row] = (byte) zipcode.length();
+        } else {
+            zipcodes[row] = -(strings.encode(zipcode) + 1);
+            zipLengths[row] = 0;
+        }
+    }
+
+    private void writeColor(int row, Color color) {
+        int colorId = Math.toIntExact(color.getId());
+        colorIds[row] = colorId;
+        colorNames.put(colorId, color.getName());
+    }
+
+    private void moveRow(int from, int to) {
+        ids[to] = ids[from];
+        versions[to] = versions[from];
+        nameCodes[to] = nameCodes[from];
+        lastnameCodes[to] = lastnameCodes[from];
+        cityCodes[to] = cityCodes[from];
+        colorIds[to] = colorIds[from];
+        zipcodes[to] = zipcodes[from];
+        zipLengths[to] = zipLengths[from];
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(rows, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        versions = Arrays.copyOf(versions, capacity);
+        nameCodes = Arrays.copyOf(nameCodes, capacity);
+        lastnameCodes = Arrays.copyOf(lastnameCodes, capacity);
+        cityCodes = Arrays.copyOf(cityCodes, capacity);
+        colorIds = Arrays.copyOf(colorIds, capacity);
+        zipcodes = Arrays.copyOf(zipcodes, capacity);
+        zipLengths = Arrays.copyOf(zipLengths, capacity);
+    }
+
+    /**
+     * Resolve the filter against the dictionaries.
+     *
+     * @return the scan to run, or {@code null} if some criterion matches no dictionary entry at all
+     */
+    private Scan prepare(PersonFilter filter) {
+        BitSet names = filter.name() != null ? strings.codesEqualIgnoreCase(filter.name()) : null;
+        BitSet lastnames = filter.lastname() != null ? strings.codesEqualIgnoreCase(filter.lastname()) : null;
+        BitSet cityMatches = filter.city() != null ? cities.codesEqualIgnoreCase(filter.city()) : null;
+        BitSet colors = null;
+        if (filter.color() != null) {
+            colors = new BitSet();
+            for (Map.Entry<Integer, String> color : colorNames.entrySet()) {
+                if (color.getValue().equalsIgnoreCase(filter.color())) {
+                    colors.set(color.getKey());
+                }
+            }
+        }
+        for (BitSet codes : new BitSet[]{names, lastnames, cityMatches, colors}) {
+            if (codes != null && codes.isEmpty()) {
+                return null;
+            }
+        }
+
+        String zipPrefix = filter.zipPrefix() == null || filter.zipPrefix().isEmpty() ? null : filter.zipPrefix();
+        int numericZipPrefix = zipPrefix != null && isNumeric(zipPrefix) && zipPrefix.length() <= MAX_NUMERIC_ZIP_DIGITS
+                ? Integer.parseInt(zipPrefix) : -1;
+        return new Scan(names, lastnames, cityMatches, colors, zipPrefix, numericZipPrefix);
+    }
+
+    private List<Person> materialize(int[] rows) {
+        Map<Integer, Color> colors = new HashMap<>();
+        List<Person> persons = new ArrayList<>(rows.length);
+        for (int row : rows) {
+            Color color = colors.computeIfAbsent(colorIds[row], id -> new Color((long) id, colorNames.get(id)));
+            Person person = new Person(ids[row], strings.decode(nameCodes[row]), strings.decode(lastnameCodes[row]),
+                    zipcode(row), cities.decode(cityCodes[row]), color);
+            person.setVersion(versions[row]);
+            persons.add(person);
+        }
+        persons.sort(Comparator.comparing(Person::getId));
+        return persons;
+    }
+
+    private String zipcode(int row) {
+        int zipcode = zipcodes[row];
+        if (zipcode < 0) {
+            return strings.decode(-zipcode - 1);
+        }
+        String digits = Integer.toString(zipcode);
+        return "0".repeat(zipLengths[row] - digits.length()) + digits;
+    }
+
+    private static boolean isNumeric(String value) {
+        if (value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int rows() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A filter resolved to accepted codes; {@code null} sets accept everything.
+     */
+    private record Scan(BitSet names, BitSet lastnames, BitSet cities, BitSet colors,
+                        String zipPrefix, int numericZipPrefix) {
+    }
+
+    /**
+     * Scans a row range, splitting it in halves until it is small enough to scan in one go.
+     * Runs while the caller holds the read lock, so the columns cannot change underneath.
+     */
+    private final class ScanTask extends RecursiveTask<int[]> {
+
+        private final Scan scan;
+        private final int from;
+        private final int to;
+
+        ScanTask(Scan scan, int from, int to) {
+            this.scan = scan;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= SCAN_CHUNK_ROWS) {
+                return scanRange();
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(scan, from, middle);
+            left.fork();
+            int[] right = new ScanTask(scan, middle, to).compute();
+            int[] leftRows = left.join();
+            int[] rows = Arrays.copyOf(leftRows, leftRows.length + right.length);
+            System.arraycopy(right, 0, rows, leftRows.length, right.length);
+            return rows;
+        }
+
+        private int[] scanRange() {
+            BitSet names = scan.names();
+            BitSet lastnames = scan.lastnames();
+            BitSet cityMatches = scan.cities();
+            BitSet colors = scan.colors();
+            String zipPrefix = scan.zipPrefix();
+            int[] matches = new int[to - from];
+            int count = 0;
+            for (int row = from; row < to; row++) {
+                if ((colors == null || colors.get(colorIds[row]))
+                        && (cityMatches == null || cityMatches.get(cityCodes[row]))
+                        && (names == null || names.get(nameCodes[row]))
+                        && (lastnames == null || lastnames.get(lastnameCodes[row]))
+                        && (zipPrefix == null || zipMatches(row, zipPrefix, scan.numericZipPrefix()))) {
+                    matches[count++] = row;
+                }
+            }
+            return Arrays.copyOf(matches, count);
+        }
+
+        private boolean zipMatches(int row, String zipPrefix, int numericZipPrefix) {
+            int zipcode = zipcodes[row];
+            if (zipcode < 0) {
+                return strings.decode(-zipcode - 1).startsWith(zipPrefix);
+            }
+            // Drop the trailing digits beyond the prefix length and compare what is left
+            int extraDigits = zipLengths[row] - zipPrefix.length();
+            return numericZipPrefix >= 0 && extraDigits >= 0 && zipcode / POWERS_OF_TEN[extraDigits] == numericZipPrefix;
+        }
+    }
+}
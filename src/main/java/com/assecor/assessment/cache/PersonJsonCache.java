@@ -0,0 +1,85 @@
+package com.assecor.assessment.cache;
+
+import com.assecor.assessment.model.Person;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cache of the serialized JSON of each person, keyed by ID and version.
+ * Every write to a person bumps its version, so an entry whose version differs from the entity
+ * being served is stale and gets re-serialized. The embedded color name is compared as well,
+ * because renaming a color changes the JSON without touching person versions.
+ * Writes additionally invalidate entries so dead JSON does not linger in memory.
+ */
+@Component
+public class PersonJsonCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonJsonCache.class);
+
+    private record Entry(long version, String colorName, byte[] json) {
+    }
+
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    public PersonJsonCache(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.hitCounter = Counter.builder("person.json.cache.requests")
+                .description("Lookups in the serialized person cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("person.json.cache.requests")
+                .description("Lookups in the serialized person cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("person.json.cache.size", entries, Map::size)
+                .description("Number of persons with cached JSON")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Get the JSON of a person, serializing and caching it on a miss.
+     *
+     * @param person the person to serialize
+     * @return the JSON bytes; callers must not modify them
+     */
+    public byte[] get(Person person) throws JsonProcessingException {
+        Long id = person.getId();
+        if (id == null) {
+            return objectMapper.writeValueAsBytes(person);
+        }
+        Entry entry = entries.get(id);
+        if (entry != null && entry.version() == person.getVersion()
+                && Objects.equals(entry.colorName(), person.getColorName())) {
+            hitCounter.increment();
+            return entry.json();
+        }
+        missCounter.increment();
+        byte[] json = objectMapper.writeValueAsBytes(person);
+        // Never let a slow reader replace a newer version with an older one
+        entries.merge(id, new Entry(person.getVersion(), person.getColorName(), json),
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+        return json;
+    }
+
+    public void invalidate(long id) {
+        entries.remove(id);
+    }
+
+    public void invalidateAll() {
+        logger.debug("Invalidating {} cached persons", entries.size());
+        entries.clear();
+    }
+}
@@ -0,0 +1,90 @@
+package com.assecor.assessment.cache;
+
+import com.assecor.assessment.model.Person;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+
+/**
+ * Writes persons and lists of persons as JSON from the {@link PersonJsonCache}.
+ * Lists are assembled by copying each cached fragment straight into the response stream,
+ * so Jackson only runs for persons that changed since they were last served.
+ * Reading and every other type are left to the regular Jackson converter.
+ */
+public class PersonJsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private static final ResolvableType PERSON_COLLECTION =
+            ResolvableType.forClassWithGenerics(Collection.class, Person.class);
+
+    private final PersonJsonCache personJsonCache;
+
+    public PersonJsonHttpMessageConverter(PersonJsonCache personJsonCache) {
+        super(MediaType.APPLICATION_JSON);
+        this.personJsonCache = personJsonCache;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Person.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(Type type, @Nullable Class<?> contextClass, @Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(@Nullable MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(@Nullable Type type, Class<?> clazz, @Nullable MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (Person.class == clazz) {
+            return true;
+        }
+        // The declared type may promise persons while the body is something else, such as an error payload
+        return Collection.class.isAssignableFrom(clazz) && type != null && PERSON_COLLECTION.isAssignableFrom(ResolvableType.forType(type));
+    }
+
+    @Override
+    protected void writeInternal(Object object, @Nullable Type type, HttpOutputMessage outputMessage) throws IOException {
+        OutputStream body = outputMessage.getBody();
+        if (object instanceof Person person) {
+            body.write(personJsonCache.get(person));
+            return;
+        }
+        body.write('[');
+        boolean first = true;
+        for (Object element : (Collection<?>) object) {
+            if (!first) {
+                body.write(',');
+            }
+            body.write(personJsonCache.get((Person) element));
+            first = false;
+        }
+        body.write(']');
+    }
+
+    @Override
+    public Object read(Type type, @Nullable Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading is not supported", inputMessage);
+    }
+}
@@ -0,0 +1,54 @@
+package com.assecor.assessment.cache;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Assigns each distinct string a dense int code so columns can store codes instead of strings.
+ * Codes are never reused; strings whose rows are gone stay in the dictionary until it is rebuilt.
+ * Not thread-safe, callers synchronize.
+ */
+final class StringDictionary {
+
+    private final Map<String, Integer> codes = new HashMap<>();
+    private final List<String> values = new ArrayList<>();
+
+    int encode(String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = values.size();
+            codes.put(value, code);
+            values.add(value);
+        }
+        return code;
+    }
+
+    String decode(int code) {
+        return values.get(code);
+    }
+
+    /**
+     * Find the codes of all strings equal to the given one ignoring case.
+     */
+    BitSet codesEqualIgnoreCase(String value) {
+        BitSet matches = new BitSet(values.size());
+        for (int code = 0; code < values.size(); code++) {
+            if (values.get(code).equalsIgnoreCase(value)) {
+                matches.set(code);
+            }
+        }
+        return matches;
+    }
+
+    int size() {
+        return values.size();
+    }
+
+    void clear() {
+        codes.clear();
+        values.clear();
+    }
+}
@@ -0,0 +1,56 @@
+package com.assecor.assessment.config;
+
+import com.assecor.assessment.cache.PersonJsonCache;
+import com.assecor.assessment.cache.PersonJsonHttpMessageConverter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Configuration for response formats.
+ * Clients may ask for {@code application/cbor} or {@code application/x-jackson-smile} via the
+ * Accept header; {@code application/json} stays the default for everyone else and is served
+ * from the pre-serialized person cache where possible.
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+    private final PersonJsonCache personJsonCache;
+
+    public ContentNegotiationConfig(Jackson2ObjectMapperBuilder objectMapperBuilder, PersonJsonCache personJsonCache) {
+        this.objectMapperBuilder = objectMapperBuilder;
+        this.personJsonCache = personJsonCache;
+    }
+
+    /**
+     * Shared string values let Smile back-reference the repeated city and color names
+     * in list responses, on top of the shared property names it uses by default.
+     */
+    public static SmileFactory smileFactory() {
+        return SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_NAMES)
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // Ahead of Jackson so person JSON comes from the cache; other types fall through
+        converters.add(0, new PersonJsonHttpMessageConverter(personJsonCache));
+        
+        // Appended after the JSON converter so "Accept: */*" keeps getting JSON
+        converters.add(new MappingJackson2CborHttpMessageConverter(
+                objectMapperBuilder.factory(new CBORFactory()).build()));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(smileFactory()).build()));
+    }
+}
@@ -0,0 +1,48 @@
+package com.assecor.assessment.config;
+
+import com.assecor.assessment.cache.PersonColorIndex;
+import com.assecor.assessment.cache.PersonColumnarSnapshot;
+import com.assecor.assessment.cache.PersonJsonCache;
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.importer.CsvSourceProperties;
+import com.assecor.assessment.importer.CsvSourceSynchronizer;
+import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.service.impl.ColorSearchCoalescer;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Configuration for loading persons from a CSV file and following changes to it.
+ * A change is applied in one transaction, which a single database can guarantee but several shards
+ * cannot, so the CSV source refuses to start together with sharding.
+ */
+@Configuration
+@EnableConfigurationProperties(CsvSourceProperties.class)
+@ConditionalOnProperty(prefix = "csv-source", name = "enabled", havingValue = "true")
+public class CsvSourceConfig {
+
+    @Bean
+    public CsvSourceSynchronizer csvSourceSynchronizer(CsvSourceProperties properties, ShardRouter shardRouter,
+                                                       JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                                       ColorJpaRepository colorJpaRepository, Validator validator,
+                                                       PersonJsonCache personJsonCache, PersonColorIndex personColorIndex,
+                                                       PersonColumnarSnapshot personColumnarSnapshot,
+                                                       ColorSearchCoalescer colorSearchCoalescer, MeterRegistry meterRegistry) {
+        if (properties.path() == null) {
+            throw new IllegalStateException("csv-source.path is required when the CSV source is enabled");
+        }
+        if (shardRouter.shardCount() > 1) {
+            throw new IllegalStateException("The CSV source cannot be combined with datasource.sharding");
+        }
+        return new CsvSourceSynchronizer(properties, jdbcTemplate, new TransactionTemplate(transactionManager),
+                colorJpaRepository, validator, personJsonCache, personColorIndex, personColumnarSnapshot,
+                colorSearchCoalescer, meterRegistry);
+    }
+}
@@ -0,0 +1,13 @@
+package com.assecor.assessment.config;
+
+import com.assecor.assessment.importer.ImportProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration for importing persons from CSV.
+ */
+@Configuration
+@EnableConfigurationProperties(ImportProperties.class)
+public class ImportConfig {
+}
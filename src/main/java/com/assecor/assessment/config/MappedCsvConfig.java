@@ -0,0 +1,48 @@
+package com.assecor.assessment.config;
+
+import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.repository.MappedCsvPersonRepository;
+import com.assecor.assessment.repository.MappedCsvProperties;
+import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.impl.MappedCsvPersonServiceImpl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Configuration for serving persons read-only from a memory-mapped CSV file.
+ * Replaces the database-backed person service; colors still come from the database, and are read
+ * once at startup to resolve the color IDs in the file. Color writes are refused in this mode, as they
+ * would not reach the names resolved at startup.
+ */
+@Configuration
+@EnableConfigurationProperties(MappedCsvProperties.class)
+@ConditionalOnProperty(prefix = "mapped-csv", name = "enabled", havingValue = "true")
+public class MappedCsvConfig {
+
+    @Bean(destroyMethod = "close")
+    public MappedCsvPersonRepository mappedCsvPersonRepository(MappedCsvProperties properties,
+                                                               ColorJpaRepository colorJpaRepository,
+                                                               MeterRegistry meterRegistry) throws IOException {
+        if (properties.path() == null) {
+            throw new IllegalStateException("mapped-csv.path is required when the mapped CSV is enabled");
+        }
+        MappedCsvPersonRepository repository =
+                new MappedCsvPersonRepository(properties.path(), colorJpaRepository.findAll());
+        Gauge.builder("mapped.csv.persons", repository, MappedCsvPersonRepository::count)
+                .description("Number of persons indexed in the mapped CSV file")
+                .register(meterRegistry);
+        return repository;
+    }
+
+    @Bean
+    public PersonService mappedCsvPersonService(MappedCsvPersonRepository mappedCsvPersonRepository,
+                                                ColorJpaRepository colorJpaRepository, MeterRegistry meterRegistry) {
+        return new MappedCsvPersonServiceImpl(mappedCsvPersonRepository, colorJpaRepository, meterRegistry);
+    }
+}
@@ -0,0 +1,84 @@
+package com.assecor.assessment.config;
+
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.datasource.ShardRoutingDataSource;
+import com.assecor.assessment.datasource.ShardSchemaInitializer;
+import com.assecor.assessment.datasource.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for sharding persons across several databases.
+ * The {@link ShardRouter} always exists so the services need no separate code path; without sharding
+ * it has a single shard and runs everything inline. With sharding enabled the application's data source
+ * is replaced by one that routes every connection to the shard selected by the router.
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ShardRouter shardRouter(ShardingProperties properties, MeterRegistry meterRegistry) {
+        return new ShardRouter(properties.shardCount(), meterRegistry);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "datasource.sharding", name = "enabled", havingValue = "true")
+    static class ShardedDataSourceConfig {
+
+        @Bean(destroyMethod = "close")
+        public ShardRoutingDataSource shardRoutingDataSource(DataSourceProperties dataSourceProperties,
+                                                             ShardingProperties properties,
+                                                             MeterRegistry meterRegistry) {
+            List<HikariDataSource> shards = new ArrayList<>();
+            HikariDataSource first = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .build();
+            first.setPoolName("shard-0");
+            first.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            shards.add(first);
+            for (ShardingProperties.Shard shard : properties.shards()) {
+                HikariDataSource pool = new HikariDataSource();
+                pool.setPoolName("shard-" + shards.size());
+                pool.setJdbcUrl(shard.url());
+                pool.setUsername(shard.username());
+                pool.setPassword(shard.password());
+                pool.setMaximumPoolSize(properties.poolSize());
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+                shards.add(pool);
+            }
+            return new ShardRoutingDataSource(shards, meterRegistry);
+        }
+
+        /**
+         * The shard is chosen when the first statement runs, after the router has selected it.
+         */
+        @Bean
+        @Primary
+        public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+            return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        }
+
+        @Bean
+        @DependsOnDatabaseInitialization
+        public ShardSchemaInitializer shardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource,
+                                                             @Value("classpath:schema.sql") Resource schema) {
+            return new ShardSchemaInitializer(shardRoutingDataSource, schema);
+        }
+    }
+}
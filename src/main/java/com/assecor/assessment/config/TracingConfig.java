@@ -0,0 +1,84 @@
+package com.assecor.assessment.config;
+
+import com.assecor.assessment.tracing.TraceCollector;
+import com.assecor.assessment.tracing.TracesEndpoint;
+import com.assecor.assessment.tracing.TracingFilter;
+import com.assecor.assessment.tracing.TracingMethodInterceptor;
+import com.assecor.assessment.tracing.TracingProperties;
+import com.assecor.assessment.tracing.TracingReturnValueHandler;
+import com.assecor.assessment.tracing.TracingSessionEventListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+/**
+ * Configuration for in-process request tracing.
+ * The filter sits in front of admission control, so time spent waiting for admission is part of the
+ * trace. Controllers, services and repositories are proxied to record their calls, Hibernate reports
+ * each statement, and the return value handlers record writing the response body.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "tracing", name = "enabled", havingValue = "true")
+public class TracingConfig {
+
+    @Bean(destroyMethod = "close")
+    public TraceCollector traceCollector(TracingProperties properties, MeterRegistry meterRegistry) {
+        return new TraceCollector(properties, meterRegistry);
+    }
+
+    @Bean
+    public FilterRegistrationBean<TracingFilter> tracingFilter(TraceCollector traceCollector,
+                                                               TracingProperties properties) {
+        FilterRegistrationBean<TracingFilter> registration =
+                new FilterRegistrationBean<>(new TracingFilter(traceCollector, properties));
+        registration.addUrlPatterns("/persons/*", "/colors/*");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public TracesEndpoint tracesEndpoint(TraceCollector traceCollector) {
+        return new TracesEndpoint(traceCollector);
+    }
+
+    // Infrastructure role, so the advisor is applied like the transaction advisor even without AspectJ
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor tracingAdvisor() {
+        return new DefaultPointcutAdvisor(TracingMethodInterceptor.pointcut(), new TracingMethodInterceptor());
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer tracingHibernateProperties() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, TracingSessionEventListener.STATEMENT_INSPECTOR);
+            properties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, TracingSessionEventListener.class.getName());
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor tracingReturnValueHandlers() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof RequestMappingHandlerAdapter adapter && adapter.getReturnValueHandlers() != null) {
+                    adapter.setReturnValueHandlers(TracingReturnValueHandler.wrap(adapter.getReturnValueHandlers()));
+                }
+                return bean;
+            }
+        };
+    }
+}
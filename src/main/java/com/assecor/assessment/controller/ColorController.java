@@ -1,7 +1,9 @@
 package com.assecor.assessment.controller;
 
+import com.assecor.assessment.exception.ErrorResponses;
 import com.assecor.assessment.model.Color;
 import com.assecor.assessment.service.ColorService;
+import com.assecor.assessment.service.ServiceResult;
 import io.micrometer.core.instrument.Counter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,10 +17,12 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import jakarta.validation.Valid;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -61,53 +65,60 @@ public class ColorController {
             return ResponseEntity.ok(color.get());
         } else {
             logger.debug("Color with ID {} not found", id);
-            return ResponseEntity.notFound().build();
+            return ErrorResponses.notFound();
         }
     }
     
     @PostMapping
     public ResponseEntity<Color> createColor(@Valid @RequestBody Color color) {
         logger.info("Creating new color: {}", color);
-        try {
-            Color savedColor = colorService.createColor(color);
-            colorCreationCounter.increment();
-            logger.info("Color created successfully with ID: {}", savedColor.getId());
-            return ResponseEntity.status(HttpStatus.CREATED).body(savedColor);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to create color: {}", e.getMessage());
-            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        ServiceResult<Color> result = colorService.createColor(color);
+        if (!result.isOk()) {
+            logger.warn("Failed to create color: {}", result);
+            return ErrorResponses.of(result);
         }
+        colorCreationCounter.increment();
+        logger.info("Color created successfully with ID: {}", result.value().getId());
+        return ResponseEntity.status(HttpStatus.CREATED).body(result.value());
     }
     
     @PutMapping("/{id}")
     public ResponseEntity<Color> updateColor(@PathVariable Long id, @Valid @RequestBody Color color) {
         logger.info("Updating color with ID: {} with data: {}", id, color);
-        try {
-            Color updatedColor = colorService.updateColor(id, color);
-            colorUpdateCounter.increment();
-            logger.info("Color with ID {} updated successfully", id);
-            return ResponseEntity.ok(updatedColor);
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to update color: {}", e.getMessage());
-            if (e.getMessage().contains("not found")) {
-                return ResponseEntity.notFound().build();
-            } else {
-                return ResponseEntity.status(HttpStatus.CONFLICT).build();
-            }
+        ServiceResult<Color> result = colorService.updateColor(id, color);
+        if (!result.isOk()) {
+            logger.warn("Failed to update color with ID {}: {}", id, result);
+            return ErrorResponses.of(result);
         }
+        colorUpdateCounter.increment();
+        logger.info("Color with ID {} updated successfully", id);
+        return ResponseEntity.ok(result.value());
+    }
+    
+    @PostMapping("/{id}/reassign")
+    public ResponseEntity<Map<String, Integer>> reassignColor(@PathVariable Long id, @RequestParam("to") Long targetId) {
+        logger.info("Reassigning persons from color with ID: {} to color with ID: {}", id, targetId);
+        ServiceResult<Integer> result = colorService.reassignColor(id, targetId);
+        if (!result.isOk()) {
+            logger.warn("Failed to reassign color with ID {}: {}", id, result);
+            return ErrorResponses.of(result);
+        }
+        colorUpdateCounter.increment();
+        logger.info("Reassigned {} persons from color with ID {}", result.value(), id);
+        return ResponseEntity.ok(Map.of("reassigned", result.value()));
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteColor(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteColor(@PathVariable Long id,
+                                            @RequestParam(value = "reassignTo", required = false) Long reassignToId) {
         logger.info("Deleting color with ID: {}", id);
-        try {
-            colorService.deleteColor(id);
-            colorDeletionCounter.increment();
-            logger.info("Color with ID {} deleted successfully", id);
-            return ResponseEntity.noContent().build();
-        } catch (IllegalArgumentException e) {
-            logger.warn("Failed to delete color: {}", e.getMessage());
-            return ResponseEntity.notFound().build();
+        ServiceResult<Void> result = colorService.deleteColor(id, reassignToId);
+        if (!result.isOk()) {
+            logger.warn("Failed to delete color with ID {}: {}", id, result);
+            return ErrorResponses.of(result);
         }
+        colorDeletionCounter.increment();
+        logger.info("Color with ID {} deleted successfully", id);
+        return ResponseEntity.noContent().build();
     }
 }
@@ -0,0 +1,98 @@
+package com.assecor.assessment.controller;
+
+import com.assecor.assessment.importer.ImportJob;
+import com.assecor.assessment.importer.ImportJobService;
+import com.assecor.assessment.importer.ImportJobStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Instant;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/imports")
+@Tag(name = "Import", description = "APIs for importing persons from CSV files")
+public class ImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportController.class);
+    private static final String RETRY_AFTER_SECONDS = "30";
+    private final ImportJobService importJobService;
+
+    public ImportController(ImportJobService importJobService) {
+        this.importJobService = importJobService;
+    }
+
+    @PostMapping(consumes = {"text/csv", "text/plain"})
+    @Operation(summary = "Import persons from CSV", description = "Upload persons in the format of sample-input.csv as the request body; the import runs in the background")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Upload stored and import queued"),
+            @ApiResponse(responseCode = "503", description = "Too many imports queued")
+    })
+    public ResponseEntity<ImportJobStatus> importPersons(InputStream body) throws IOException {
+        logger.info("Receiving CSV import");
+        return submit(body);
+    }
+
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import persons from an uploaded CSV file", description = "Upload persons in the format of sample-input.csv as the multipart part 'file'; the import runs in the background")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Upload stored and import queued"),
+            @ApiResponse(responseCode = "503", description = "Too many imports queued")
+    })
+    public ResponseEntity<ImportJobStatus> importPersonsFile(
+            @Parameter(description = "The CSV file")
+            @RequestParam("file") MultipartFile file) throws IOException {
+        logger.info("Receiving CSV import {} of {} bytes", file.getOriginalFilename(), file.getSize());
+        try (InputStream content = file.getInputStream()) {
+            return submit(content);
+        }
+    }
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get import progress", description = "Rows parsed, inserted and rejected so far and the import rate")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Import found"),
+            @ApiResponse(responseCode = "404", description = "Import not found or expired")
+    })
+    public ResponseEntity<ImportJobStatus> getImport(
+            @Parameter(description = "ID of the import")
+            @PathVariable String id) {
+        return importJobService.getJob(id)
+                .map(job -> ResponseEntity.ok(job.status(Instant.now())))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private ResponseEntity<ImportJobStatus> submit(InputStream content) throws IOException {
+        ImportJob job;
+        try {
+            job = importJobService.submit(content);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Import refused, queue is full");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS)
+                    .build();
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/imports/" + job.getId()))
+                .body(job.status(Instant.now()));
+    }
+}
@@ -1,9 +1,15 @@
 package com.assecor.assessment.controller;
 
+import com.assecor.assessment.dto.PersonBatchDto;
 import com.assecor.assessment.dto.PersonInputDto;
 import com.assecor.assessment.dto.PersonMapper;
+import com.assecor.assessment.dto.PersonPatchDto;
+import com.assecor.assessment.exception.ErrorResponses;
 import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonField;
+import com.assecor.assessment.model.PersonFilter;
 import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.ServiceResult;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -12,19 +18,27 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/persons")
@@ -32,6 +46,7 @@ import java.util.Optional;
 public class PersonController {
 
     private static final Logger logger = LoggerFactory.getLogger(PersonController.class);
+    private static final int MAX_MULTI_GET_IDS = 1000;
     private final PersonService personService;
     private final PersonMapper personMapper;
     
@@ -41,14 +56,116 @@ public class PersonController {
     }
 
     @GetMapping
-    @Operation(summary = "Get all persons", description = "Retrieve a list of all persons")
+    @Operation(summary = "Get all persons", description = "Retrieve a list of all persons, optionally filtered by color, e.g. color=blau,grün&notColor=rot")
     @ApiResponse(responseCode = "200", description = "Successfully retrieved all persons")
-    public ResponseEntity<List<Person>> getAllPersons() {
-        logger.info("Retrieving all persons");
-        List<Person> persons = personService.getAllPersons();
+    public ResponseEntity<List<Person>> getAllPersons(
+            @Parameter(description = "Comma separated colors of which the person must have one") 
+            @RequestParam(required = false) List<String> color,
+            @Parameter(description = "Comma separated colors the person must not have") 
+            @RequestParam(required = false) List<String> notColor) {
+        if (color == null && notColor == null) {
+            logger.info("Retrieving all persons");
+            List<Person> persons = personService.getAllPersons();
+            return ResponseEntity.ok(persons);
+        }
+        logger.info("Retrieving persons with colors: {} excluding: {}", color, notColor);
+        List<Person> persons = personService.getPersonsByColors(
+                color != null ? color : List.of(), notColor != null ? notColor : List.of());
         return ResponseEntity.ok(persons);
     }
 
+    @GetMapping("/query")
+    @Operation(summary = "Query persons", description = "Retrieve persons matching all given filters, e.g. city=Stralsund&color=grün&zipPrefix=18")
+    @ApiResponse(responseCode = "200", description = "Successfully retrieved matching persons")
+    public ResponseEntity<List<Person>> queryPersons(
+            @Parameter(description = "Name of the person, ignoring case") 
+            @RequestParam(required = false) String name,
+            @Parameter(description = "Lastname of the person, ignoring case") 
+            @RequestParam(required = false) String lastname,
+            @Parameter(description = "City of the person, ignoring case") 
+            @RequestParam(required = false) String city,
+            @Parameter(description = "Favorite color of the person, ignoring case") 
+            @RequestParam(required = false) String color,
+            @Parameter(description = "Start of the zipcode") 
+            @RequestParam(required = false) String zipPrefix) {
+        PersonFilter filter = new PersonFilter(name, lastname, city, color, zipPrefix);
+        logger.info("Querying persons with filter: {}", filter);
+        return ResponseEntity.ok(personService.queryPersons(filter));
+    }
+
+    @GetMapping(params = "fields")
+    @Operation(summary = "Get selected fields of all persons", description = "Retrieve only the requested fields of all persons, e.g. fields=id,name,color")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved all persons"),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested or fields combined with ids or color filters")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getAllPersonFields(
+            @Parameter(description = "Comma separated fields to return") 
+            @RequestParam String fields,
+            @Parameter(hidden = true) 
+            @RequestParam(required = false) String ids,
+            @Parameter(hidden = true) 
+            @RequestParam(required = false) List<String> color,
+            @Parameter(hidden = true) 
+            @RequestParam(required = false) List<String> notColor) {
+        if (ids != null) {
+            // The multi-get returns whole persons, silently ignoring ids would return everyone
+            logger.warn("Rejected fields {} combined with ids {}", fields, ids);
+            return ResponseEntity.badRequest().build();
+        }
+        if (color != null || notColor != null) {
+            // The projection has no color filters, use /persons/color/{color}?fields= for a single color
+            logger.warn("Rejected fields {} combined with colors {} excluding {}", fields, color, notColor);
+            return ResponseEntity.badRequest().build();
+        }
+        logger.info("Retrieving fields {} of all persons", fields);
+        Set<PersonField> requestedFields = parseFields(fields);
+        if (requestedFields == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(personService.getAllPersonFields(requestedFields));
+    }
+
+    @GetMapping(params = {"ids", "!fields"})
+    @Operation(summary = "Get several persons by ID", description = "Retrieve up to " + MAX_MULTI_GET_IDS + " persons in request order, e.g. ids=1,2,3")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Found persons and the IDs that do not exist"),
+            @ApiResponse(responseCode = "400", description = "Invalid or too many IDs")
+    })
+    public ResponseEntity<PersonBatchDto> getPersonsByIds(
+            @Parameter(description = "Comma separated IDs of the persons to retrieve") 
+            @RequestParam String ids) {
+        logger.info("Retrieving persons with IDs: {}", ids);
+        LinkedHashSet<Long> requestedIds = new LinkedHashSet<>();
+        try {
+            for (String id : ids.split(",")) {
+                if (!id.isBlank()) {
+                    requestedIds.add(Long.parseLong(id.trim()));
+                }
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("Invalid ids parameter '{}'", ids);
+            return ResponseEntity.badRequest().build();
+        }
+        if (requestedIds.isEmpty() || requestedIds.size() > MAX_MULTI_GET_IDS) {
+            logger.warn("Multi-get with {} IDs rejected", requestedIds.size());
+            return ResponseEntity.badRequest().build();
+        }
+        
+        Map<Long, Person> found = personService.getPersonsByIds(requestedIds);
+        List<Person> persons = new ArrayList<>(found.size());
+        List<Long> missing = new ArrayList<>();
+        for (Long id : requestedIds) {
+            Person person = found.get(id);
+            if (person != null) {
+                persons.add(person);
+            } else {
+                missing.add(id);
+            }
+        }
+        return ResponseEntity.ok(new PersonBatchDto(persons, missing));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get person by ID", description = "Retrieve a specific person by their ID")
     @ApiResponses(value = {
@@ -60,8 +177,30 @@ public class PersonController {
             @PathVariable int id) {
         logger.info("Retrieving person with ID: {}", id);
         Optional<Person> person = personService.getPersonById(id);
-        return person.map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        return person.map(p -> ResponseEntity.ok().eTag(Long.toString(p.getVersion())).body(p))
+                .orElseGet(ErrorResponses::notFound);
+    }
+
+    @GetMapping(value = "/{id}", params = "fields")
+    @Operation(summary = "Get selected fields of a person", description = "Retrieve only the requested fields of a person, e.g. fields=id,name,color")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Person found"),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested"),
+            @ApiResponse(responseCode = "404", description = "Person not found")
+    })
+    public ResponseEntity<Map<String, Object>> getPersonFieldsById(
+            @Parameter(description = "ID of the person to retrieve") 
+            @PathVariable int id,
+            @Parameter(description = "Comma separated fields to return") 
+            @RequestParam String fields) {
+        logger.info("Retrieving fields {} of person with ID: {}", fields, id);
+        Set<PersonField> requestedFields = parseFields(fields);
+        if (requestedFields == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return personService.getPersonFieldsById(id, requestedFields)
+                .map(ResponseEntity::ok)
+                .orElseGet(ErrorResponses::notFound);
     }
 
     @GetMapping("/color/{color}")
@@ -75,17 +214,41 @@ public class PersonController {
         return ResponseEntity.ok(persons);
     }
 
+    @GetMapping(value = "/color/{color}", params = "fields")
+    @Operation(summary = "Get selected fields of persons by color", description = "Retrieve only the requested fields of all persons with a specific favorite color")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved persons with the specified color"),
+            @ApiResponse(responseCode = "400", description = "Unknown field requested")
+    })
+    public ResponseEntity<List<Map<String, Object>>> getPersonFieldsByColor(
+            @Parameter(description = "Color to filter by") 
+            @PathVariable String color,
+            @Parameter(description = "Comma separated fields to return") 
+            @RequestParam String fields) {
+        logger.info("Retrieving fields {} of persons with color: {}", fields, color);
+        Set<PersonField> requestedFields = parseFields(fields);
+        if (requestedFields == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(personService.getPersonFieldsByColor(color, requestedFields));
+    }
+
     @PostMapping
     @Operation(summary = "Create a new person", description = "Add a new person to the system")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "Person created successfully"),
-            @ApiResponse(responseCode = "400", description = "Invalid input data")
+            @ApiResponse(responseCode = "400", description = "Invalid input data or unknown color"),
+            @ApiResponse(responseCode = "405", description = "Persons are read-only")
     })
     public ResponseEntity<Person> createPerson(@Valid @RequestBody PersonInputDto personInputDto) {
         logger.info("Creating new person: {}", personInputDto);
         Person person = personMapper.toEntity(personInputDto);
-        Person savedPerson = personService.createPerson(person);
-        return ResponseEntity.status(HttpStatus.CREATED).body(savedPerson);
+        ServiceResult<Person> result = personService.createPerson(person);
+        if (!result.isOk()) {
+            logger.warn("Failed to create person: {}", result);
+            return ErrorResponses.of(result);
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).body(result.value());
     }
 
     @PutMapping("/{id}")
@@ -93,7 +256,8 @@ public class PersonController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Person updated successfully"),
             @ApiResponse(responseCode = "404", description = "Person not found"),
-            @ApiResponse(responseCode = "400", description = "Invalid input data")
+            @ApiResponse(responseCode = "400", description = "Invalid input data or unknown color"),
+            @ApiResponse(responseCode = "405", description = "Persons are read-only")
     })
     public ResponseEntity<Person> updatePerson(
             @Parameter(description = "ID of the person to update") 
@@ -101,31 +265,109 @@ public class PersonController {
             @Valid @RequestBody PersonInputDto personInputDto) {
         logger.info("Updating person with ID: {}", id);
         Person person = personMapper.toEntity(personInputDto);
-        Optional<Person> updatedPerson = personService.updatePerson(id, person);
-        if (updatedPerson.isPresent()) {
-            return ResponseEntity.ok(updatedPerson.get());
-        } else {
-            logger.warn("Person with ID {} not found for update", id);
-            return ResponseEntity.notFound().build();
+        ServiceResult<Person> result = personService.updatePerson(id, person);
+        if (!result.isOk()) {
+            logger.warn("Failed to update person with ID {}: {}", id, result);
+            return ErrorResponses.of(result);
+        }
+        return ResponseEntity.ok(result.value());
+    }
+
+    @PatchMapping("/{id}")
+    @Operation(summary = "Partially update a person",
+            description = "Update only the supplied fields of a person. Send the ETag from GET as If-Match to guard against concurrent writers")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Person updated successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid input data or unknown color"),
+            @ApiResponse(responseCode = "404", description = "Person not found"),
+            @ApiResponse(responseCode = "412", description = "Person was modified by another request"),
+            @ApiResponse(responseCode = "405", description = "Persons are read-only")
+    })
+    public ResponseEntity<Void> patchPerson(
+            @Parameter(description = "ID of the person to update") 
+            @PathVariable int id,
+            @Parameter(description = "Version of the person as returned in the ETag header") 
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody PersonPatchDto personPatchDto) {
+        logger.info("Patching person with ID: {}", id);
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            try {
+                expectedVersion = Long.parseLong(ifMatch.replace("W/", "").replace("\"", "").trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Invalid If-Match header '{}' for person with ID {}", ifMatch, id);
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        Person changes = personMapper.toEntity(personPatchDto);
+        ServiceResult<Long> result = personService.patchPerson(id, changes, expectedVersion);
+        if (!result.isOk()) {
+            logger.warn("Failed to patch person with ID {}: {}", id, result);
+            // A conflict here means the If-Match version is stale
+            return result.status() == ServiceResult.Status.CONFLICT
+                    ? ErrorResponses.preconditionFailed() : ErrorResponses.of(result);
+        }
+        if (result.value() != null) {
+            return ResponseEntity.noContent().eTag(Long.toString(result.value())).build();
         }
+        return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping("/{id}")
     @Operation(summary = "Delete a person", description = "Delete a person by ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Person deleted successfully"),
-            @ApiResponse(responseCode = "404", description = "Person not found")
+            @ApiResponse(responseCode = "404", description = "Person not found"),
+            @ApiResponse(responseCode = "405", description = "Persons are read-only")
     })
     public ResponseEntity<Void> deletePerson(
             @Parameter(description = "ID of the person to delete") 
             @PathVariable int id) {
         logger.info("Deleting person with ID: {}", id);
-        boolean deleted = personService.deletePerson(id);
-        if (deleted) {
+        ServiceResult<Void> result = personService.deletePerson(id);
+        if (result.isOk()) {
             return ResponseEntity.noContent().build();
         } else {
-            logger.warn("Person with ID {} not found for deletion", id);
-            return ResponseEntity.notFound().build();
+            logger.warn("Person with ID {} not deleted: {}", id, result.status());
+            return ErrorResponses.of(result);
+        }
+    }
+
+    @DeleteMapping
+    @Operation(summary = "Delete persons by filter", description = "Delete all persons matching the given color and/or zipcode prefix")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Persons deleted, the body holds the number of deleted rows"),
+            @ApiResponse(responseCode = "400", description = "No filter given"),
+            @ApiResponse(responseCode = "405", description = "Persons are read-only")
+    })
+    public ResponseEntity<Map<String, Integer>> deletePersons(
+            @Parameter(description = "Color to filter by") 
+            @RequestParam(required = false) String color,
+            @Parameter(description = "Zipcode prefix to filter by") 
+            @RequestParam(required = false) String zipPrefix) {
+        logger.info("Deleting persons with color: {} and zipcode prefix: {}", color, zipPrefix);
+        // An empty zipPrefix would match every zipcode, so blank filters count as missing
+        if (isBlank(color) && isBlank(zipPrefix)) {
+            logger.warn("Refusing bulk deletion without a filter");
+            return ResponseEntity.badRequest().build();
+        }
+        ServiceResult<Integer> result = personService.deletePersons(color, zipPrefix);
+        if (!result.isOk()) {
+            return ErrorResponses.of(result);
+        }
+        return ResponseEntity.ok(Map.of("deleted", result.value()));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private Set<PersonField> parseFields(String fields) {
+        try {
+            return PersonField.parse(fields);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Invalid fields parameter '{}': {}", fields, e.getMessage());
+            return null;
         }
     }
 }
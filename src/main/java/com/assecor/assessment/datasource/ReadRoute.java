@@ -0,0 +1,37 @@
+package com.assecor.assessment.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Marks reads that may be served by a replica.
+ * The connection is chosen when the first statement runs, so only work that starts its own
+ * transaction inside {@link #onReplica(Supplier)} is routed; inside an existing transaction the
+ * already bound connection keeps being used. With open-session-in-view the connection is then held
+ * for the rest of the request, so only mark the reads of endpoints that do not write.
+ * Without replica routing configured this is a no-op.
+ */
+public final class ReadRoute {
+
+    private static final ThreadLocal<Boolean> REPLICA = new ThreadLocal<>();
+
+    private ReadRoute() {
+    }
+
+    public static <T> T onReplica(Supplier<T> read) {
+        Boolean previous = REPLICA.get();
+        REPLICA.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                REPLICA.remove();
+            } else {
+                REPLICA.set(previous);
+            }
+        }
+    }
+
+    static boolean isReplicaRequested() {
+        return REPLICA.get() != null;
+    }
+}
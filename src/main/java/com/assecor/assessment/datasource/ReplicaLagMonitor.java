@@ -0,0 +1,93 @@
+package com.assecor.assessment.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replication lag with a heartbeat row: the primary periodically stores the current time,
+ * and a replica's lag is how far the value it returns is behind the clock.
+ * A replica that cannot be queried, or has not received the heartbeat table yet, counts as unusable.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ScheduledExecutorService scheduler;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource, Duration interval) {
+        this.routingDataSource = routingDataSource;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("replica-lag-monitor").daemon().factory());
+        createHeartbeatTable();
+        scheduler.scheduleWithFixedDelay(this::check, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    void check() {
+        try {
+            writeHeartbeat();
+        } catch (SQLException e) {
+            logger.warn("Writing the replication heartbeat failed: {}", e.getMessage());
+        }
+        List<HikariDataSource> replicas = routingDataSource.getReplicas();
+        for (int i = 0; i < replicas.size(); i++) {
+            long lag = measureLag(replicas.get(i));
+            routingDataSource.recordLag(i, lag);
+        }
+    }
+
+    private void createHeartbeatTable() {
+        try (Connection connection = routingDataSource.getPrimary().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_millis BIGINT NOT NULL)");
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot create the replication heartbeat table", e);
+        }
+    }
+
+    private void writeHeartbeat() throws SQLException {
+        try (Connection connection = routingDataSource.getPrimary().getConnection();
+             PreparedStatement update = connection.prepareStatement(
+                     "UPDATE replication_heartbeat SET beat_millis = ? WHERE id = 1")) {
+            long now = System.currentTimeMillis();
+            update.setLong(1, now);
+            if (update.executeUpdate() == 0) {
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO replication_heartbeat (id, beat_millis) VALUES (1, ?)")) {
+                    insert.setLong(1, now);
+                    insert.executeUpdate();
+                }
+            }
+        }
+    }
+
+    private long measureLag(HikariDataSource replica) {
+        try (Connection connection = replica.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet beat = statement.executeQuery("SELECT beat_millis FROM replication_heartbeat WHERE id = 1")) {
+            if (beat.next()) {
+                return Math.max(0, System.currentTimeMillis() - beat.getLong(1));
+            }
+            logger.debug("Replica {} has no heartbeat yet", replica.getPoolName());
+        } catch (SQLException e) {
+            logger.warn("Measuring the lag of replica {} failed: {}", replica.getPoolName(), e.getMessage());
+        }
+        return Long.MAX_VALUE;
+    }
+
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
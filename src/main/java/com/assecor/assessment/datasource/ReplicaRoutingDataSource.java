@@ -0,0 +1,112 @@
+package com.assecor.assessment.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Routes connections to the primary or, for reads marked with {@link ReadRoute}, round-robin to a replica.
+ * Replicas whose measured lag exceeds the limit, or whose lag is unknown, are skipped; when no replica
+ * qualifies the read falls back to the primary.
+ * Owns all connection pools and closes them with {@link #close()}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    static final String PRIMARY = "primary";
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final long maxLagMillis;
+    private final AtomicLongArray lagMillis;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final Counter primaryCounter;
+    private final List<Counter> replicaCounters = new ArrayList<>();
+    private final Counter fallbackCounter;
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLag.toMillis();
+        this.lagMillis = new AtomicLongArray(replicas.size());
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.primaryCounter = routeCounter(PRIMARY, meterRegistry);
+        for (int i = 0; i < replicas.size(); i++) {
+            String name = replicas.get(i).getPoolName();
+            targets.put(name, replicas.get(i));
+            replicaCounters.add(routeCounter(name, meterRegistry));
+            // Unknown until the first heartbeat has been measured
+            lagMillis.set(i, Long.MAX_VALUE);
+            int replica = i;
+            Gauge.builder("datasource.replica.lag", lagMillis, lags -> lags.get(replica) == Long.MAX_VALUE
+                            ? Double.NaN : lags.get(replica) / 1000.0)
+                    .description("Replication lag of the replica measured with the heartbeat")
+                    .baseUnit("seconds")
+                    .tag("pool", name)
+                    .register(meterRegistry);
+        }
+        this.fallbackCounter = Counter.builder("datasource.route.fallback")
+                .description("Replica reads served by the primary because every replica lagged or was unreachable")
+                .register(meterRegistry);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (ReadRoute.isReplicaRequested()) {
+            int start = nextReplica.getAndIncrement();
+            for (int i = 0; i < replicas.size(); i++) {
+                int replica = Math.floorMod(start + i, replicas.size());
+                if (lagMillis.get(replica) <= maxLagMillis) {
+                    replicaCounters.get(replica).increment();
+                    return replicas.get(replica).getPoolName();
+                }
+            }
+            fallbackCounter.increment();
+        }
+        primaryCounter.increment();
+        return PRIMARY;
+    }
+
+    HikariDataSource getPrimary() {
+        return primary;
+    }
+
+    List<HikariDataSource> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Record the lag of a replica; {@link Long#MAX_VALUE} marks it as unusable.
+     */
+    void recordLag(int replica, long lag) {
+        lagMillis.set(replica, lag);
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+        primary.close();
+    }
+
+    private static Counter routeCounter(String pool, MeterRegistry meterRegistry) {
+        return Counter.builder("datasource.route.total")
+                .description("Connections handed out per route")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+}
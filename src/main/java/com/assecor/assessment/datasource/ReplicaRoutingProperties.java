@@ -0,0 +1,33 @@
+package com.assecor.assessment.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Settings for splitting reads to replicas and writes to the primary data source.
+ * The primary is configured with the regular {@code spring.datasource} properties.
+ *
+ * @param enabled whether reads are routed to replicas at all
+ * @param replicas the replica data sources
+ * @param maxLag replication lag above which a replica is skipped and reads fall back to other replicas or the primary
+ * @param heartbeatInterval how often the primary writes a heartbeat and the replicas' lag is measured
+ * @param replicaPoolSize maximum number of connections per replica
+ */
+@ConfigurationProperties(prefix = "datasource.routing")
+public record ReplicaRoutingProperties(
+        @DefaultValue("false") boolean enabled,
+        List<Replica> replicas,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("1s") Duration heartbeatInterval,
+        @DefaultValue("4") int replicaPoolSize) {
+
+    public ReplicaRoutingProperties {
+        replicas = replicas != null ? List.copyOf(replicas) : List.of();
+    }
+
+    public record Replica(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.assecor.assessment.datasource;
+
+import com.assecor.assessment.tracing.Tracing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a person lives on and runs work against one or all shards.
+ * A person's shard is its ID modulo the number of shards; each shard's identity column only hands out
+ * IDs of its own residue, so the ID alone is enough to route. Colors exist on every shard with the same IDs.
+ * <p>
+ * Like {@link ReadRoute}, the shard is picked when a transaction fetches its connection, so
+ * {@link #onShard(int, Supplier)} must not be used inside a transaction that is already bound to
+ * another shard. Fan-out runs each shard on its own virtual thread and therefore in its own transaction.
+ * With a single shard everything runs inline on the calling thread.
+ */
+public class ShardRouter {
+
+    private static final ThreadLocal<Integer> CURRENT_SHARD = new ThreadLocal<>();
+
+    private final int shardCount;
+    private final AtomicInteger nextInsertShard = new AtomicInteger();
+    private final ExecutorService fanOut;
+    private final Timer fanOutTimer;
+
+    public ShardRouter(int shardCount, MeterRegistry meterRegistry) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+        this.fanOut = Executors.newVirtualThreadPerTaskExecutor();
+        this.fanOutTimer = Timer.builder("shard.fanout")
+                .description("Time until every shard answered a scatter-gather query")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    public int shardCount() {
+        return shardCount;
+    }
+
+    public int shardFor(long personId) {
+        return Math.floorMod(personId, shardCount);
+    }
+
+    /**
+     * Shard for a new person; inserts are spread round-robin and the shard's identity column
+     * then allocates an ID that routes back to it.
+     */
+    public int nextShardForInsert() {
+        return Math.floorMod(nextInsertShard.getAndIncrement(), shardCount);
+    }
+
+    public <T> T onShard(int shard, Supplier<T> work) {
+        if (shardCount == 1) {
+            return work.get();
+        }
+        Integer previous = CURRENT_SHARD.get();
+        CURRENT_SHARD.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_SHARD.remove();
+            } else {
+                CURRENT_SHARD.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Run the same work on every shard in parallel.
+     *
+     * @return one result per shard, in shard order
+     */
+    public <T> List<T> onEveryShard(Supplier<T> work) {
+        return mapShards(shard -> work.get());
+    }
+
+    /**
+     * Run work that depends on the shard index on every shard in parallel.
+     *
+     * @return one result per shard, in shard order
+     */
+    public <T> List<T> mapShards(IntFunction<T> work) {
+        if (shardCount == 1) {
+            return List.of(work.apply(0));
+        }
+        return fanOutTimer.record(() -> {
+            List<Future<T>> futures = new ArrayList<>(shardCount);
+            for (int shard = 0; shard < shardCount; shard++) {
+                int target = shard;
+                futures.add(fanOut.submit(Tracing.wrap(() -> onShard(target, () -> work.apply(target)))));
+            }
+            List<T> results = new ArrayList<>(shardCount);
+            for (Future<T> future : futures) {
+                results.add(await(future));
+            }
+            return results;
+        });
+    }
+
+    static Integer currentShard() {
+        return CURRENT_SHARD.get();
+    }
+
+    public void shutdown() {
+        fanOut.shutdown();
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shard", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new CompletionException(e.getCause());
+        }
+    }
+}
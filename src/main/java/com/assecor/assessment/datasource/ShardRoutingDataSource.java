@@ -0,0 +1,54 @@
+package com.assecor.assessment.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes connections to the shard selected with {@link ShardRouter}; work without a shard goes to shard 0,
+ * which is also where replicated data such as colors is read from.
+ * Owns the connection pools of all shards and closes them with {@link #close()}.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final List<HikariDataSource> shards;
+    private final List<Counter> connectionCounters = new ArrayList<>();
+
+    public ShardRoutingDataSource(List<HikariDataSource> shards, MeterRegistry meterRegistry) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+            connectionCounters.add(Counter.builder("datasource.shard.connections")
+                    .description("Connections handed out per shard")
+                    .tag("pool", shards.get(shard).getPoolName())
+                    .register(meterRegistry));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer shard = ShardRouter.currentShard();
+        int key = shard != null ? shard : 0;
+        connectionCounters.get(key).increment();
+        return key;
+    }
+
+    List<HikariDataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    public void close() {
+        shards.forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,112 @@
+package com.assecor.assessment.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Prepares the shards at startup.
+ * Shards without a persons table are created from the same schema script as shard 0, so every shard
+ * starts with the same colors and seed persons. Each shard then keeps only the persons whose ID
+ * routes to it, and its identity column is set to hand out only IDs of its own residue.
+ * <p>
+ * Each shard records its index and the shard count it was partitioned for. A shard partitioned before
+ * is left alone; one partitioned for another shard count or index stops the startup, because deleting
+ * the persons that would now route elsewhere would lose them. Changing the shard count needs a migration.
+ */
+public class ShardSchemaInitializer implements InitializingBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardSchemaInitializer.class);
+
+    private final ShardRoutingDataSource shardRoutingDataSource;
+    private final Resource schema;
+
+    public ShardSchemaInitializer(ShardRoutingDataSource shardRoutingDataSource, Resource schema) {
+        this.shardRoutingDataSource = shardRoutingDataSource;
+        this.schema = schema;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        List<HikariDataSource> shards = shardRoutingDataSource.getShards();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            HikariDataSource dataSource = shards.get(shard);
+            if (shard > 0 && !hasPersonsTable(dataSource)) {
+                logger.info("Creating schema on shard {}", shard);
+                new ResourceDatabasePopulator(schema).execute(dataSource);
+            }
+            if (isPartitioned(dataSource, shard, shards.size())) {
+                logger.info("Shard {} of {} is already partitioned", shard, shards.size());
+            } else {
+                partition(dataSource, shard, shards.size());
+            }
+        }
+    }
+
+    /**
+     * @return whether the shard was partitioned for this layout before
+     * @throws IllegalStateException if it was partitioned for another layout
+     */
+    private boolean isPartitioned(HikariDataSource dataSource, int shard, int shardCount) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS shard_metadata (shard_index INT NOT NULL, shard_count INT NOT NULL)");
+            try (ResultSet result = statement.executeQuery("SELECT shard_index, shard_count FROM shard_metadata")) {
+                if (!result.next()) {
+                    return false;
+                }
+                int recordedShard = result.getInt(1);
+                int recordedCount = result.getInt(2);
+                if (recordedShard != shard || recordedCount != shardCount) {
+                    throw new IllegalStateException("Shard " + shard + " of " + shardCount
+                            + " was partitioned as shard " + recordedShard + " of " + recordedCount
+                            + "; refusing to start instead of deleting its persons");
+                }
+                return true;
+            }
+        }
+    }
+
+    private boolean hasPersonsTable(HikariDataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.executeQuery("SELECT 1 FROM persons WHERE 1 = 0").close();
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void partition(HikariDataSource dataSource, int shard, int shardCount) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            int removed = statement.executeUpdate(
+                    "DELETE FROM persons WHERE MOD(id, " + shardCount + ") <> " + shard);
+            long maxId;
+            try (ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM persons")) {
+                result.next();
+                maxId = result.getLong(1);
+            }
+            // Smallest ID above the current maximum that routes to this shard
+            long nextId = maxId - Math.floorMod(maxId, shardCount) + shard;
+            if (nextId <= maxId || nextId == 0) {
+                nextId += shardCount;
+            }
+            statement.execute("ALTER TABLE persons ALTER COLUMN id RESTART WITH " + nextId);
+            statement.execute("ALTER TABLE persons ALTER COLUMN id SET INCREMENT BY " + shardCount);
+            // Recorded last, so an interrupted partitioning is simply repeated on the next start
+            statement.executeUpdate("INSERT INTO shard_metadata (shard_index, shard_count) VALUES ("
+                    + shard + ", " + shardCount + ")");
+            logger.info("Shard {} of {}: removed {} foreign persons, next ID {}", shard, shardCount, removed, nextId);
+        }
+    }
+}
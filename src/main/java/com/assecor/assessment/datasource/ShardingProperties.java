@@ -0,0 +1,33 @@
+package com.assecor.assessment.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Settings for hash-sharding persons across several databases.
+ * Shard 0 is the regular {@code spring.datasource}; the listed shards follow as 1..n.
+ * Cannot be combined with {@code datasource.routing}, both replace the application's data source.
+ *
+ * @param enabled whether persons are sharded at all
+ * @param shards the additional shard databases
+ * @param poolSize maximum number of connections per additional shard
+ */
+@ConfigurationProperties(prefix = "datasource.sharding")
+public record ShardingProperties(
+        @DefaultValue("false") boolean enabled,
+        List<Shard> shards,
+        @DefaultValue("10") int poolSize) {
+
+    public ShardingProperties {
+        shards = shards != null ? List.copyOf(shards) : List.of();
+    }
+
+    public int shardCount() {
+        return enabled ? shards.size() + 1 : 1;
+    }
+
+    public record Shard(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,24 @@
+package com.assecor.assessment.dto;
+
+import com.assecor.assessment.model.Person;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a multi-get: the found persons in request order and the IDs that do not exist.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonBatchDto {
+
+    @JsonProperty("persons")
+    private List<Person> persons;
+
+    @JsonProperty("missing")
+    private List<Long> missing;
+}
@@ -65,4 +65,25 @@ public class PersonMapper {
         
         return person;
     }
+    
+    public Person toEntity(PersonPatchDto dto) {
+        if (dto == null) {
+            return null;
+        }
+        
+        // Unset fields stay null so the service only writes the supplied columns
+        Person person = new Person();
+        person.setName(dto.getName());
+        person.setLastname(dto.getLastname());
+        person.setZipcode(dto.getZipcode());
+        person.setCity(dto.getCity());
+        
+        if (dto.getColor() != null) {
+            Color color = new Color();
+            color.setName(dto.getColor());
+            person.setColor(color);
+        }
+        
+        return person;
+    }
 }
@@ -0,0 +1,45 @@
+package com.assecor.assessment.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partial update of a person. Fields left {@code null} are not changed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonPatchDto {
+
+    // Null means unchanged; a given value is written without entity validation, so it must not be blank
+    private static final String NOT_BLANK = "(?s).*\\S.*";
+
+    @JsonProperty("name")
+    @Pattern(regexp = NOT_BLANK, message = "Name must not be blank")
+    @Size(min = 1, max = 100, message = "Name must be between 1 and 100 characters")
+    private String name;
+
+    @JsonProperty("lastname")
+    @Pattern(regexp = NOT_BLANK, message = "Lastname must not be blank")
+    @Size(min = 1, max = 100, message = "Lastname must be between 1 and 100 characters")
+    private String lastname;
+
+    @JsonProperty("zipcode")
+    @Pattern(regexp = NOT_BLANK, message = "Zipcode must not be blank")
+    @Size(min = 5, max = 10, message = "Zipcode must be between 5 and 10 characters")
+    private String zipcode;
+
+    @JsonProperty("city")
+    @Pattern(regexp = NOT_BLANK, message = "City must not be blank")
+    @Size(min = 1, max = 100, message = "City must be between 1 and 100 characters")
+    private String city;
+
+    @JsonProperty("color")
+    @Pattern(regexp = NOT_BLANK, message = "Color name must not be blank")
+    @Size(min = 1, max = 50, message = "Color name must be between 1 and 50 characters")
+    private String color;
+}
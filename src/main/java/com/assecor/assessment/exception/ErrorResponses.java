@@ -0,0 +1,88 @@
+package com.assecor.assessment.exception;
+
+import com.assecor.assessment.service.ServiceResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Error responses whose status and body never change, built once and shared by every request.
+ * The JSON body has the same shape as the rejections of admission control. Responses of an entity
+ * are read-only, so handing the same instance to concurrent requests is safe.
+ */
+public final class ErrorResponses {
+
+    private static final ResponseEntity<byte[]> BAD_REQUEST =
+            build(HttpStatus.BAD_REQUEST, "Invalid input data");
+    private static final ResponseEntity<byte[]> NOT_FOUND =
+            build(HttpStatus.NOT_FOUND, "The requested resource does not exist");
+    private static final ResponseEntity<byte[]> METHOD_NOT_ALLOWED =
+            build(HttpStatus.METHOD_NOT_ALLOWED, "The resource is read-only");
+    private static final ResponseEntity<byte[]> CONFLICT =
+            build(HttpStatus.CONFLICT, "The request conflicts with the current state of the resource");
+    private static final ResponseEntity<byte[]> PRECONDITION_FAILED =
+            build(HttpStatus.PRECONDITION_FAILED, "The resource was modified by another request");
+    private static final ResponseEntity<byte[]> INTERNAL_SERVER_ERROR =
+            build(HttpStatus.INTERNAL_SERVER_ERROR, "An unexpected error occurred");
+
+    private ErrorResponses() {
+    }
+
+    public static <T> ResponseEntity<T> badRequest() {
+        return cast(BAD_REQUEST);
+    }
+
+    public static <T> ResponseEntity<T> notFound() {
+        return cast(NOT_FOUND);
+    }
+
+    public static <T> ResponseEntity<T> methodNotAllowed() {
+        return cast(METHOD_NOT_ALLOWED);
+    }
+
+    public static <T> ResponseEntity<T> conflict() {
+        return cast(CONFLICT);
+    }
+
+    public static <T> ResponseEntity<T> preconditionFailed() {
+        return cast(PRECONDITION_FAILED);
+    }
+
+    public static <T> ResponseEntity<T> internalServerError() {
+        return cast(INTERNAL_SERVER_ERROR);
+    }
+
+    /**
+     * The response for a failed service operation.
+     *
+     * @param result the result, which must not be successful
+     * @return 404 for missing resources, 409 for conflicts, 400 for invalid references and 405 for read-only resources
+     */
+    public static <T> ResponseEntity<T> of(ServiceResult<?> result) {
+        return switch (result.status()) {
+            case NOT_FOUND -> notFound();
+            case CONFLICT -> conflict();
+            case INVALID -> badRequest();
+            case READ_ONLY -> methodNotAllowed();
+            case OK -> throw new IllegalArgumentException("Not a failure: " + result);
+        };
+    }
+
+    // The body is written as is by the byte array converter, whatever the declared type of the handler
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> cast(ResponseEntity<byte[]> response) {
+        return (ResponseEntity<T>) (ResponseEntity<?>) response;
+    }
+
+    private static ResponseEntity<byte[]> build(HttpStatus status, String message) {
+        byte[] body = ("{\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .contentLength(body.length)
+                .body(body);
+    }
+}
@@ -0,0 +1,255 @@
+package com.assecor.assessment.idempotency;
+
+import com.assecor.assessment.idempotency.IdempotencyStore.Claim;
+import com.assecor.assessment.idempotency.IdempotencyStore.StoredResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Makes retried POST requests safe.
+ * The first request with an {@code Idempotency-Key} header runs as usual and its response is recorded;
+ * retries with the same key and body get that response replayed without reaching the controllers, marked
+ * with an {@code Idempotent-Replayed} header. A retry arriving while the original still runs waits for it.
+ * Reusing a key for a different body is refused with 422. Server errors are not recorded, so they can be retried.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyFilter.class);
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    public static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final long inFlightWaitNanos;
+    private final Counter executedCounter;
+    private final Counter replayedCounter;
+    private final Counter conflictCounter;
+    private final Counter mismatchCounter;
+
+    public IdempotencyFilter(IdempotencyProperties properties, MeterRegistry meterRegistry) {
+        this.store = new IdempotencyStore(properties.ttl().toNanos(), properties.maxEntries());
+        this.inFlightWaitNanos = properties.inFlightWait().toNanos();
+        this.executedCounter = counter(meterRegistry, "executed");
+        this.replayedCounter = counter(meterRegistry, "replayed");
+        this.conflictCounter = counter(meterRegistry, "conflict");
+        this.mismatchCounter = counter(meterRegistry, "mismatch");
+        Gauge.builder("idempotency.keys", store, IdempotencyStore::size)
+                .description("Number of idempotency keys currently remembered")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String key = request.getHeader(IDEMPOTENCY_KEY).strip();
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            reject(response, HttpStatus.BAD_REQUEST,
+                    IDEMPOTENCY_KEY + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+        byte[] body = request.getInputStream().readAllBytes();
+        byte[] fingerprint = sha256(body);
+        // Keys are scoped to the endpoint, so one key cannot replay a person as a color
+        Claim claim = store.claim(request.getRequestURI() + " " + key, fingerprint, System.nanoTime());
+
+        if (claim.owner()) {
+            execute(new BufferedBodyRequest(request, body), response, filterChain, claim.entry());
+            return;
+        }
+        if (!Arrays.equals(claim.entry().fingerprint(), fingerprint)) {
+            mismatchCounter.increment();
+            logger.warn("Idempotency key {} reused for a different request to {}", key, request.getRequestURI());
+            reject(response, HttpStatus.UNPROCESSABLE_ENTITY, IDEMPOTENCY_KEY + " was already used for another request");
+            return;
+        }
+        StoredResponse stored = awaitOriginal(claim.entry());
+        // Either still running after the wait or aborted without a response; both can be retried
+        if (stored == null) {
+            conflictCounter.increment();
+            logger.debug("Original request with idempotency key {} has not completed", key);
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            reject(response, HttpStatus.CONFLICT, "The request with this " + IDEMPOTENCY_KEY + " has not completed");
+            return;
+        }
+        replayedCounter.increment();
+        logger.debug("Replaying response to idempotency key {}", key);
+        replay(stored, response);
+    }
+
+    private void execute(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain,
+                         IdempotencyStore.Entry entry) throws ServletException, IOException {
+        executedCounter.increment();
+        ContentCachingResponseWrapper recorder = new ContentCachingResponseWrapper(response);
+        StoredResponse stored = null;
+        try {
+            filterChain.doFilter(request, recorder);
+            stored = record(recorder);
+        } finally {
+            store.complete(entry, stored, stored != null && stored.status() < HttpStatus.INTERNAL_SERVER_ERROR.value());
+            recorder.copyBodyToResponse();
+        }
+    }
+
+    private StoredResponse awaitOriginal(IdempotencyStore.Entry entry) throws ServletException {
+        try {
+            return entry.response().get(inFlightWaitNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServletException("Interrupted while waiting for the original request", e);
+        } catch (ExecutionException e) {
+            throw new ServletException("Original request failed", e.getCause());
+        }
+    }
+
+    private static StoredResponse record(ContentCachingResponseWrapper recorder) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        for (String name : recorder.getHeaderNames()) {
+            // The length is set again on replay and the content type is taken below
+            if (!HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_TYPE.equalsIgnoreCase(name)) {
+                headers.put(name, List.copyOf(recorder.getHeaders(name)));
+            }
+        }
+        if (recorder.getContentType() != null) {
+            headers.put(HttpHeaders.CONTENT_TYPE, List.of(recorder.getContentType()));
+        }
+        return new StoredResponse(recorder.getStatus(), headers, recorder.getContentAsByteArray());
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.status());
+        stored.headers().forEach((name, values) -> {
+            for (String value : values) {
+                response.addHeader(name, value);
+            }
+        });
+        response.setHeader(IDEMPOTENT_REPLAYED, "true");
+        response.setContentLength(stored.body().length);
+        response.getOutputStream().write(stored.body());
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":" + status.value()
+                + ",\"error\":\"" + status.getReasonPhrase()
+                + "\",\"message\":\"" + message + "\"}");
+    }
+
+    private static byte[] sha256(byte[] body) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("idempotency.requests")
+                .description("Requests with an idempotency key by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    IdempotencyStore getStore() {
+        return store;
+    }
+
+    /**
+     * The body had to be read to fingerprint it, so the controllers get it from memory.
+     */
+    private static final class BufferedBodyRequest extends HttpServletRequestWrapper {
+
+        private final byte[] body;
+
+        BufferedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException("Body is already buffered");
+                }
+
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return in.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            Charset charset = getCharacterEncoding() != null
+                    ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+            return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+    }
+}
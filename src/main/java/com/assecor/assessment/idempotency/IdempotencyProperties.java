@@ -0,0 +1,22 @@
+package com.assecor.assessment.idempotency;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Settings for replaying responses of retried POST requests carrying an {@code Idempotency-Key} header.
+ *
+ * @param enabled whether the header is honored at all
+ * @param ttl how long a response is replayed after the original request
+ * @param maxEntries number of keys remembered before the oldest ones are dropped
+ * @param inFlightWait how long a duplicate waits for the original request to finish before getting a 409
+ */
+@ConfigurationProperties(prefix = "idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("1h") Duration ttl,
+        @DefaultValue("10000") int maxEntries,
+        @DefaultValue("10s") Duration inFlightWait) {
+}
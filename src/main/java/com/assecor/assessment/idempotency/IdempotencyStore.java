@@ -0,0 +1,112 @@
+package com.assecor.assessment.idempotency;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Bounded, expiring map of idempotency key to the response of the request that first used it.
+ * The first request with a key claims it with a single {@code putIfAbsent}; duplicates arriving while it
+ * runs find the same entry and wait on its future instead of taking a lock. Every entry lives for the same
+ * time, so insertion order is expiry order and eviction only ever looks at the head of a queue.
+ * When the store is full the oldest keys are dropped even if they have not expired yet.
+ */
+public class IdempotencyStore {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    public IdempotencyStore(long ttlNanos, int maxEntries) {
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Claim a key for a request, or find the request that claimed it before.
+     *
+     * @param key the idempotency key, scoped by the caller
+     * @param fingerprint digest of the request, so a reused key with a different request can be refused
+     * @param now the current {@link System#nanoTime()}
+     * @return the claim; its entry is new if {@link Claim#owner()} is true
+     */
+    public Claim claim(String key, byte[] fingerprint, long now) {
+        Entry fresh = new Entry(key, fingerprint, now + ttlNanos);
+        while (true) {
+            Entry existing = entries.putIfAbsent(key, fresh);
+            if (existing == null) {
+                insertionOrder.add(fresh);
+                evict(now);
+                return new Claim(fresh, true);
+            }
+            if (!existing.isExpired(now)) {
+                return new Claim(existing, false);
+            }
+            // Lost the race against expiry; whoever removes it first gets to claim the key again
+            entries.remove(key, existing);
+        }
+    }
+
+    /**
+     * Record the response of an owned entry and wake up waiting duplicates.
+     * Responses that should not be replayed are handed to the waiters but forgotten, so a later retry runs again.
+     *
+     * @param entry the entry claimed for the request
+     * @param response the response, or {@code null} if the request failed without one
+     * @param replayable whether later retries should get the same response
+     */
+    public void complete(Entry entry, StoredResponse response, boolean replayable) {
+        if (!replayable) {
+            entries.remove(entry.key(), entry);
+        }
+        entry.response().complete(response);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void evict(long now) {
+        Entry head;
+        while ((head = insertionOrder.peek()) != null && (head.isExpired(now) || entries.size() > maxEntries)) {
+            // Only the thread that dequeues the head removes it; others look at the next one
+            if (insertionOrder.remove(head)) {
+                entries.remove(head.key(), head);
+            }
+        }
+    }
+
+    /**
+     * A request that used an idempotency key first, and its response once available.
+     */
+    public record Entry(String key, byte[] fingerprint, long expiresAtNanos,
+                        CompletableFuture<StoredResponse> response) {
+
+        Entry(String key, byte[] fingerprint, long expiresAtNanos) {
+            this(key, fingerprint, expiresAtNanos, new CompletableFuture<>());
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+
+    /**
+     * Result of claiming a key.
+     *
+     * @param entry the entry for the key
+     * @param owner whether the caller created the entry and has to execute the request
+     */
+    public record Claim(Entry entry, boolean owner) {
+    }
+
+    /**
+     * Status, headers and body of a response as sent to the client.
+     */
+    public record StoredResponse(int status, Map<String, List<String>> headers, byte[] body) {
+    }
+}
@@ -0,0 +1,23 @@
+package com.assecor.assessment.importer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for serving persons from a CSV file that is edited in place.
+ *
+ * @param enabled whether the CSV file is loaded at all
+ * @param path the CSV file in the format of {@code sample-input.csv}
+ * @param watch whether changes to the file are picked up while running
+ * @param debounce how long the file has to stay unchanged before it is reloaded
+ */
+@ConfigurationProperties(prefix = "csv-source")
+public record CsvSourceProperties(
+        @DefaultValue("false") boolean enabled,
+        Path path,
+        @DefaultValue("true") boolean watch,
+        @DefaultValue("500ms") Duration debounce) {
+}
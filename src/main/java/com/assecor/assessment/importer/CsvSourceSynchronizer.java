@@ -0,0 +1,297 @@
+package com.assecor.assessment.importer;
+
+import com.assecor.assessment.cache.PersonColorIndex;
+import com.assecor.assessment.cache.PersonColumnarSnapshot;
+import com.assecor.assessment.cache.PersonJsonCache;
+import com.assecor.assessment.importer.PersonCsvReader.CsvRecord;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.service.impl.ColorSearchCoalescer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the persons table in line with a CSV file that is edited in place.
+ * As the requirements suggest, a person's ID is the line its record starts in. Every load hashes the
+ * content of each record and compares the hashes with those of the previously applied version, so only
+ * inserted, changed and removed records are written. All changes of one load are applied in a single
+ * transaction, so readers see either the old or the new version of the file, never a mix. In-memory
+ * caches of persons are dropped right after the commit. The file is the only writer of persons, the
+ * person endpoints and color reassignment refuse writes while the CSV source is enabled.
+ * <p>
+ * The first load after startup only inserts and overwrites: persons not in the file stay, since there
+ * is no previous version of the file to tell which of them it used to contain. Malformed or invalid
+ * records are skipped with a warning, the file itself is never modified.
+ */
+public class CsvSourceSynchronizer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvSourceSynchronizer.class);
+
+    private final CsvSourceProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ColorJpaRepository colorJpaRepository;
+    private final Validator validator;
+    private final PersonJsonCache personJsonCache;
+    private final PersonColorIndex personColorIndex;
+    private final PersonColumnarSnapshot personColumnarSnapshot;
+    private final ColorSearchCoalescer colorSearchCoalescer;
+    private final Counter insertedCounter;
+    private final Counter updatedCounter;
+    private final Counter deletedCounter;
+    // Content hash per person ID of the version last applied; only touched while holding this monitor
+    private Map<Long, Long> appliedHashes = Map.of();
+    private volatile WatchService watchService;
+    private volatile boolean running;
+
+    public CsvSourceSynchronizer(CsvSourceProperties properties, JdbcTemplate jdbcTemplate,
+                                 TransactionTemplate transactionTemplate, ColorJpaRepository colorJpaRepository,
+                                 Validator validator, PersonJsonCache personJsonCache, PersonColorIndex personColorIndex,
+                                 PersonColumnarSnapshot personColumnarSnapshot, ColorSearchCoalescer colorSearchCoalescer,
+                                 MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.colorJpaRepository = colorJpaRepository;
+        this.validator = validator;
+        this.personJsonCache = personJsonCache;
+        this.personColorIndex = personColorIndex;
+        this.personColumnarSnapshot = personColumnarSnapshot;
+        this.colorSearchCoalescer = colorSearchCoalescer;
+        this.insertedCounter = counter(meterRegistry, "inserted");
+        this.updatedCounter = counter(meterRegistry, "updated");
+        this.deletedCounter = counter(meterRegistry, "deleted");
+    }
+
+    /**
+     * Load the CSV file and apply what changed since the last load.
+     *
+     * @return the number of persons inserted, updated and deleted
+     * @throws IOException if the file cannot be read
+     */
+    public synchronized SyncResult reload() throws IOException {
+        Map<Long, Row> rows = readRows();
+        Map<Long, Long> hashes = new HashMap<>(rows.size() * 4 / 3 + 1);
+        rows.forEach((id, row) -> hashes.put(id, row.hash()));
+
+        List<Row> inserts = new ArrayList<>();
+        List<Row> updates = new ArrayList<>();
+        for (Row row : rows.values()) {
+            Long appliedHash = appliedHashes.get(row.id());
+            if (appliedHash == null) {
+                inserts.add(row);
+            } else if (appliedHash != row.hash()) {
+                updates.add(row);
+            }
+        }
+        List<Long> deletes = appliedHashes.keySet().stream().filter(id -> !rows.containsKey(id)).toList();
+        if (inserts.isEmpty() && updates.isEmpty() && deletes.isEmpty()) {
+            logger.debug("CSV source {} unchanged", properties.path());
+            appliedHashes = hashes;
+            return new SyncResult(0, 0, 0);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            apply(inserts, updates, deletes);
+            if (!inserts.isEmpty()) {
+                advanceIdentity();
+            }
+        });
+        appliedHashes = hashes;
+        personJsonCache.invalidateAll();
+        personColorIndex.invalidate();
+        personColumnarSnapshot.invalidate();
+        colorSearchCoalescer.invalidate();
+
+        insertedCounter.increment(inserts.size());
+        updatedCounter.increment(updates.size());
+        deletedCounter.increment(deletes.size());
+        logger.info("Applied CSV source {}: {} inserted, {} updated, {} deleted",
+                properties.path(), inserts.size(), updates.size(), deletes.size());
+        return new SyncResult(inserts.size(), updates.size(), deletes.size());
+    }
+
+    @Override
+    public void start() {
+        try {
+            reload();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load CSV source " + properties.path(), e);
+        }
+        running = true;
+        if (properties.watch()) {
+            try {
+                watchService = FileSystems.getDefault().newWatchService();
+                properties.path().toAbsolutePath().getParent().register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot watch CSV source " + properties.path(), e);
+            }
+            Thread.ofPlatform().name("csv-source-watcher").daemon().start(this::watch);
+        }
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        WatchService service = watchService;
+        if (service != null) {
+            try {
+                service.close();
+            } catch (IOException e) {
+                logger.warn("Could not close watch service", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void watch() {
+        Path fileName = properties.path().getFileName();
+        try {
+            while (running) {
+                if (!concernsFile(watchService.take(), fileName)) {
+                    continue;
+                }
+                // Editors and copy tools write a file in several steps; wait until it has been quiet for a while
+                WatchKey next;
+                while ((next = watchService.poll(properties.debounce().toMillis(), TimeUnit.MILLISECONDS)) != null) {
+                    concernsFile(next, fileName);
+                }
+                try {
+                    reload();
+                } catch (Exception e) {
+                    // The previous version stays applied; the next change retries the whole diff
+                    logger.error("Could not apply CSV source {}", properties.path(), e);
+                }
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            logger.debug("Stopped watching CSV source {}", properties.path());
+        }
+    }
+
+    private static boolean concernsFile(WatchKey key, Path fileName) {
+        boolean concerned = key.pollEvents().stream().anyMatch(event -> fileName.equals(event.context()));
+        key.reset();
+        return concerned;
+    }
+
+    private Map<Long, Row> readRows() throws IOException {
+        Set<Long> colorIds = colorJpaRepository.findAll().stream().map(Color::getId).collect(Collectors.toSet());
+        MessageDigest digest = sha256();
+        Map<Long, Row> rows = new HashMap<>();
+        try (Reader reader = Files.newBufferedReader(properties.path(), StandardCharsets.UTF_8);
+             PersonCsvReader csv = new PersonCsvReader(reader)) {
+            CsvRecord record;
+            while ((record = csv.next()) != null) {
+                String problem = record.isRejected() ? record.problem()
+                        : !colorIds.contains(record.colorId()) ? "Color with ID " + record.colorId() + " not found"
+                        : validate(record);
+                if (problem != null) {
+                    logger.warn("Skipping line {} of CSV source {}: {}", record.line(), properties.path(), problem);
+                    continue;
+                }
+                rows.put(record.line(), new Row(record.line(), record, hash(digest, record)));
+            }
+        }
+        return rows;
+    }
+
+    private String validate(CsvRecord record) {
+        Person person = new Person(record.name(), record.lastname(), record.zipcode(), record.city(), null);
+        return validator.validate(person).stream().findFirst().map(violation -> violation.getMessage()).orElse(null);
+    }
+
+    private void apply(List<Row> inserts, List<Row> updates, List<Long> deletes) {
+        jdbcTemplate.batchUpdate("DELETE FROM persons WHERE id = ?",
+                deletes.stream().map(id -> new Object[] {id}).toList());
+
+        // The first load may find rows of the same ID already present, so inserts overwrite as well
+        List<Row> upserts = new ArrayList<>(updates);
+        upserts.addAll(inserts);
+        int[] updated = jdbcTemplate.batchUpdate(
+                "UPDATE persons SET name = ?, lastname = ?, zipcode = ?, city = ?, color_id = ?, version = version + 1 "
+                        + "WHERE id = ?",
+                upserts.stream().map(row -> new Object[] {row.record().name(), row.record().lastname(),
+                        row.record().zipcode(), row.record().city(), row.record().colorId(), row.id()}).toList());
+        List<Object[]> missing = new ArrayList<>();
+        for (int i = 0; i < upserts.size(); i++) {
+            if (updated[i] == 0) {
+                Row row = upserts.get(i);
+                missing.add(new Object[] {row.id(), row.record().name(), row.record().lastname(),
+                        row.record().zipcode(), row.record().city(), row.record().colorId()});
+            }
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO persons (id, name, lastname, zipcode, city, color_id) VALUES (?, ?, ?, ?, ?, ?)", missing);
+    }
+
+    // Rows inserted with explicit IDs do not move the identity, so persons created once the CSV source is
+    // disabled again would collide with them; restarted in the same transaction as the inserts
+    private void advanceIdentity() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM persons", Long.class);
+        jdbcTemplate.execute("ALTER TABLE persons ALTER COLUMN id RESTART WITH " + (maxId + 1));
+    }
+
+    private static long hash(MessageDigest digest, CsvRecord record) {
+        String content = String.join("\u0000", record.name(), record.lastname(), record.zipcode(), record.city(),
+                Long.toString(record.colorId()));
+        return ByteBuffer.wrap(digest.digest(content.getBytes(StandardCharsets.UTF_8))).getLong();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String change) {
+        return Counter.builder("csv.source.rows")
+                .description("Rows written to the database because the CSV source changed")
+                .tag("change", change)
+                .register(meterRegistry);
+    }
+
+    private record Row(long id, CsvRecord record, long hash) {
+    }
+
+    /**
+     * Changes written by one load of the CSV file.
+     */
+    public record SyncResult(int inserted, int updated, int deleted) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.assecor.assessment.importer;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * An uploaded CSV file waiting for, or going through, an import.
+ * The state is written by the worker running the import and read by status requests.
+ */
+public class ImportJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String id;
+    private final Path file;
+    private final ImportProgress progress;
+    private final Instant createdAt;
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    ImportJob(String id, Path file, ImportProgress progress, Instant createdAt) {
+        this.id = id;
+        this.file = file;
+        this.progress = progress;
+        this.createdAt = createdAt;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    ImportProgress getProgress() {
+        return progress;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    void started(Instant now) {
+        startedAt = now;
+        status = Status.RUNNING;
+    }
+
+    // The finish time is written last, so whoever sees it also sees the final status
+    void completed(Instant now) {
+        status = Status.COMPLETED;
+        finishedAt = now;
+    }
+
+    void failed(Instant now, String message) {
+        error = message;
+        status = Status.FAILED;
+        finishedAt = now;
+    }
+
+    /**
+     * Capture the job's current state.
+     *
+     * @param now the time rows per second are measured up to while the job is still running
+     */
+    public ImportJobStatus status(Instant now) {
+        ImportResult result = progress.toResult();
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        double rowsPerSecond = 0;
+        if (started != null) {
+            long millis = Duration.between(started, finished != null ? finished : now).toMillis();
+            rowsPerSecond = millis > 0 ? result.rowsParsed() * 1000d / millis : 0;
+        }
+        return new ImportJobStatus(id, status, createdAt, started, finished, rowsPerSecond, result, error);
+    }
+}
@@ -0,0 +1,144 @@
+package com.assecor.assessment.importer;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs CSV imports in the background.
+ * An upload is copied to a spool file as it arrives, so neither the request thread nor the heap has to
+ * hold it, and then queued for one of a few import workers. The queue is bounded, so when it is full
+ * new uploads are refused instead of piling up, and a large import never occupies the request threads
+ * serving reads. A slot is reserved before the upload is copied, so a refused upload is never spooled.
+ * Finished jobs stay queryable for the configured retention.
+ */
+@Service
+public class ImportJobService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportJobService.class);
+
+    private final PersonImporter personImporter;
+    private final ExecutorService importExecutor;
+    private final ImportProperties properties;
+    // One permit per job the workers and the queue can hold; taken before spooling, returned when the job ends
+    private final Semaphore slots;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ImportJobService(PersonImporter personImporter, ImportProperties properties, MeterRegistry meterRegistry) {
+        this.personImporter = personImporter;
+        this.properties = properties;
+        this.slots = new Semaphore(properties.workers() + properties.queueCapacity());
+        this.importExecutor = ExecutorServiceMetrics.monitor(meterRegistry, new ThreadPoolExecutor(
+                properties.workers(), properties.workers(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.queueCapacity()),
+                Thread.ofPlatform().name("import-", 1).daemon().factory()), "import");
+        Gauge.builder("import.jobs.pending", this, ImportJobService::pendingJobs)
+                .description("Number of import jobs queued or running")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Spool an upload to disk and queue its import.
+     *
+     * @param content the CSV content, read to the end but not closed
+     * @return the queued job
+     * @throws IOException if the upload cannot be written to the spool directory
+     * @throws RejectedExecutionException if the import queue is full
+     */
+    public ImportJob submit(InputStream content) throws IOException {
+        removeExpiredJobs();
+        if (!slots.tryAcquire()) {
+            throw new RejectedExecutionException("Import queue is full");
+        }
+        Path file = null;
+        ImportJob job = null;
+        try {
+            Files.createDirectories(properties.spoolDirectory());
+            file = Files.createTempFile(properties.spoolDirectory(), "import-", ".csv");
+            job = new ImportJob(UUID.randomUUID().toString(), file,
+                    new ImportProgress(properties.maxReportedProblems()), Instant.now());
+            long bytes = Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+            jobs.put(job.getId(), job);
+            ImportJob queued = job;
+            importExecutor.execute(() -> run(queued));
+            logger.info("Queued import {} of {} bytes", job.getId(), bytes);
+            return job;
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            if (job != null) {
+                jobs.remove(job.getId());
+            }
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+    }
+
+    public Optional<ImportJob> getJob(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+
+    private void run(ImportJob job) {
+        job.started(Instant.now());
+        logger.info("Starting import {}", job.getId());
+        Exception failure = null;
+        try (Reader reader = Files.newBufferedReader(job.getFile(), StandardCharsets.UTF_8)) {
+            personImporter.importCsv(reader, job.getProgress());
+        } catch (Exception e) {
+            failure = e;
+        } finally {
+            try {
+                Files.deleteIfExists(job.getFile());
+            } catch (IOException e) {
+                logger.warn("Could not delete spool file {}", job.getFile(), e);
+            }
+            // Freed before the job reports finished, so a client waiting for it can submit the next one
+            slots.release();
+        }
+        if (failure == null) {
+            job.completed(Instant.now());
+            logger.info("Import {} completed", job.getId());
+        } else {
+            logger.warn("Import {} failed", job.getId(), failure);
+            job.failed(Instant.now(), failure.getMessage() != null ? failure.getMessage() : failure.getClass().getSimpleName());
+        }
+    }
+
+    private void removeExpiredJobs() {
+        Instant cutoff = Instant.now().minus(properties.jobRetention());
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private double pendingJobs() {
+        return jobs.values().stream().filter(job -> !job.isFinished()).count();
+    }
+}
@@ -0,0 +1,19 @@
+package com.assecor.assessment.importer;
+
+import java.time.Instant;
+
+/**
+ * Point-in-time view of an import job, as returned by {@code GET /imports/{id}}.
+ *
+ * @param id the job ID
+ * @param status where the job is in its lifecycle
+ * @param createdAt when the upload was accepted
+ * @param startedAt when a worker picked the job up, {@code null} while queued
+ * @param finishedAt when the job completed or failed, {@code null} until then
+ * @param rowsPerSecond rows parsed per second since the job started
+ * @param result the rows processed so far
+ * @param error why the job failed, {@code null} unless it did
+ */
+public record ImportJobStatus(String id, ImportJob.Status status, Instant createdAt, Instant startedAt,
+                              Instant finishedAt, double rowsPerSecond, ImportResult result, String error) {
+}
@@ -0,0 +1,61 @@
+package com.assecor.assessment.importer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Running counts of an import, updated by the importing thread and readable from any other.
+ */
+public class ImportProgress {
+
+    private final int maxProblems;
+    private final AtomicLong rowsParsed = new AtomicLong();
+    private final AtomicLong inserted = new AtomicLong();
+    private final AtomicLong updated = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<ImportResult.Problem> problems = new ArrayList<>();
+
+    public ImportProgress(int maxProblems) {
+        this.maxProblems = maxProblems;
+    }
+
+    void rowParsed() {
+        rowsParsed.incrementAndGet();
+    }
+
+    void inserted() {
+        inserted.incrementAndGet();
+    }
+
+    void updated() {
+        updated.incrementAndGet();
+    }
+
+    void duplicate() {
+        duplicates.incrementAndGet();
+    }
+
+    void rejected() {
+        rejected.incrementAndGet();
+    }
+
+    /**
+     * List a row in the result; beyond the configured number, rows are only counted.
+     */
+    synchronized void report(long line, String message) {
+        if (problems.size() < maxProblems) {
+            problems.add(new ImportResult.Problem(line, message));
+        }
+    }
+
+    public long rowsParsed() {
+        return rowsParsed.get();
+    }
+
+    public synchronized ImportResult toResult() {
+        return new ImportResult(rowsParsed.get(), inserted.get(), updated.get(), duplicates.get(), rejected.get(),
+                problems);
+    }
+}
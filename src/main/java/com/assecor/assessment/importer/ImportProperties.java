@@ -0,0 +1,42 @@
+package com.assecor.assessment.importer;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for importing persons from CSV.
+ *
+ * @param duplicatePolicy what to do with rows matching an existing person's name, lastname and zipcode
+ * @param bloomFalsePositiveRate target false positive rate of the duplicate pre-check
+ * @param maxReportedProblems number of rejected or reported rows listed in an import result
+ * @param workers number of imports running at the same time
+ * @param queueCapacity number of uploaded imports waiting for a worker before new ones are refused
+ * @param spoolDirectory directory uploads are written to until imported; the system temp directory if unset
+ * @param jobRetention how long finished jobs can still be queried
+ */
+@ConfigurationProperties(prefix = "importer")
+public record ImportProperties(
+        @DefaultValue("skip") DuplicatePolicy duplicatePolicy,
+        @DefaultValue("0.01") double bloomFalsePositiveRate,
+        @DefaultValue("100") int maxReportedProblems,
+        @DefaultValue("2") int workers,
+        @DefaultValue("8") int queueCapacity,
+        Path spoolDirectory,
+        @DefaultValue("1h") Duration jobRetention) {
+
+    public ImportProperties {
+        spoolDirectory = spoolDirectory != null ? spoolDirectory : Path.of(System.getProperty("java.io.tmpdir"));
+    }
+
+    public enum DuplicatePolicy {
+        /** Leave the existing person as is and drop the row. */
+        SKIP,
+        /** Overwrite the existing person with the row. */
+        UPDATE,
+        /** Drop the row and list it in the import result. */
+        REPORT
+    }
+}
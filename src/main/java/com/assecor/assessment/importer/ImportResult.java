@@ -0,0 +1,28 @@
+package com.assecor.assessment.importer;
+
+import java.util.List;
+
+/**
+ * Outcome of a CSV import.
+ *
+ * @param rowsParsed records read from the file, including rejected ones
+ * @param inserted new persons created
+ * @param updated existing persons overwritten by a duplicate row
+ * @param duplicates rows matching an existing person, whatever the duplicate policy did with them
+ * @param rejected rows that could not be imported
+ * @param problems the first rejected or reported rows
+ */
+public record ImportResult(long rowsParsed, long inserted, long updated, long duplicates, long rejected,
+                           List<Problem> problems) {
+
+    public ImportResult {
+        problems = List.copyOf(problems);
+    }
+
+    /**
+     * @param line number of the line the record starts in
+     * @param message what was wrong with the row
+     */
+    public record Problem(long line, String message) {
+    }
+}
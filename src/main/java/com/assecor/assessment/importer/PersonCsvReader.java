@@ -0,0 +1,120 @@
+package com.assecor.assessment.importer;
+
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.exceptions.CsvValidationException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads persons from CSV in the format of {@code sample-input.csv}:
+ * {@code lastname, name, zipcode city, color ID}, one person per record.
+ * A line ending with a comma is continued on the next line, so a record may span several lines.
+ * Malformed records are returned with a problem instead of failing the whole file.
+ */
+public class PersonCsvReader implements Closeable {
+
+    private static final int FIELDS = 4;
+
+    private final CSVReader csvReader;
+
+    public PersonCsvReader(Reader reader) {
+        this.csvReader = new CSVReaderBuilder(reader)
+                .withCSVParser(new CSVParserBuilder().withIgnoreLeadingWhiteSpace(true).build())
+                .build();
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return the record, or {@code null} at the end of the input
+     */
+    public CsvRecord next() throws IOException {
+        List<String> fields = new ArrayList<>(FIELDS);
+        long firstLine = -1;
+        String[] line;
+        while ((line = readLine()) != null) {
+            if (isBlank(line)) {
+                continue;
+            }
+            if (firstLine < 0) {
+                firstLine = csvReader.getLinesRead();
+            }
+            for (int i = 0; i < line.length; i++) {
+                String field = line[i].strip();
+                // The empty field after a trailing comma only marks the continuation
+                if (i < line.length - 1 || !field.isEmpty()) {
+                    fields.add(field);
+                }
+            }
+            if (fields.size() >= FIELDS) {
+                return parse(firstLine, fields);
+            }
+        }
+        return fields.isEmpty() ? null
+                : CsvRecord.rejected(firstLine, "Incomplete record, expected " + FIELDS + " fields");
+    }
+
+    @Override
+    public void close() throws IOException {
+        csvReader.close();
+    }
+
+    private String[] readLine() throws IOException {
+        try {
+            return csvReader.readNext();
+        } catch (CsvValidationException e) {
+            throw new IOException("Invalid CSV in line " + csvReader.getLinesRead(), e);
+        }
+    }
+
+    private static CsvRecord parse(long line, List<String> fields) {
+        if (fields.size() > FIELDS) {
+            return CsvRecord.rejected(line, "Expected " + FIELDS + " fields but found " + fields.size());
+        }
+        String address = fields.get(2);
+        int separator = address.indexOf(' ');
+        if (separator < 0) {
+            return CsvRecord.rejected(line, "Address '" + address + "' has no zipcode and city");
+        }
+        long colorId;
+        try {
+            colorId = Long.parseLong(fields.get(3));
+        } catch (NumberFormatException e) {
+            return CsvRecord.rejected(line, "Color '" + fields.get(3) + "' is not a number");
+        }
+        return new CsvRecord(line, fields.get(1), fields.get(0), address.substring(0, separator),
+                address.substring(separator + 1).strip(), colorId, null);
+    }
+
+    private static boolean isBlank(String[] line) {
+        for (String field : line) {
+            if (!field.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * One CSV record; either the person's fields are set or {@code problem} tells why it was rejected.
+     *
+     * @param line number of the line the record starts in, counting from 1
+     */
+    public record CsvRecord(long line, String name, String lastname, String zipcode, String city, long colorId,
+                            String problem) {
+
+        static CsvRecord rejected(long line, String problem) {
+            return new CsvRecord(line, null, null, null, null, 0, problem);
+        }
+
+        public boolean isRejected() {
+            return problem != null;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.assecor.assessment.importer;
+
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.importer.ImportProperties.DuplicatePolicy;
+import com.assecor.assessment.importer.PersonCsvReader.CsvRecord;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.ServiceResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports persons from CSV, detecting rows that duplicate an existing person.
+ * Two persons are duplicates if name, lastname and zipcode match, ignoring case and surrounding whitespace.
+ * Every import starts by loading these keys of all persons into a Bloom filter, so the common case of
+ * a new person is answered in memory; only rows the filter reports as possible duplicates are looked
+ * up in the database. Imported rows are added to the filter, which also catches duplicates within a file.
+ */
+@Service
+public class PersonImporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonImporter.class);
+    // Room for the imported rows on top of the existing persons before the false positive rate degrades
+    private static final int MIN_EXPECTED_KEYS = 10_000;
+
+    private final PersonService personService;
+    private final PersonJpaRepository personJpaRepository;
+    private final ColorJpaRepository colorJpaRepository;
+    private final ShardRouter shardRouter;
+    private final Validator validator;
+    private final ImportProperties properties;
+    private final Counter rowsCounter;
+    private final Counter insertedCounter;
+    private final Counter duplicateCounter;
+    private final Counter rejectedCounter;
+    private final Counter bloomPositiveCounter;
+    private final Counter bloomFalsePositiveCounter;
+
+    public PersonImporter(PersonService personService, PersonJpaRepository personJpaRepository,
+                          ColorJpaRepository colorJpaRepository, ShardRouter shardRouter, Validator validator,
+                          ImportProperties properties, MeterRegistry meterRegistry) {
+        this.personService = personService;
+        this.personJpaRepository = personJpaRepository;
+        this.colorJpaRepository = colorJpaRepository;
+        this.shardRouter = shardRouter;
+        this.validator = validator;
+        this.properties = properties;
+        this.rowsCounter = Counter.builder("import.rows.total")
+                .description("Total number of CSV rows read by imports")
+                .register(meterRegistry);
+        this.insertedCounter = Counter.builder("import.rows.inserted")
+                .description("Total number of imported rows stored as new persons")
+                .register(meterRegistry);
+        this.duplicateCounter = Counter.builder("import.rows.duplicate")
+                .description("Total number of imported rows duplicating an existing person")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("import.rows.rejected")
+                .description("Total number of imported rows that were malformed or invalid")
+                .register(meterRegistry);
+        this.bloomPositiveCounter = Counter.builder("import.duplicate.bloom.positive")
+                .description("Rows the Bloom filter reported as possible duplicates")
+                .register(meterRegistry);
+        this.bloomFalsePositiveCounter = Counter.builder("import.duplicate.bloom.false.positive")
+                .description("Possible duplicates the database found to be new")
+                .register(meterRegistry);
+        Gauge.builder("import.duplicate.rate", this, PersonImporter::duplicateRate)
+                .description("Share of imported rows that duplicated an existing person")
+                .register(meterRegistry);
+        Gauge.builder("import.duplicate.bloom.false.positive.rate", this, PersonImporter::falsePositiveRate)
+                .description("Share of Bloom filter positives that were not duplicates")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Import all records of a CSV file.
+     *
+     * @param reader the CSV content; closed when done
+     * @return what happened to the rows
+     * @throws IOException if the input cannot be read or is not CSV at all
+     */
+    public ImportResult importCsv(Reader reader) throws IOException {
+        ImportProgress progress = new ImportProgress(properties.maxReportedProblems());
+        importCsv(reader, progress);
+        return progress.toResult();
+    }
+
+    /**
+     * Import all records of a CSV file, counting every row in the given progress as soon as it is done.
+     *
+     * @param reader the CSV content; closed when done
+     * @param progress receives the outcome of each row
+     * @throws IOException if the input cannot be read or is not CSV at all
+     */
+    public void importCsv(Reader reader, ImportProgress progress) throws IOException {
+        BloomFilter knownKeys = loadKnownKeys();
+        Map<Long, Optional<Color>> colors = new HashMap<>();
+
+        try (PersonCsvReader csv = new PersonCsvReader(reader)) {
+            CsvRecord record;
+            while ((record = csv.next()) != null) {
+                progress.rowParsed();
+                rowsCounter.increment();
+                String problem = record.problem();
+                Person person = null;
+                if (problem == null) {
+                    Optional<Color> color = colors.computeIfAbsent(record.colorId(), colorJpaRepository::findById);
+                    person = new Person(record.name(), record.lastname(), record.zipcode(), record.city(),
+                            color.orElse(null));
+                    problem = color.isEmpty() ? "Color with ID " + record.colorId() + " not found" : validate(person);
+                }
+                if (problem != null) {
+                    progress.rejected();
+                    rejectedCounter.increment();
+                    progress.report(record.line(), problem);
+                    continue;
+                }
+
+                String key = key(person.getName(), person.getLastname(), person.getZipcode());
+                Optional<Person> existing = knownKeys.mightContain(key) ? findDuplicate(person) : Optional.empty();
+                if (existing.isEmpty()) {
+                    // Refused writes, e.g. while persons are served read-only, reject the row
+                    ServiceResult<Person> created = personService.createPerson(person);
+                    if (!created.isOk()) {
+                        progress.rejected();
+                        rejectedCounter.increment();
+                        progress.report(record.line(), "Person not created: " + created.status());
+                        continue;
+                    }
+                    knownKeys.add(key);
+                    progress.inserted();
+                    insertedCounter.increment();
+                    continue;
+                }
+
+                progress.duplicate();
+                duplicateCounter.increment();
+                if (properties.duplicatePolicy() == DuplicatePolicy.UPDATE) {
+                    ServiceResult<Person> updated = personService.updatePerson(Math.toIntExact(existing.get().getId()), person);
+                    if (updated.isOk()) {
+                        progress.updated();
+                    } else {
+                        progress.report(record.line(), "Person with ID " + existing.get().getId() + " not updated: " + updated.status());
+                    }
+                } else if (properties.duplicatePolicy() == DuplicatePolicy.REPORT) {
+                    progress.report(record.line(), "Duplicate of person with ID " + existing.get().getId());
+                }
+            }
+        }
+
+        ImportResult result = progress.toResult();
+        logger.info("Imported {} rows: {} inserted, {} updated, {} duplicates, {} rejected",
+                result.rowsParsed(), result.inserted(), result.updated(), result.duplicates(), result.rejected());
+    }
+
+    private BloomFilter loadKnownKeys() {
+        List<List<Object[]>> keysByShard = shardRouter.onEveryShard(personJpaRepository::findAllDuplicateKeys);
+        long existing = keysByShard.stream().mapToLong(List::size).sum();
+        BloomFilter filter = new BloomFilter(Math.max(existing * 2, MIN_EXPECTED_KEYS), properties.bloomFalsePositiveRate());
+        for (List<Object[]> keys : keysByShard) {
+            for (Object[] key : keys) {
+                filter.add(key((String) key[0], (String) key[1], (String) key[2]));
+            }
+        }
+        logger.debug("Loaded {} duplicate keys into a Bloom filter of {} bits", existing, filter.bitCount());
+        return filter;
+    }
+
+    private Optional<Person> findDuplicate(Person person) {
+        bloomPositiveCounter.increment();
+        String name = person.getName().strip().toLowerCase(Locale.ROOT);
+        String lastname = person.getLastname().strip().toLowerCase(Locale.ROOT);
+        String zipcode = person.getZipcode().strip();
+        Optional<Person> existing = shardRouter.onEveryShard(() -> personJpaRepository.findByDuplicateKey(name, lastname, zipcode))
+                .stream().flatMap(List::stream).findFirst();
+        if (existing.isEmpty()) {
+            bloomFalsePositiveCounter.increment();
+        }
+        return existing;
+    }
+
+    private String validate(Person person) {
+        Set<ConstraintViolation<Person>> violations = validator.validate(person);
+        return violations.isEmpty() ? null
+                : violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+    }
+
+    static String key(String name, String lastname, String zipcode) {
+        return name.strip().toLowerCase(Locale.ROOT) + '\n' + lastname.strip().toLowerCase(Locale.ROOT) + '\n'
+                + zipcode.strip();
+    }
+
+    private double duplicateRate() {
+        double rows = rowsCounter.count();
+        return rows == 0 ? 0 : duplicateCounter.count() / rows;
+    }
+
+    private double falsePositiveRate() {
+        double positives = bloomPositiveCounter.count();
+        return positives == 0 ? 0 : bloomFalsePositiveCounter.count() / positives;
+    }
+}
@@ -0,0 +1,63 @@
+package com.assecor.assessment.json;
+
+import com.assecor.assessment.model.Color;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Streaming JSON for {@link Color}.
+ * Registered for the entity class, so it also covers Hibernate proxies without their lazy-loading internals.
+ */
+public final class ColorJson {
+
+    private ColorJson() {
+    }
+
+    public static class Serializer extends StdSerializer<Color> {
+
+        public Serializer() {
+            super(Color.class);
+        }
+
+        @Override
+        public void serialize(Color color, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(color);
+            JsonFields.writeLong(generator, JsonFields.ID, color.getId());
+            JsonFields.writeString(generator, JsonFields.NAME, color.getName());
+            generator.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Color> {
+
+        public Deserializer() {
+            super(Color.class);
+        }
+
+        @Override
+        public Color deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!JsonFields.enterObject(parser)) {
+                return (Color) context.handleUnexpectedToken(Color.class, parser);
+            }
+            Color color = new Color();
+            while (parser.currentToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> color.setId(JsonFields.readLong(parser, context));
+                    case "name" -> color.setName(JsonFields.readString(parser, context));
+                    default -> context.handleUnknownProperty(parser, this, color, field);
+                }
+                parser.nextToken();
+            }
+            return color;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.assecor.assessment.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+
+/**
+ * Property names and token helpers shared by the hand-written serializers.
+ * The names are pre-encoded once, so writing a field copies bytes instead of escaping the name again.
+ */
+final class JsonFields {
+
+    static final SerializedString ID = new SerializedString("id");
+    static final SerializedString NAME = new SerializedString("name");
+    static final SerializedString LASTNAME = new SerializedString("lastname");
+    static final SerializedString ZIPCODE = new SerializedString("zipcode");
+    static final SerializedString CITY = new SerializedString("city");
+    static final SerializedString COLOR = new SerializedString("color");
+
+    private JsonFields() {
+    }
+
+    static void writeLong(JsonGenerator generator, SerializableString name, Long value) throws IOException {
+        generator.writeFieldName(name);
+        if (value == null) {
+            generator.writeNull();
+        } else {
+            generator.writeNumber(value.longValue());
+        }
+    }
+
+    static void writeString(JsonGenerator generator, SerializableString name, String value) throws IOException {
+        generator.writeFieldName(name);
+        generator.writeString(value);
+    }
+
+    /**
+     * Moves the parser to the first property of an object.
+     *
+     * @return false if the token is not an object, which the caller reports as unexpected
+     */
+    static boolean enterObject(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            parser.nextToken();
+            return true;
+        }
+        // Buffered input, e.g. after polymorphic type handling, already stands on the first property
+        return token == JsonToken.FIELD_NAME || token == JsonToken.END_OBJECT;
+    }
+
+    /**
+     * Reads a string value; anything other than a string or null goes through the regular coercion rules.
+     */
+    static String readString(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return context.readValue(parser, String.class);
+    }
+
+    /**
+     * Reads a numeric ID; anything other than an integer or null goes through the regular coercion rules.
+     */
+    static Long readLong(JsonParser parser, DeserializationContext context) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == JsonToken.VALUE_NUMBER_INT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        return context.readValue(parser, Long.class);
+    }
+}
@@ -0,0 +1,71 @@
+package com.assecor.assessment.json;
+
+import com.assecor.assessment.dto.PersonInputDto;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Streaming JSON for {@link PersonInputDto}, the request body of person writes.
+ * The color stays a plain name until the mapper turns the DTO into an entity.
+ */
+public final class PersonInputDtoJson {
+
+    private PersonInputDtoJson() {
+    }
+
+    public static class Serializer extends StdSerializer<PersonInputDto> {
+
+        public Serializer() {
+            super(PersonInputDto.class);
+        }
+
+        @Override
+        public void serialize(PersonInputDto dto, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(dto);
+            JsonFields.writeLong(generator, JsonFields.ID, dto.getId());
+            JsonFields.writeString(generator, JsonFields.NAME, dto.getName());
+            JsonFields.writeString(generator, JsonFields.LASTNAME, dto.getLastname());
+            JsonFields.writeString(generator, JsonFields.ZIPCODE, dto.getZipcode());
+            JsonFields.writeString(generator, JsonFields.CITY, dto.getCity());
+            JsonFields.writeString(generator, JsonFields.COLOR, dto.getColor());
+            generator.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<PersonInputDto> {
+
+        public Deserializer() {
+            super(PersonInputDto.class);
+        }
+
+        @Override
+        public PersonInputDto deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!JsonFields.enterObject(parser)) {
+                return (PersonInputDto) context.handleUnexpectedToken(PersonInputDto.class, parser);
+            }
+            PersonInputDto dto = new PersonInputDto();
+            while (parser.currentToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> dto.setId(JsonFields.readLong(parser, context));
+                    case "name" -> dto.setName(JsonFields.readString(parser, context));
+                    case "lastname" -> dto.setLastname(JsonFields.readString(parser, context));
+                    case "zipcode" -> dto.setZipcode(JsonFields.readString(parser, context));
+                    case "city" -> dto.setCity(JsonFields.readString(parser, context));
+                    case "color" -> dto.setColor(JsonFields.readString(parser, context));
+                    default -> context.handleUnknownProperty(parser, this, dto, field);
+                }
+                parser.nextToken();
+            }
+            return dto;
+        }
+    }
+}
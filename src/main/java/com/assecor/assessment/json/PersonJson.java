@@ -0,0 +1,81 @@
+package com.assecor.assessment.json;
+
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Streaming JSON for {@link Person} with the same shape as the annotated entity:
+ * the color is written and read as its name, the version is left out.
+ */
+public final class PersonJson {
+
+    private PersonJson() {
+    }
+
+    public static class Serializer extends StdSerializer<Person> {
+
+        public Serializer() {
+            super(Person.class);
+        }
+
+        @Override
+        public void serialize(Person person, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(person);
+            JsonFields.writeLong(generator, JsonFields.ID, person.getId());
+            JsonFields.writeString(generator, JsonFields.NAME, person.getName());
+            JsonFields.writeString(generator, JsonFields.LASTNAME, person.getLastname());
+            JsonFields.writeString(generator, JsonFields.ZIPCODE, person.getZipcode());
+            JsonFields.writeString(generator, JsonFields.CITY, person.getCity());
+            Color color = person.getColor();
+            JsonFields.writeString(generator, JsonFields.COLOR, color != null ? color.getName() : null);
+            generator.writeEndObject();
+        }
+    }
+
+    public static class Deserializer extends StdDeserializer<Person> {
+
+        public Deserializer() {
+            super(Person.class);
+        }
+
+        @Override
+        public Person deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            if (!JsonFields.enterObject(parser)) {
+                return (Person) context.handleUnexpectedToken(Person.class, parser);
+            }
+            Person person = new Person();
+            while (parser.currentToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> person.setId(JsonFields.readLong(parser, context));
+                    case "name" -> person.setName(JsonFields.readString(parser, context));
+                    case "lastname" -> person.setLastname(JsonFields.readString(parser, context));
+                    case "zipcode" -> person.setZipcode(JsonFields.readString(parser, context));
+                    case "city" -> person.setCity(JsonFields.readString(parser, context));
+                    case "color" -> {
+                        // Only the name is known here; the service resolves it to the stored color
+                        String colorName = JsonFields.readString(parser, context);
+                        if (colorName != null) {
+                            person.setColor(new Color(colorName));
+                        }
+                    }
+                    // Ignored like on the entity: the version only travels in the ETag
+                    case "version" -> parser.skipChildren();
+                    default -> context.handleUnknownProperty(parser, this, person, field);
+                }
+                parser.nextToken();
+            }
+            return person;
+        }
+    }
+}
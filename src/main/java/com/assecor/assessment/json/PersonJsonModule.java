@@ -0,0 +1,30 @@
+package com.assecor.assessment.json;
+
+import com.assecor.assessment.dto.PersonDto;
+import com.assecor.assessment.dto.PersonInputDto;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.springframework.stereotype.Component;
+
+/**
+ * Jackson module with hand-written streaming serializers for persons and colors.
+ * They write the pre-encoded property names and field values directly, without bean introspection
+ * or reflective accessor calls, and produce the same JSON as the annotated classes.
+ * Spring Boot registers the module with every {@code ObjectMapper} it builds, including the CBOR and Smile ones.
+ */
+@Component
+public class PersonJsonModule extends SimpleModule {
+
+    public PersonJsonModule() {
+        super(PersonJsonModule.class.getSimpleName());
+        addSerializer(Person.class, new PersonJson.Serializer());
+        addDeserializer(Person.class, new PersonJson.Deserializer());
+        addSerializer(PersonDto.class, new PersonDtoJson.Serializer());
+        addDeserializer(PersonDto.class, new PersonDtoJson.Deserializer());
+        addSerializer(PersonInputDto.class, new PersonInputDtoJson.Serializer());
+        addDeserializer(PersonInputDto.class, new PersonInputDtoJson.Deserializer());
+        addSerializer(Color.class, new ColorJson.Serializer());
+        addDeserializer(Color.class, new ColorJson.Deserializer());
+    }
+}
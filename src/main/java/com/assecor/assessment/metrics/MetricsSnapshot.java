@@ -0,0 +1,57 @@
+package com.assecor.assessment.metrics;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact, pre-aggregated view of the meters shown on the metrics dashboard.
+ * All durations are in milliseconds.
+ */
+public record MetricsSnapshot(
+        long timestamp,
+        List<Endpoint> endpoints,
+        List<Pool> pools,
+        List<GcPause> gcPauses,
+        Map<String, Double> admission) {
+
+    /**
+     * Latency of one {@code http.server.requests} series.
+     *
+     * @param percentiles percentile (e.g. "0.99") to latency
+     * @param histogram cumulative request count per bucket upper bound, only buckets where the count changes
+     */
+    public record Endpoint(
+            String method,
+            String uri,
+            String status,
+            long count,
+            double meanMs,
+            double maxMs,
+            Map<String, Double> percentiles,
+            List<Bucket> histogram) {
+    }
+
+    public record Bucket(double leMs, double count) {
+    }
+
+    /**
+     * Saturation of one Hikari connection pool.
+     */
+    public record Pool(
+            String name,
+            double active,
+            double idle,
+            double pending,
+            double max,
+            long acquireCount,
+            double acquireMeanMs,
+            double acquireMaxMs,
+            double timeouts) {
+    }
+
+    /**
+     * Garbage collection pauses for one collector action and cause.
+     */
+    public record GcPause(String action, String cause, long count, double totalMs, double maxMs) {
+    }
+}
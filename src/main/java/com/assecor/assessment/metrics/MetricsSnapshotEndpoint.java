@@ -0,0 +1,138 @@
+package com.assecor.assessment.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.CountAtBucket;
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Actuator endpoint serving a {@link MetricsSnapshot} at {@code /actuator/dashboard}.
+ * The dashboard polls this instead of issuing one metrics request per endpoint or
+ * parsing the full Prometheus scrape.
+ */
+@Component
+@Endpoint(id = "dashboard")
+public class MetricsSnapshotEndpoint {
+
+    private final MeterRegistry meterRegistry;
+
+    public MetricsSnapshotEndpoint(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @ReadOperation
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(
+                System.currentTimeMillis(),
+                endpoints(),
+                pools(),
+                gcPauses(),
+                admission());
+    }
+
+    private List<MetricsSnapshot.Endpoint> endpoints() {
+        List<MetricsSnapshot.Endpoint> endpoints = new ArrayList<>();
+        for (Timer timer : meterRegistry.find("http.server.requests").timers()) {
+            String uri = timer.getId().getTag("uri");
+            if (uri == null || uri.startsWith("/actuator") || uri.equals("/**")) {
+                continue;
+            }
+            HistogramSnapshot snapshot = timer.takeSnapshot();
+
+            Map<String, Double> percentiles = new LinkedHashMap<>();
+            for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+                percentiles.put(Double.toString(percentile.percentile()), percentile.value(TimeUnit.MILLISECONDS));
+            }
+
+            List<MetricsSnapshot.Bucket> histogram = new ArrayList<>();
+            double previous = 0;
+            for (CountAtBucket bucket : snapshot.histogramCounts()) {
+                if (bucket.count() > previous) {
+                    histogram.add(new MetricsSnapshot.Bucket(bucket.bucket(TimeUnit.MILLISECONDS), bucket.count()));
+                    previous = bucket.count();
+                }
+            }
+
+            endpoints.add(new MetricsSnapshot.Endpoint(
+                    timer.getId().getTag("method"),
+                    uri,
+                    timer.getId().getTag("status"),
+                    snapshot.count(),
+                    snapshot.mean(TimeUnit.MILLISECONDS),
+                    snapshot.max(TimeUnit.MILLISECONDS),
+                    percentiles,
+                    histogram));
+        }
+        endpoints.sort(Comparator.comparingLong(MetricsSnapshot.Endpoint::count).reversed());
+        return endpoints;
+    }
+
+    private List<MetricsSnapshot.Pool> pools() {
+        TreeSet<String> poolNames = new TreeSet<>();
+        meterRegistry.find("hikaricp.connections.active").gauges()
+                .forEach(gauge -> poolNames.add(gauge.getId().getTag("pool")));
+
+        List<MetricsSnapshot.Pool> pools = new ArrayList<>();
+        for (String pool : poolNames) {
+            Timer acquire = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+            Counter timeouts = meterRegistry.find("hikaricp.connections.timeout").tag("pool", pool).counter();
+            pools.add(new MetricsSnapshot.Pool(
+                    pool,
+                    poolGauge("hikaricp.connections.active", pool),
+                    poolGauge("hikaricp.connections.idle", pool),
+                    poolGauge("hikaricp.connections.pending", pool),
+                    poolGauge("hikaricp.connections.max", pool),
+                    acquire != null ? acquire.count() : 0,
+                    acquire != null ? acquire.mean(TimeUnit.MILLISECONDS) : 0,
+                    acquire != null ? acquire.max(TimeUnit.MILLISECONDS) : 0,
+                    timeouts != null ? timeouts.count() : 0));
+        }
+        return pools;
+    }
+
+    private double poolGauge(String name, String pool) {
+        Gauge gauge = meterRegistry.find(name).tag("pool", pool).gauge();
+        return gauge != null ? gauge.value() : 0;
+    }
+
+    private List<MetricsSnapshot.GcPause> gcPauses() {
+        List<MetricsSnapshot.GcPause> pauses = new ArrayList<>();
+        for (Timer timer : meterRegistry.find("jvm.gc.pause").timers()) {
+            pauses.add(new MetricsSnapshot.GcPause(
+                    timer.getId().getTag("action"),
+                    timer.getId().getTag("cause"),
+                    timer.count(),
+                    timer.totalTime(TimeUnit.MILLISECONDS),
+                    timer.max(TimeUnit.MILLISECONDS)));
+        }
+        return pauses;
+    }
+
+    private Map<String, Double> admission() {
+        Map<String, Double> admission = new LinkedHashMap<>();
+        Gauge limit = meterRegistry.find("admission.concurrency.limit").gauge();
+        Gauge inFlight = meterRegistry.find("admission.concurrency.inflight").gauge();
+        if (limit != null && inFlight != null) {
+            admission.put("limit", limit.value());
+            admission.put("inflight", inFlight.value());
+        }
+        for (Counter rejected : meterRegistry.find("admission.rejected.total").counters()) {
+            admission.put("rejected." + rejected.getId().getTag("reason"), rejected.count());
+        }
+        return admission;
+    }
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
@@ -33,6 +34,12 @@ public class Person {
         this.color = color;
     }
     
+    // Constructor for persons with a known ID; the version starts at its initial value
+    public Person(Long id, String name, String lastname, String zipcode, String city, Color color) {
+        this(name, lastname, zipcode, city, color);
+        this.id = id;
+    }
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @JsonProperty("id")
@@ -67,6 +74,12 @@ public class Person {
     @JsonIgnore
     private Color color;
     
+    // Optimistic lock; also sent to clients as the ETag for conditional PATCH requests
+    @Version
+    @Column(name = "version", nullable = false)
+    @JsonIgnore
+    private long version;
+    
     @JsonProperty("color")
     public String getColorName() {
         return color != null ? color.getName() : null;
@@ -0,0 +1,62 @@
+package com.assecor.assessment.model;
+
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Person properties that can be requested individually via the {@code fields} query parameter.
+ * Each field knows the JPQL path it is selected from, where {@code p} is the person and
+ * {@code c} its joined color.
+ */
+public enum PersonField {
+
+    ID("id", "p.id"),
+    NAME("name", "p.name"),
+    LASTNAME("lastname", "p.lastname"),
+    ZIPCODE("zipcode", "p.zipcode"),
+    CITY("city", "p.city"),
+    COLOR("color", "c.name");
+
+    private final String jsonName;
+    private final String path;
+
+    PersonField(String jsonName, String path) {
+        this.jsonName = jsonName;
+        this.path = path;
+    }
+
+    public String getJsonName() {
+        return jsonName;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * Parse a comma separated list of field names such as {@code "id,name,color"}.
+     *
+     * @param fields the requested fields
+     * @return the fields in declaration order
+     * @throws IllegalArgumentException if a name is unknown or no field is given
+     */
+    public static Set<PersonField> parse(String fields) {
+        Set<PersonField> result = EnumSet.noneOf(PersonField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            try {
+                result.add(valueOf(trimmed.toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown field '" + trimmed + "'");
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalArgumentException("At least one field is required");
+        }
+        return result;
+    }
+}
@@ -0,0 +1,12 @@
+package com.assecor.assessment.model;
+
+/**
+ * Ad-hoc person filter; all given criteria must match, {@code null} criteria are ignored.
+ * Names, cities and colors match case-insensitively, the zipcode by prefix.
+ */
+public record PersonFilter(String name, String lastname, String city, String color, String zipPrefix) {
+
+    public boolean isEmpty() {
+        return name == null && lastname == null && city == null && color == null && zipPrefix == null;
+    }
+}
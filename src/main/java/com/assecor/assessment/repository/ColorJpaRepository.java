@@ -1,12 +1,45 @@
 package com.assecor.assessment.repository;
 
 import com.assecor.assessment.model.Color;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ColorJpaRepository extends JpaRepository<Color, Long> {
+    
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<Color> findAll();
+    
     Optional<Color> findByNameIgnoreCase(String name);
+    
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Color c WHERE c.id = :id")
+    int removeById(@Param("id") Long id);
+    
+    /**
+     * Insert a color with a given ID, used to copy colors to every shard under the same ID.
+     * 
+     * @param id the color ID
+     * @param name the color name
+     * @return the number of inserted rows
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO colors (id, name) VALUES (:id, :name)", nativeQuery = true)
+    int insertWithId(@Param("id") Long id, @Param("name") String name);
 }
@@ -0,0 +1,304 @@
+package com.assecor.assessment.repository;
+
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Read-only person repository over a memory-mapped CSV file in the format of {@code sample-input.csv}.
+ * Startup makes a single pass over the mapped bytes and keeps nothing but an offset index: the ID, byte
+ * offset and length of every record plus, per color, the records having it. A row is only decoded when
+ * it is served, so the file never has to fit on the heap and the operating system pages in just what is read.
+ * <p>
+ * As with the CSV source, a person's ID is the line its record starts in, and a line ending with a comma
+ * is continued on the next one. Quoted fields are not supported. Records with the wrong number of fields or
+ * an unknown color are left out of the index; records whose address has no city are left out when decoded.
+ */
+public class MappedCsvPersonRepository implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedCsvPersonRepository.class);
+    private static final int FIELDS = 4;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final Arena arena;
+    private final MemorySegment file;
+    private final Map<Long, Color> colorsById = new HashMap<>();
+    private final Map<String, Color> colorsByName = new HashMap<>();
+    // Record i has ID ids[i] and spans lengths[i] bytes from offsets[i]; IDs ascend with i
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private long[] offsets = new long[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int size;
+    private final Map<Long, int[]> recordsByColor = new HashMap<>();
+
+    /**
+     * Map the file and index it.
+     *
+     * @param path the CSV file
+     * @param colors the colors records may reference by ID
+     * @throws IOException if the file cannot be mapped
+     */
+    public MappedCsvPersonRepository(Path path, Collection<Color> colors) throws IOException {
+        for (Color color : colors) {
+            colorsById.put(color.getId(), color);
+            colorsByName.put(color.getName().toLowerCase(Locale.ROOT), color);
+        }
+        this.arena = Arena.ofShared();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            this.file = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena);
+        } catch (IOException | RuntimeException e) {
+            arena.close();
+            throw e;
+        }
+        long[] colorIds = index(path);
+        groupByColor(colorIds);
+        logger.info("Indexed {} persons from {} ({} bytes)", size, path, file.byteSize());
+    }
+
+    /**
+     * @return all persons ordered by ID
+     */
+    public List<Person> findAll() {
+        List<Person> persons = new ArrayList<>(size);
+        for (int record = 0; record < size; record++) {
+            addDecoded(persons, record);
+        }
+        return persons;
+    }
+
+    public Optional<Person> findById(long id) {
+        int record = Arrays.binarySearch(ids, 0, size, id);
+        return record < 0 ? Optional.empty() : Optional.ofNullable(decode(record));
+    }
+
+    /**
+     * @param ids the person IDs to look up
+     * @return the persons found, ordered by ID
+     */
+    public List<Person> findAllById(Collection<Long> ids) {
+        int[] records = ids.stream()
+                .mapToInt(id -> Arrays.binarySearch(this.ids, 0, size, id))
+                .filter(record -> record >= 0)
+                .sorted()
+                .distinct()
+                .toArray();
+        return decodeAll(records);
+    }
+
+    /**
+     * @param colorName the color name, ignoring case
+     * @return the persons with that color ordered by ID
+     */
+    public List<Person> findByColorNameIgnoreCase(String colorName) {
+        Color color = colorsByName.get(colorName.toLowerCase(Locale.ROOT));
+        return color == null ? List.of() : decodeAll(recordsByColor.getOrDefault(color.getId(), new int[0]));
+    }
+
+    /**
+     * @param colorIds the color IDs
+     * @return the persons with any of the colors, ordered by ID
+     */
+    public List<Person> findByColorIdIn(Collection<Long> colorIds) {
+        int[] records = colorIds.stream().distinct()
+                .flatMapToInt(colorId -> Arrays.stream(recordsByColor.getOrDefault(colorId, new int[0])))
+                .sorted()
+                .toArray();
+        return decodeAll(records);
+    }
+
+    /**
+     * @return the number of indexed persons
+     */
+    public int count() {
+        return size;
+    }
+
+    /**
+     * Unmap the file. Persons must not be read afterwards.
+     */
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private long[] index(Path path) {
+        long[] colorIds = new long[INITIAL_CAPACITY];
+        long length = file.byteSize();
+        long line = 0;
+        long recordStart = -1;
+        long recordLine = 0;
+        int fields = 0;
+        for (long position = 0; position < length; position++) {
+            long lineStart = position;
+            long lineEnd = lineStart;
+            while (lineEnd < length && byteAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            position = lineEnd;
+            line++;
+            long contentEnd = stripEnd(lineStart, lineEnd);
+            if (contentEnd == lineStart) {
+                continue;
+            }
+            if (recordStart < 0) {
+                recordStart = lineStart;
+                recordLine = line;
+                fields = 0;
+            }
+            // The empty field after a trailing comma only marks the continuation
+            boolean continued = byteAt(contentEnd - 1) == ',';
+            fields += commas(lineStart, contentEnd) + (continued ? 0 : 1);
+            if (fields < FIELDS) {
+                continue;
+            }
+            long colorId = fields == FIELDS ? colorId(lineStart, continued ? contentEnd - 1 : contentEnd) : -1;
+            if (fields != FIELDS) {
+                logger.warn("Skipping line {} of {}: expected {} fields but found {}", recordLine, path, FIELDS, fields);
+            } else if (!colorsById.containsKey(colorId)) {
+                logger.warn("Skipping line {} of {}: unknown or invalid color", recordLine, path);
+            } else {
+                if (size == ids.length) {
+                    ids = Arrays.copyOf(ids, size * 2);
+                    offsets = Arrays.copyOf(offsets, size * 2);
+                    lengths = Arrays.copyOf(lengths, size * 2);
+                    colorIds = Arrays.copyOf(colorIds, size * 2);
+                }
+                ids[size] = recordLine;
+                offsets[size] = recordStart;
+                lengths[size] = Math.toIntExact(contentEnd - recordStart);
+                colorIds[size] = colorId;
+                size++;
+            }
+            recordStart = -1;
+        }
+        if (recordStart >= 0) {
+            logger.warn("Skipping line {} of {}: incomplete record, expected {} fields", recordLine, path, FIELDS);
+        }
+        return colorIds;
+    }
+
+    private void groupByColor(long[] colorIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (int record = 0; record < size; record++) {
+            counts.merge(colorIds[record], 1, Integer::sum);
+        }
+        Map<Long, Integer> filled = new HashMap<>();
+        counts.forEach((colorId, count) -> {
+            recordsByColor.put(colorId, new int[count]);
+            filled.put(colorId, 0);
+        });
+        for (int record = 0; record < size; record++) {
+            int next = filled.merge(colorIds[record], 1, Integer::sum);
+            recordsByColor.get(colorIds[record])[next - 1] = record;
+        }
+    }
+
+    // The color is the last field of the record's last line
+    private long colorId(long lineStart, long end) {
+        long start = end;
+        while (start > lineStart && byteAt(start - 1) != ',') {
+            start--;
+        }
+        while (start < end && isWhitespace(byteAt(start))) {
+            start++;
+        }
+        end = stripEnd(start, end);
+        if (start == end || end - start > 18) {
+            return -1;
+        }
+        long colorId = 0;
+        for (long position = start; position < end; position++) {
+            byte digit = byteAt(position);
+            if (digit < '0' || digit > '9') {
+                return -1;
+            }
+            colorId = colorId * 10 + (digit - '0');
+        }
+        return colorId;
+    }
+
+    private int commas(long start, long end) {
+        int commas = 0;
+        for (long position = start; position < end; position++) {
+            if (byteAt(position) == ',') {
+                commas++;
+            }
+        }
+        return commas;
+    }
+
+    private long stripEnd(long start, long end) {
+        while (end > start && isWhitespace(byteAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private byte byteAt(long position) {
+        return file.get(ValueLayout.JAVA_BYTE, position);
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private List<Person> decodeAll(int[] records) {
+        List<Person> persons = new ArrayList<>(records.length);
+        for (int record : records) {
+            addDecoded(persons, record);
+        }
+        return persons;
+    }
+
+    private void addDecoded(List<Person> persons, int record) {
+        Person person = decode(record);
+        if (person != null) {
+            persons.add(person);
+        }
+    }
+
+    private Person decode(int record) {
+        String text = new String(file.asSlice(offsets[record], lengths[record]).toArray(ValueLayout.JAVA_BYTE),
+                StandardCharsets.UTF_8);
+        List<String> fields = new ArrayList<>(FIELDS);
+        for (String line : text.split("\n")) {
+            if (line.isBlank()) {
+                continue;
+            }
+            String[] values = line.split(",", -1);
+            for (int i = 0; i < values.length; i++) {
+                String field = values[i].strip();
+                if (i < values.length - 1 || !field.isEmpty()) {
+                    fields.add(field);
+                }
+            }
+        }
+        String address = fields.get(2);
+        int separator = address.indexOf(' ');
+        if (separator < 0) {
+            logger.debug("Person with ID {} has no city in address '{}'", ids[record], address);
+            return null;
+        }
+        return new Person(ids[record], fields.get(1), fields.get(0), address.substring(0, separator),
+                address.substring(separator + 1).strip(), colorsById.get(Long.parseLong(fields.get(3))));
+    }
+}
@@ -0,0 +1,18 @@
+package com.assecor.assessment.repository;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * Settings for serving persons read-only from a memory-mapped CSV file instead of the database.
+ *
+ * @param enabled whether persons are read from the CSV file; writes are refused while enabled
+ * @param path the CSV file in the format of {@code sample-input.csv}
+ */
+@ConfigurationProperties(prefix = "mapped-csv")
+public record MappedCsvProperties(
+        @DefaultValue("false") boolean enabled,
+        Path path) {
+}
@@ -1,19 +1,34 @@
 package com.assecor.assessment.repository;
 
 import com.assecor.assessment.model.Person;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
  * JPA Repository for Person entities.
  * Provides CRUD operations and custom query methods.
+ * List reads only feed responses, so they load read-only entities without dirty-checking snapshots
+ * and never flush, whether or not the caller opened a read-only transaction.
  */
 @Repository
-public interface PersonJpaRepository extends JpaRepository<Person, Long> {
+public interface PersonJpaRepository extends JpaRepository<Person, Long>, PersonJpaRepositoryCustom {
+    
+    @Override
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    List<Person> findAll();
     
     /**
      * Find persons by color name (case-insensitive).
@@ -21,6 +36,85 @@ public interface PersonJpaRepository extends JpaRepository<Person, Long> {
      * @param colorName the color name to search for
      * @return list of persons with the specified color
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
     @Query("SELECT p FROM Person p WHERE LOWER(p.color.name) = LOWER(:colorName)")
     List<Person> findByColorNameIgnoreCase(@Param("colorName") String colorName);
+    
+    /**
+     * Check whether any person has the given color.
+     * 
+     * @param colorId the color ID
+     * @return true if at least one person references the color
+     */
+    boolean existsByColorId(Long colorId);
+    
+    /**
+     * Find persons by ID with their colors fetched in the same query.
+     * 
+     * @param ids the person IDs to look up
+     * @return the persons found, in no particular order
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL")
+    })
+    @Query("SELECT p FROM Person p JOIN FETCH p.color WHERE p.id IN :ids")
+    List<Person> findAllWithColorByIdIn(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Load the ID and color ID of every person, without materializing entities.
+     * 
+     * @return one {@code [personId, colorId]} pair per person
+     */
+    @Query("SELECT p.id, p.color.id FROM Person p")
+    List<Object[]> findAllIdsWithColorId();
+
+    /**
+     * Load the name, lastname and zipcode of every person, the key duplicates are detected on.
+     *
+     * @return one {@code [name, lastname, zipcode]} triple per person
+     */
+    @Query("SELECT p.name, p.lastname, p.zipcode FROM Person p")
+    List<Object[]> findAllDuplicateKeys();
+
+    /**
+     * Find persons by duplicate key, ignoring case and surrounding whitespace.
+     *
+     * @param name the lower-cased, stripped name
+     * @param lastname the lower-cased, stripped lastname
+     * @param zipcode the stripped zipcode
+     * @return the persons with that key
+     */
+    @Query("SELECT p FROM Person p WHERE LOWER(TRIM(p.name)) = :name AND LOWER(TRIM(p.lastname)) = :lastname "
+            + "AND TRIM(p.zipcode) = :zipcode")
+    List<Person> findByDuplicateKey(@Param("name") String name, @Param("lastname") String lastname,
+                                    @Param("zipcode") String zipcode);
+
+    /**
+     * Delete a person with a single DELETE statement, without loading it first.
+     * 
+     * @param id the person ID
+     * @return the number of deleted rows (0 if the person does not exist)
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Person p WHERE p.id = :id")
+    int removeById(@Param("id") Long id);
+    
+    /**
+     * Move every person from one color to another with a single set-based UPDATE.
+     * The version of every moved person is incremented so concurrent PATCH requests notice the change.
+     * 
+     * @param fromColorId the color to move persons away from
+     * @param toColorId the color to assign instead
+     * @return the number of moved persons
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE persons SET color_id = :toColorId, version = version + 1 WHERE color_id = :fromColorId",
+            nativeQuery = true)
+    int reassignColor(@Param("fromColorId") Long fromColorId, @Param("toColorId") Long toColorId);
 }
@@ -0,0 +1,49 @@
+package com.assecor.assessment.repository;
+
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonField;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Custom write operations for Person entities that bypass the persistence context.
+ */
+public interface PersonJpaRepositoryCustom {
+    
+    /**
+     * Update only the non-null fields of {@code changes} in a single UPDATE statement.
+     * The version column is incremented as part of the same statement.
+     * 
+     * @param id the person ID
+     * @param changes the fields to write; {@code null} fields are left untouched,
+     *                a color must already carry its ID
+     * @param expectedVersion the version the caller last saw, or {@code null} to skip the check
+     * @return the number of updated rows (0 if the person does not exist or the version did not match)
+     */
+    int updateChangedFields(Long id, Person changes, Long expectedVersion);
+    
+    /**
+     * Delete up to {@code chunkSize} persons matching the filter in its own short transaction.
+     * Callers repeat until fewer than {@code chunkSize} rows are deleted, so no single statement
+     * holds locks on a large part of the table.
+     * 
+     * @param colorName the color name to match (case-insensitive), or {@code null} for any color
+     * @param zipPrefix the zipcode prefix to match, or {@code null} for any zipcode
+     * @param chunkSize the maximum number of rows to delete
+     * @return the number of deleted rows
+     */
+    int deleteChunkByFilter(String colorName, String zipPrefix, int chunkSize);
+    
+    /**
+     * Select only the given columns of persons, ordered by ID.
+     * The colors table is joined only if the color is selected or filtered on.
+     * 
+     * @param fields the fields to select
+     * @param id the person ID to match, or {@code null} for all persons
+     * @param colorName the color name to match (case-insensitive), or {@code null} for any color
+     * @return one map per person from JSON field name to value, in field order
+     */
+    List<Map<String, Object>> findFields(Set<PersonField> fields, Long id, String colorName);
+}
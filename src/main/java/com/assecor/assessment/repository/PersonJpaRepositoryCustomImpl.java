@@ -0,0 +1,131 @@
+package com.assecor.assessment.repository;
+
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Criteria based implementation of {@link PersonJpaRepositoryCustom}.
+ */
+public class PersonJpaRepositoryCustomImpl implements PersonJpaRepositoryCustom {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    @Transactional
+    public int updateChangedFields(Long id, Person changes, Long expectedVersion) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Person> update = cb.createCriteriaUpdate(Person.class);
+        Root<Person> person = update.from(Person.class);
+        
+        if (changes.getName() != null) {
+            update.set(person.<String>get("name"), changes.getName());
+        }
+        if (changes.getLastname() != null) {
+            update.set(person.<String>get("lastname"), changes.getLastname());
+        }
+        if (changes.getZipcode() != null) {
+            update.set(person.<String>get("zipcode"), changes.getZipcode());
+        }
+        if (changes.getCity() != null) {
+            update.set(person.<String>get("city"), changes.getCity());
+        }
+        if (changes.getColor() != null) {
+            update.set(person.<Color>get("color"), changes.getColor());
+        }
+        update.set(person.<Long>get("version"), cb.sum(person.<Long>get("version"), 1L));
+        
+        Predicate condition = cb.equal(person.get("id"), id);
+        if (expectedVersion != null) {
+            condition = cb.and(condition, cb.equal(person.get("version"), expectedVersion));
+        }
+        update.where(condition);
+        
+        return entityManager.createQuery(update).executeUpdate();
+    }
+    
+    @Override
+    @Transactional
+    public int deleteChunkByFilter(String colorName, String zipPrefix, int chunkSize) {
+        StringBuilder jpql = new StringBuilder("SELECT p.id FROM Person p WHERE 1 = 1");
+        if (colorName != null) {
+            jpql.append(" AND LOWER(p.color.name) = LOWER(:colorName)");
+        }
+        if (zipPrefix != null) {
+            jpql.append(" AND p.zipcode LIKE :zipPrefix ESCAPE '!'");
+        }
+        jpql.append(" ORDER BY p.id");
+        
+        TypedQuery<Long> select = entityManager.createQuery(jpql.toString(), Long.class);
+        if (colorName != null) {
+            select.setParameter("colorName", colorName);
+        }
+        if (zipPrefix != null) {
+            String escaped = zipPrefix.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            select.setParameter("zipPrefix", escaped + "%");
+        }
+        List<Long> ids = select.setMaxResults(chunkSize).getResultList();
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        return entityManager.createQuery("DELETE FROM Person p WHERE p.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+    
+    @Override
+    public List<Map<String, Object>> findFields(Set<PersonField> fields, Long id, String colorName) {
+        StringBuilder jpql = new StringBuilder("SELECT ")
+                .append(fields.stream().map(PersonField::getPath).collect(Collectors.joining(", ")))
+                .append(" FROM Person p");
+        if (fields.contains(PersonField.COLOR) || colorName != null) {
+            jpql.append(" JOIN p.color c");
+        }
+        jpql.append(" WHERE 1 = 1");
+        if (id != null) {
+            jpql.append(" AND p.id = :id");
+        }
+        if (colorName != null) {
+            jpql.append(" AND LOWER(c.name) = LOWER(:colorName)");
+        }
+        jpql.append(" ORDER BY p.id");
+        
+        TypedQuery<Tuple> query = entityManager.createQuery(jpql.toString(), Tuple.class);
+        if (id != null) {
+            query.setParameter("id", id);
+        }
+        if (colorName != null) {
+            query.setParameter("colorName", colorName);
+        }
+        
+        List<Tuple> tuples = query.getResultList();
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            int index = 0;
+            for (PersonField field : fields) {
+                row.put(field.getJsonName(), tuple.get(index++));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -28,28 +28,53 @@ public interface ColorService {
     
     /**
      * Create a new color.
+     * With several shards the color is copied to every shard and removed again if any shard refuses it.
      * 
      * @param color the color to create
-     * @return the created color
-     * @throws IllegalArgumentException if color with same name already exists
+     * @return the created color, a conflict if a color with the same name already exists, or read-only
+     *         while persons are served from a mapped CSV file
      */
-    Color createColor(Color color);
+    ServiceResult<Color> createColor(Color color);
     
     /**
      * Update an existing color.
+     * With several shards the color is renamed on every shard and renamed back if any shard refuses it.
      * 
      * @param id the color ID to update
      * @param color the updated color data
-     * @return the updated color
-     * @throws IllegalArgumentException if color not found or name conflict
+     * @return the updated color, not found, a conflict if another color has the name, or read-only
      */
-    Color updateColor(Long id, Color color);
+    ServiceResult<Color> updateColor(Long id, Color color);
     
     /**
      * Delete a color by its ID.
      * 
      * @param id the color ID to delete
-     * @throws IllegalArgumentException if color not found
+     * @return ok, not found, a conflict if the color is still in use, or read-only
      */
-    void deleteColor(Long id);
+    ServiceResult<Void> deleteColor(Long id);
+    
+    /**
+     * Delete a color, first moving all persons that use it to another color.
+     * With a single database both steps run in one transaction, which is rolled back unless the color
+     * is deleted. With several shards every shard commits on its own: persons stay reassigned if the color
+     * cannot be deleted afterwards, and a deletion refused by one shard is undone on the others.
+     * 
+     * @param id the color ID to delete
+     * @param reassignToId the color to move persons to, or null to delete only an unused color
+     * @return ok, not found if either color is missing, a conflict if the color is still in use, invalid
+     *         if it would be reassigned to itself, or read-only if persons cannot be reassigned
+     */
+    ServiceResult<Void> deleteColor(Long id, Long reassignToId);
+    
+    /**
+     * Move every person with one color to another color.
+     * With several shards every shard commits on its own; after a failure the call can simply be repeated.
+     * 
+     * @param id the color to move persons away from
+     * @param targetId the color to assign instead
+     * @return the number of reassigned persons, not found if either color is missing, invalid if both
+     *         IDs are equal, or read-only while persons come from the CSV source
+     */
+    ServiceResult<Integer> reassignColor(Long id, Long targetId);
 }
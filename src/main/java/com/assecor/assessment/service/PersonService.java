@@ -1,8 +1,13 @@
 package com.assecor.assessment.service;
 
 import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonField;
+import com.assecor.assessment.model.PersonFilter;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service interface for managing Person entities.
@@ -26,6 +31,14 @@ public interface PersonService {
      */
     Optional<Person> getPersonById(int id);
     
+    /**
+     * Retrieves several persons by ID with as few queries as possible.
+     * 
+     * @param ids the person IDs
+     * @return the persons found, keyed by ID; missing IDs are absent
+     */
+    Map<Long, Person> getPersonsByIds(Collection<Long> ids);
+    
     /**
      * Retrieves all persons with a specific color.
      * 
@@ -34,28 +47,94 @@ public interface PersonService {
      */
     List<Person> getPersonsByColor(String color);
     
+    /**
+     * Retrieves all persons having any of the given colors and none of the excluded ones.
+     * Unknown color names match no one.
+     * 
+     * @param colors the colors to match; empty matches every color
+     * @param excludedColors the colors to leave out
+     * @return the matching persons ordered by ID
+     */
+    List<Person> getPersonsByColors(Collection<String> colors, Collection<String> excludedColors);
+    
+    /**
+     * Retrieves all persons matching an ad-hoc filter, evaluated against an in-memory snapshot.
+     * 
+     * @param filter the criteria, all of which must match
+     * @return the matching persons ordered by ID
+     */
+    List<Person> queryPersons(PersonFilter filter);
+    
+    /**
+     * Retrieves only the given fields of all persons.
+     * 
+     * @param fields the fields to retrieve
+     * @return one map of field name to value per person
+     */
+    List<Map<String, Object>> getAllPersonFields(Set<PersonField> fields);
+    
+    /**
+     * Retrieves only the given fields of a person.
+     * 
+     * @param id the person ID
+     * @param fields the fields to retrieve
+     * @return Optional containing the field values if found, empty otherwise
+     */
+    Optional<Map<String, Object>> getPersonFieldsById(int id, Set<PersonField> fields);
+    
+    /**
+     * Retrieves only the given fields of all persons with a specific color.
+     * 
+     * @param color the color to search for
+     * @param fields the fields to retrieve
+     * @return one map of field name to value per person
+     */
+    List<Map<String, Object>> getPersonFieldsByColor(String color, Set<PersonField> fields);
+    
     /**
      * Creates a new person.
      * 
      * @param person the person to create
-     * @return the created person
+     * @return the created person, or invalid if the color does not exist
      */
-    Person createPerson(Person person);
+    ServiceResult<Person> createPerson(Person person);
     
     /**
      * Updates an existing person.
      * 
      * @param id the person ID
      * @param person the updated person data
-     * @return Optional containing the updated person if found, empty otherwise
+     * @return the updated person, not found, or invalid if the color does not exist
      */
-    Optional<Person> updatePerson(int id, Person person);
+    ServiceResult<Person> updatePerson(int id, Person person);
+    
+    /**
+     * Partially updates an existing person in a single statement.
+     * Only the non-null fields of {@code changes} are written.
+     * 
+     * @param id the person ID
+     * @param changes the fields to change
+     * @param expectedVersion the version the client last saw, or null to update unconditionally
+     * @return the version now stored, or null if it is unknown because no version was expected; not found,
+     *         a conflict if the version does not match, or invalid if the color does not exist
+     */
+    ServiceResult<Long> patchPerson(int id, Person changes, Long expectedVersion);
     
     /**
      * Deletes a person by ID.
      * 
      * @param id the person ID to delete
-     * @return true if person was deleted, false if not found
+     * @return ok, or not found
+     */
+    ServiceResult<Void> deletePerson(int id);
+    
+    /**
+     * Deletes all persons matching the given filter in chunks.
+     * At least one filter criterion must be given.
+     * 
+     * @param color the color name to match, or null or blank for any color
+     * @param zipPrefix the zipcode prefix to match, or null or blank for any zipcode
+     * @return the number of deleted persons
      */
-    boolean deletePerson(int id);
+    ServiceResult<Integer> deletePersons(String color, String zipPrefix);
 }
@@ -0,0 +1,108 @@
+package com.assecor.assessment.service;
+
+/**
+ * Outcome of a service operation that can fail in an expected way.
+ * A missing resource or a conflicting request is an ordinary answer, not an error, so it is returned
+ * as a shared constant instead of thrown: no stack trace is captured and nothing is allocated for it.
+ *
+ * @param <T> the type of the value of a successful operation
+ */
+public final class ServiceResult<T> {
+
+    /**
+     * What happened to the request.
+     */
+    public enum Status {
+        /** The operation succeeded. */
+        OK,
+        /** The addressed resource does not exist. */
+        NOT_FOUND,
+        /** The request contradicts the current state, e.g. a duplicate name, a color in use or a stale version. */
+        CONFLICT,
+        /** The request references something that does not exist, e.g. an unknown color. */
+        INVALID,
+        /** The resource cannot be changed, e.g. persons served from a CSV file. */
+        READ_ONLY
+    }
+
+    private static final ServiceResult<?> OK_WITHOUT_VALUE = new ServiceResult<>(Status.OK, null);
+    private static final ServiceResult<?> NOT_FOUND = new ServiceResult<>(Status.NOT_FOUND, null);
+    private static final ServiceResult<?> CONFLICT = new ServiceResult<>(Status.CONFLICT, null);
+    private static final ServiceResult<?> INVALID = new ServiceResult<>(Status.INVALID, null);
+    private static final ServiceResult<?> READ_ONLY = new ServiceResult<>(Status.READ_ONLY, null);
+
+    private final Status status;
+    private final T value;
+
+    private ServiceResult(Status status, T value) {
+        this.status = status;
+        this.value = value;
+    }
+
+    public static <T> ServiceResult<T> ok(T value) {
+        return new ServiceResult<>(Status.OK, value);
+    }
+
+    public static <T> ServiceResult<T> ok() {
+        return cast(OK_WITHOUT_VALUE);
+    }
+
+    public static <T> ServiceResult<T> notFound() {
+        return cast(NOT_FOUND);
+    }
+
+    public static <T> ServiceResult<T> conflict() {
+        return cast(CONFLICT);
+    }
+
+    public static <T> ServiceResult<T> invalid() {
+        return cast(INVALID);
+    }
+
+    public static <T> ServiceResult<T> readOnly() {
+        return cast(READ_ONLY);
+    }
+
+    public Status status() {
+        return status;
+    }
+
+    public boolean isOk() {
+        return status == Status.OK;
+    }
+
+    /**
+     * @return the value of a successful operation
+     * @throws IllegalStateException if the operation did not succeed
+     */
+    public T value() {
+        if (status != Status.OK) {
+            throw new IllegalStateException("No value, the operation ended with " + status);
+        }
+        return value;
+    }
+
+    /**
+     * Pass a failure on as the result of an operation with another value type.
+     *
+     * @return this failure
+     * @throws IllegalStateException if the operation succeeded
+     */
+    public <U> ServiceResult<U> failure() {
+        if (status == Status.OK) {
+            throw new IllegalStateException("The operation succeeded");
+        }
+        return cast(this);
+    }
+
+    // Failures carry no value, so one instance serves every value type
+    @SuppressWarnings("unchecked")
+    private static <T> ServiceResult<T> cast(ServiceResult<?> result) {
+        return (ServiceResult<T>) result;
+    }
+
+    @Override
+    public String toString() {
+        return status == Status.OK ? "OK(" + value + ")" : status.name();
+    }
+}
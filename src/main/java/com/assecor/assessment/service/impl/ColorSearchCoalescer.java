@@ -0,0 +1,77 @@
+package com.assecor.assessment.service.impl;
+
+import com.assecor.assessment.model.Person;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight coalescing of identical color searches.
+ * The first request for a color runs the query; requests for the same color arriving while it
+ * is in flight wait for and share its result. Writes drop all in-flight entries, so a request
+ * that starts after a write always runs a fresh query instead of joining one that may have
+ * read the old data.
+ */
+@Component
+public class ColorSearchCoalescer {
+
+    private final Map<String, CompletableFuture<List<Person>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+
+    public ColorSearchCoalescer(MeterRegistry meterRegistry) {
+        this.coalescedCounter = Counter.builder("person.color.search.coalesced")
+                .description("Color searches answered by joining an identical query already in flight")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the query for a color, or join the one already running for it.
+     *
+     * @param color the color name; case does not matter
+     * @param query the query to run if none is in flight
+     * @return the shared, unmodifiable result
+     */
+    public List<Person> search(String color, Supplier<List<Person>> query) {
+        String key = color.toLowerCase(Locale.ROOT);
+        CompletableFuture<List<Person>> flight = new CompletableFuture<>();
+        CompletableFuture<List<Person>> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalescedCounter.increment();
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        try {
+            List<Person> result = Collections.unmodifiableList(query.get());
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Called after every write that can change color search results.
+     */
+    public void invalidate() {
+        inFlight.clear();
+    }
+}
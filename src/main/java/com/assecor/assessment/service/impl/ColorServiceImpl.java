@@ -1,18 +1,35 @@
 package com.assecor.assessment.service.impl;
 
+import com.assecor.assessment.cache.PersonColorIndex;
+import com.assecor.assessment.cache.PersonColumnarSnapshot;
+import com.assecor.assessment.cache.PersonJsonCache;
+import com.assecor.assessment.datasource.ReadRoute;
+import com.assecor.assessment.datasource.ShardRouter;
 import com.assecor.assessment.model.Color;
 import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.repository.PersonJpaRepository;
 import com.assecor.assessment.service.ColorService;
+import com.assecor.assessment.service.ServiceResult;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 
 /**
  * Implementation of ColorService interface.
  * Provides business logic for color management operations.
+ * While the CSV source is enabled the file is the only writer of persons, so moving persons to another
+ * color is refused as read-only. A mapped CSV file resolves its color names once at startup and has no
+ * persons in the database to guard deletions, so with it every color write is refused.
  */
 @Service
 public class ColorServiceImpl implements ColorService {
@@ -20,20 +37,42 @@ public class ColorServiceImpl implements ColorService {
     private static final Logger logger = LoggerFactory.getLogger(ColorServiceImpl.class);
     
     private final ColorJpaRepository colorJpaRepository;
+    private final PersonJpaRepository personJpaRepository;
+    private final PersonJsonCache personJsonCache;
+    private final PersonColorIndex personColorIndex;
+    private final PersonColumnarSnapshot personColumnarSnapshot;
+    private final ColorSearchCoalescer colorSearchCoalescer;
+    private final ShardRouter shardRouter;
+    private final boolean personsReadOnly;
+    private final boolean colorsReadOnly;
 
-    public ColorServiceImpl(ColorJpaRepository colorJpaRepository) {
+    public ColorServiceImpl(ColorJpaRepository colorJpaRepository, PersonJpaRepository personJpaRepository,
+                            PersonJsonCache personJsonCache, PersonColorIndex personColorIndex,
+                            PersonColumnarSnapshot personColumnarSnapshot, ColorSearchCoalescer colorSearchCoalescer, ShardRouter shardRouter,
+                            @Value("${csv-source.enabled:false}") boolean personsReadOnly,
+                            @Value("${mapped-csv.enabled:false}") boolean colorsReadOnly) {
         this.colorJpaRepository = colorJpaRepository;
+        this.personJpaRepository = personJpaRepository;
+        this.personJsonCache = personJsonCache;
+        this.personColorIndex = personColorIndex;
+        this.personColumnarSnapshot = personColumnarSnapshot;
+        this.colorSearchCoalescer = colorSearchCoalescer;
+        this.shardRouter = shardRouter;
+        this.personsReadOnly = personsReadOnly;
+        this.colorsReadOnly = colorsReadOnly;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Color> getAllColors() {
         logger.debug("Retrieving all colors from service layer");
-        List<Color> colors = colorJpaRepository.findAll();
+        List<Color> colors = ReadRoute.onReplica(colorJpaRepository::findAll);
         logger.debug("Found {} colors", colors.size());
         return colors;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Optional<Color> getColorById(Long id) {
         logger.debug("Retrieving color with ID: {} from service layer", id);
         Optional<Color> color = colorJpaRepository.findById(id);
@@ -46,62 +85,273 @@ public class ColorServiceImpl implements ColorService {
     }
 
     @Override
-    public Color createColor(Color color) {
+    public ServiceResult<Color> createColor(Color color) {
         logger.info("Creating new color: {}", color);
+        if (colorsReadOnly) {
+            return ServiceResult.readOnly();
+        }
         
         // Check if color with same name already exists
         Optional<Color> existingColor = colorJpaRepository.findByNameIgnoreCase(color.getName());
         if (existingColor.isPresent()) {
             logger.warn("Color with name '{}' already exists", color.getName());
-            throw new IllegalArgumentException("Color with name '" + color.getName() + "' already exists");
+            return ServiceResult.conflict();
         }
         
-        Color savedColor = colorJpaRepository.save(color);
+        // Shard 0 allocates the ID, the other shards get a copy with the same ID
+        Color savedColor;
+        try {
+            savedColor = shardRouter.onShard(0, () -> colorJpaRepository.save(color));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request created the same name between the check and the insert
+            logger.warn("Color with name '{}' was created concurrently", color.getName());
+            return ServiceResult.conflict();
+        }
+        if (shardRouter.shardCount() > 1) {
+            ServiceResult<Void> copied = copyToEveryShard(savedColor);
+            if (!copied.isOk()) {
+                return copied.failure();
+            }
+        }
         logger.info("Color created successfully with ID: {}", savedColor.getId());
-        return savedColor;
+        return ServiceResult.ok(savedColor);
+    }
+
+    /**
+     * Copies a color created on shard 0 to the other shards. Every shard commits on its own, so if one
+     * of them refuses the copy, the color is removed again from the shards that already have it.
+     */
+    private ServiceResult<Void> copyToEveryShard(Color color) {
+        List<RuntimeException> failures = shardRouter.mapShards(shard -> {
+            if (shard == 0) {
+                return null;
+            }
+            try {
+                colorJpaRepository.insertWithId(color.getId(), color.getName());
+                return null;
+            } catch (RuntimeException e) {
+                logger.warn("Could not copy color with ID {} to shard {}", color.getId(), shard, e);
+                return e;
+            }
+        });
+        RuntimeException failure = failures.stream().filter(Objects::nonNull).findFirst().orElse(null);
+        if (failure == null) {
+            return ServiceResult.ok();
+        }
+        shardRouter.mapShards(shard -> failures.get(shard) == null ? colorJpaRepository.removeById(color.getId()) : 0);
+        // Another color with the same name on one of the shards is a conflict, anything else a real error
+        if (failure instanceof DataIntegrityViolationException) {
+            return ServiceResult.conflict();
+        }
+        throw failure;
     }
 
     @Override
-    public Color updateColor(Long id, Color color) {
+    public ServiceResult<Color> updateColor(Long id, Color color) {
         logger.info("Updating color with ID: {} with data: {}", id, color);
+        if (colorsReadOnly) {
+            return ServiceResult.readOnly();
+        }
         
         // Check if color exists
         Optional<Color> existingColor = colorJpaRepository.findById(id);
         if (existingColor.isEmpty()) {
             logger.warn("Color with ID {} not found for update", id);
-            throw new IllegalArgumentException("Color with ID " + id + " not found");
+            return ServiceResult.notFound();
         }
         
         // Check if another color with same name exists (excluding current one)
         Optional<Color> colorWithSameName = colorJpaRepository.findByNameIgnoreCase(color.getName());
         if (colorWithSameName.isPresent() && !colorWithSameName.get().getId().equals(id)) {
             logger.warn("Another color with name '{}' already exists", color.getName());
-            throw new IllegalArgumentException("Another color with name '" + color.getName() + "' already exists");
+            return ServiceResult.conflict();
         }
         
         // Update the color data
         color.setId(id);
-        Color updatedColor = colorJpaRepository.save(color);
+        Color updatedColor;
+        if (shardRouter.shardCount() > 1) {
+            ServiceResult<Void> renamed = renameOnEveryShard(color, existingColor.get().getName());
+            if (!renamed.isOk()) {
+                return renamed.failure();
+            }
+            updatedColor = color;
+        } else {
+            updatedColor = colorJpaRepository.save(color);
+        }
+        // Cached person JSON embeds the old color name and would never be served again
+        personJsonCache.invalidateAll();
+        personColumnarSnapshot.renameColor(id, updatedColor.getName());
+        colorSearchCoalescer.invalidate();
         logger.info("Color with ID {} updated successfully", id);
-        return updatedColor;
+        return ServiceResult.ok(updatedColor);
+    }
+
+    /**
+     * Renames a color on every shard. Every shard commits on its own, so if one of them refuses the
+     * new name, the previous name is restored on the shards that already have it.
+     */
+    private ServiceResult<Void> renameOnEveryShard(Color color, String previousName) {
+        List<RuntimeException> failures = shardRouter.mapShards(shard -> {
+            try {
+                colorJpaRepository.save(color);
+                return null;
+            } catch (RuntimeException e) {
+                logger.warn("Could not rename color with ID {} on shard {}", color.getId(), shard, e);
+                return e;
+            }
+        });
+        RuntimeException failure = failures.stream().filter(Objects::nonNull).findFirst().orElse(null);
+        if (failure == null) {
+            return ServiceResult.ok();
+        }
+        shardRouter.mapShards(shard -> failures.get(shard) == null
+                ? colorJpaRepository.save(new Color(color.getId(), previousName)) : null);
+        // Another color with the new name on one of the shards is a conflict, anything else a real error
+        if (failure instanceof DataIntegrityViolationException) {
+            return ServiceResult.conflict();
+        }
+        throw failure;
+    }
+
+    @Override
+    public ServiceResult<Void> deleteColor(Long id) {
+        return deleteColor(id, null);
     }
 
     @Override
-    public void deleteColor(Long id) {
-        logger.info("Deleting color with ID: {}", id);
+    @Transactional
+    public ServiceResult<Void> deleteColor(Long id, Long reassignToId) {
+        logger.info("Deleting color with ID: {} (reassigning persons to: {})", id, reassignToId);
+        if (colorsReadOnly) {
+            return ServiceResult.readOnly();
+        }
         
-        // Check if color exists
-        Optional<Color> existingColor = colorJpaRepository.findById(id);
-        if (existingColor.isEmpty()) {
-            logger.warn("Color with ID {} not found for deletion", id);
-            throw new IllegalArgumentException("Color with ID " + id + " not found");
+        if (reassignToId != null) {
+            ServiceResult<Integer> reassigned = reassignColor(id, reassignToId);
+            if (!reassigned.isOk()) {
+                return reassigned.failure();
+            }
+        }
+        
+        if (shardRouter.shardCount() > 1) {
+            return deleteFromEveryShard(id);
         }
         
-        // Check if color is being used by any persons
-        // Note: This would require a method in PersonJpaRepository to check for color usage
-        // For now, we'll allow deletion and let the database handle foreign key constraints
+        // Persons still referencing the color make the DELETE fail on the foreign key
+        int deleted;
+        try {
+            deleted = colorJpaRepository.removeById(id);
+        } catch (DataIntegrityViolationException e) {
+            logger.warn("Color with ID {} is still used by persons", id);
+            return rollBack(ServiceResult.conflict());
+        }
+        if (deleted == 0) {
+            logger.warn("Color with ID {} not found for deletion", id);
+            return rollBack(ServiceResult.notFound());
+        }
+        logger.info("Color with ID {} deleted successfully", id);
+        return ServiceResult.ok();
+    }
+
+    /**
+     * Deletes a color from every shard. Every shard commits on its own, so if one of them still has
+     * persons with the color, the color is inserted again on the shards it was already deleted from.
+     */
+    private ServiceResult<Void> deleteFromEveryShard(Long id) {
+        Optional<Color> color = colorJpaRepository.findById(id);
+        if (color.isEmpty()) {
+            logger.warn("Color with ID {} not found for deletion", id);
+            return ServiceResult.notFound();
+        }
+        // Checked up front so the usual conflict needs no compensation
+        if (shardRouter.onEveryShard(() -> personJpaRepository.existsByColorId(id)).contains(Boolean.TRUE)) {
+            logger.warn("Color with ID {} is still used by persons", id);
+            return ServiceResult.conflict();
+        }
         
-        colorJpaRepository.deleteById(id);
+        // A person created with the color after the check still makes the DELETE fail on that shard
+        List<Boolean> deleted = shardRouter.onEveryShard(() -> {
+            try {
+                return colorJpaRepository.removeById(id) > 0;
+            } catch (DataIntegrityViolationException e) {
+                return null;
+            }
+        });
+        if (deleted.contains(null)) {
+            shardRouter.mapShards(shard -> Boolean.TRUE.equals(deleted.get(shard))
+                    ? colorJpaRepository.insertWithId(id, color.get().getName()) : 0);
+            logger.warn("Color with ID {} is still used by persons", id);
+            return ServiceResult.conflict();
+        }
         logger.info("Color with ID {} deleted successfully", id);
+        return ServiceResult.ok();
+    }
+
+    @Override
+    @Transactional
+    public ServiceResult<Integer> reassignColor(Long id, Long targetId) {
+        logger.info("Reassigning persons from color with ID: {} to color with ID: {}", id, targetId);
+        
+        // The CSV source would never correct the rows, their records in the file did not change
+        if (personsReadOnly || colorsReadOnly) {
+            return ServiceResult.readOnly();
+        }
+        if (id.equals(targetId)) {
+            logger.warn("Cannot reassign color with ID {} to itself", id);
+            return ServiceResult.invalid();
+        }
+        if (!colorJpaRepository.existsById(id)) {
+            logger.warn("Color with ID {} not found for reassignment", id);
+            return ServiceResult.notFound();
+        }
+        if (!colorJpaRepository.existsById(targetId)) {
+            logger.warn("Target color with ID {} not found for reassignment", targetId);
+            return ServiceResult.notFound();
+        }
+        
+        int reassigned = shardRouter.onEveryShard(() -> personJpaRepository.reassignColor(id, targetId))
+                .stream().mapToInt(Integer::intValue).sum();
+        afterCompletion(id, targetId);
+        logger.info("Reassigned {} persons from color with ID {} to color with ID {}", reassigned, id, targetId);
+        return ServiceResult.ok(reassigned);
+    }
+
+    /**
+     * Moves the persons in the shared index and snapshot once the reassignment is committed. Until then
+     * other requests must not see it, and a rollback, e.g. because deleting the color afterwards failed,
+     * must not leave it behind; after a rollback both are rebuilt, as shards may have committed on their own.
+     */
+    private void afterCompletion(Long id, Long targetId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            moveInMemory(id, targetId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    moveInMemory(id, targetId);
+                } else {
+                    personColorIndex.invalidate();
+                    personColumnarSnapshot.invalidate();
+                    colorSearchCoalescer.invalidate();
+                }
+            }
+        });
+    }
+
+    private void moveInMemory(Long id, Long targetId) {
+        personColorIndex.reassign(id, targetId);
+        personColumnarSnapshot.reassign(id, targetId);
+        colorSearchCoalescer.invalidate();
+    }
+
+    // Without an exception the transaction would commit whatever was written before the failed step
+    private static <T> ServiceResult<T> rollBack(ServiceResult<T> result) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+        }
+        return result;
     }
 }
@@ -0,0 +1,186 @@
+package com.assecor.assessment.service.impl;
+
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonField;
+import com.assecor.assessment.model.PersonFilter;
+import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.repository.MappedCsvPersonRepository;
+import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.ServiceResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Read-only implementation of PersonService for edge deployments.
+ * Persons are served from a {@link MappedCsvPersonRepository}, so none of the database caches are involved;
+ * every write is refused as {@link ServiceResult#readOnly()}.
+ */
+public class MappedCsvPersonServiceImpl implements PersonService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedCsvPersonServiceImpl.class);
+
+    private final MappedCsvPersonRepository mappedCsvPersonRepository;
+    private final ColorJpaRepository colorJpaRepository;
+    private final Counter personRetrievalCounter;
+    private final Counter colorSearchCounter;
+
+    public MappedCsvPersonServiceImpl(MappedCsvPersonRepository mappedCsvPersonRepository,
+                                      ColorJpaRepository colorJpaRepository, MeterRegistry meterRegistry) {
+        this.mappedCsvPersonRepository = mappedCsvPersonRepository;
+        this.colorJpaRepository = colorJpaRepository;
+        this.personRetrievalCounter = Counter.builder("person.retrieval.total")
+                .description("Total number of person retrieval operations")
+                .register(meterRegistry);
+        this.colorSearchCounter = Counter.builder("person.color.search.total")
+                .description("Total number of color-based person searches")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public List<Person> getAllPersons() {
+        logger.debug("Retrieving all persons from mapped CSV");
+        personRetrievalCounter.increment();
+        return mappedCsvPersonRepository.findAll();
+    }
+
+    @Override
+    public Optional<Person> getPersonById(int id) {
+        logger.debug("Retrieving person with ID: {} from mapped CSV", id);
+        personRetrievalCounter.increment();
+        return mappedCsvPersonRepository.findById(id);
+    }
+
+    @Override
+    public Map<Long, Person> getPersonsByIds(Collection<Long> ids) {
+        logger.debug("Retrieving {} persons by ID from mapped CSV", ids.size());
+        personRetrievalCounter.increment();
+        Map<Long, Person> persons = new HashMap<>();
+        for (Person person : mappedCsvPersonRepository.findAllById(ids)) {
+            persons.put(person.getId(), person);
+        }
+        return persons;
+    }
+
+    @Override
+    public List<Person> getPersonsByColor(String color) {
+        logger.debug("Retrieving persons with color: {} from mapped CSV", color);
+        colorSearchCounter.increment();
+        return mappedCsvPersonRepository.findByColorNameIgnoreCase(color);
+    }
+
+    @Override
+    public List<Person> getPersonsByColors(Collection<String> colors, Collection<String> excludedColors) {
+        logger.debug("Retrieving persons with colors: {} excluding: {} from mapped CSV", colors, excludedColors);
+        colorSearchCounter.increment();
+        Set<Long> colorIds = new HashSet<>();
+        if (colors.isEmpty()) {
+            colorJpaRepository.findAll().forEach(color -> colorIds.add(color.getId()));
+        } else {
+            for (String colorName : colors) {
+                colorJpaRepository.findByNameIgnoreCase(colorName).ifPresent(color -> colorIds.add(color.getId()));
+            }
+        }
+        for (String colorName : excludedColors) {
+            colorJpaRepository.findByNameIgnoreCase(colorName).ifPresent(color -> colorIds.remove(color.getId()));
+        }
+        return mappedCsvPersonRepository.findByColorIdIn(colorIds);
+    }
+
+    @Override
+    public List<Person> queryPersons(PersonFilter filter) {
+        logger.debug("Querying persons with filter: {} from mapped CSV", filter);
+        personRetrievalCounter.increment();
+        List<Person> candidates = filter.color() != null
+                ? mappedCsvPersonRepository.findByColorNameIgnoreCase(filter.color())
+                : mappedCsvPersonRepository.findAll();
+        List<Person> persons = new ArrayList<>();
+        for (Person person : candidates) {
+            if (matches(person, filter)) {
+                persons.add(person);
+            }
+        }
+        return persons;
+    }
+
+    private static boolean matches(Person person, PersonFilter filter) {
+        return (filter.name() == null || person.getName().equalsIgnoreCase(filter.name()))
+                && (filter.lastname() == null || person.getLastname().equalsIgnoreCase(filter.lastname()))
+                && (filter.city() == null || person.getCity().equalsIgnoreCase(filter.city()))
+                && (filter.zipPrefix() == null || person.getZipcode().startsWith(filter.zipPrefix()));
+    }
+
+    @Override
+    public List<Map<String, Object>> getAllPersonFields(Set<PersonField> fields) {
+        return project(getAllPersons(), fields);
+    }
+
+    @Override
+    public Optional<Map<String, Object>> getPersonFieldsById(int id, Set<PersonField> fields) {
+        return getPersonById(id).map(person -> project(person, fields));
+    }
+
+    @Override
+    public List<Map<String, Object>> getPersonFieldsByColor(String color, Set<PersonField> fields) {
+        return project(getPersonsByColor(color), fields);
+    }
+
+    private static List<Map<String, Object>> project(List<Person> persons, Set<PersonField> fields) {
+        List<Map<String, Object>> rows = new ArrayList<>(persons.size());
+        for (Person person : persons) {
+            rows.add(project(person, fields));
+        }
+        return rows;
+    }
+
+    private static Map<String, Object> project(Person person, Set<PersonField> fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (PersonField field : fields) {
+            row.put(field.getJsonName(), switch (field) {
+                case ID -> person.getId();
+                case NAME -> person.getName();
+                case LASTNAME -> person.getLastname();
+                case ZIPCODE -> person.getZipcode();
+                case CITY -> person.getCity();
+                case COLOR -> person.getColor().getName();
+            });
+        }
+        return row;
+    }
+
+    @Override
+    public ServiceResult<Person> createPerson(Person person) {
+        return ServiceResult.readOnly();
+    }
+
+    @Override
+    public ServiceResult<Person> updatePerson(int id, Person person) {
+        return ServiceResult.readOnly();
+    }
+
+    @Override
+    public ServiceResult<Long> patchPerson(int id, Person changes, Long expectedVersion) {
+        return ServiceResult.readOnly();
+    }
+
+    @Override
+    public ServiceResult<Void> deletePerson(int id) {
+        return ServiceResult.readOnly();
+    }
+
+    @Override
+    public ServiceResult<Integer> deletePersons(String color, String zipPrefix) {
+        return ServiceResult.readOnly();
+    }
+}
@@ -0,0 +1,213 @@
+package com.assecor.assessment.service.impl;
+
+import com.assecor.assessment.datasource.ReadRoute;
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import com.assecor.assessment.tracing.Tracing;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Collects concurrent single-person lookups and answers them with one IN query per batch.
+ * A batch is dispatched when the window after its first lookup has passed or when it reaches
+ * the maximum size, whichever comes first. Callers block until their batch is loaded, but no
+ * longer than the timeout, so a batch that is never dispatched cannot hang its requests.
+ * A window of zero disables batching and every lookup queries on its own.
+ */
+@Component
+public class PersonLookupBatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonLookupBatcher.class);
+
+    private record PendingLookup(CompletableFuture<Optional<Person>> future, long enqueuedNanos) {
+    }
+
+    private final PersonJpaRepository personJpaRepository;
+    private final ShardRouter shardRouter;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final long timeoutNanos;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService loaders;
+    private final DistributionSummary batchSizeSummary;
+    private final Timer waitTimer;
+    private final Object lock = new Object();
+    private Map<Long, List<PendingLookup>> pending = new HashMap<>();
+    private ScheduledFuture<?> scheduledFlush;
+
+    public PersonLookupBatcher(PersonJpaRepository personJpaRepository, ShardRouter shardRouter,
+                               @Value("${person.lookup.batch.window:1ms}") Duration window,
+                               @Value("${person.lookup.batch.max-size:64}") int maxBatchSize,
+                               @Value("${person.lookup.batch.timeout:5s}") Duration timeout,
+                               MeterRegistry meterRegistry) {
+        this.personJpaRepository = personJpaRepository;
+        this.shardRouter = shardRouter;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.timeoutNanos = timeout.toNanos();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("person-lookup-batcher").daemon().factory());
+        this.loaders = Executors.newVirtualThreadPerTaskExecutor();
+        this.batchSizeSummary = DistributionSummary.builder("person.lookup.batch.size")
+                .description("Number of distinct person IDs loaded per batch")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("person.lookup.batch.wait")
+                .description("Time a lookup waited for its batch to be dispatched")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load a person, sharing the query with concurrent lookups.
+     *
+     * @param id the person ID
+     * @return Optional containing the person if found, empty otherwise
+     */
+    public Optional<Person> load(long id) {
+        if (windowNanos <= 0) {
+            return shardRouter.onShard(shardRouter.shardFor(id),
+                    () -> ReadRoute.onReplica(() -> personJpaRepository.findById(id)));
+        }
+
+        CompletableFuture<Optional<Person>> future = new CompletableFuture<>();
+        Map<Long, List<PendingLookup>> fullBatch = null;
+        synchronized (lock) {
+            pending.computeIfAbsent(id, key -> new ArrayList<>(1)).add(new PendingLookup(future, System.nanoTime()));
+            if (pending.size() >= maxBatchSize) {
+                fullBatch = takePending();
+            } else if (scheduledFlush == null) {
+                try {
+                    scheduledFlush = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    // Shutting down, nobody will flush the batch, so dispatch it right away
+                    fullBatch = takePending();
+                }
+            }
+        }
+        if (fullBatch != null) {
+            dispatch(fullBatch);
+        }
+
+        try {
+            return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Batched lookup of person " + id + " failed", e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(false);
+            throw new QueryTimeoutException("Batched lookup of person " + id + " timed out", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for person " + id, e);
+        }
+    }
+
+    private void flush() {
+        Map<Long, List<PendingLookup>> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    // Must be called while holding the lock
+    private Map<Long, List<PendingLookup>> takePending() {
+        Map<Long, List<PendingLookup>> batch = pending;
+        pending = new HashMap<>();
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(Map<Long, List<PendingLookup>> batch) {
+        long dispatchedNanos = System.nanoTime();
+        batchSizeSummary.record(batch.size());
+        for (List<PendingLookup> lookups : batch.values()) {
+            for (PendingLookup lookup : lookups) {
+                waitTimer.record(dispatchedNanos - lookup.enqueuedNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+
+        // A batch serves several requests; its query is traced in the request that filled it, if any
+        try {
+            loaders.execute(Tracing.wrap(() -> {
+                try {
+                    Map<Long, Person> found = new HashMap<>();
+                    for (Person person : loadBatch(batch.keySet())) {
+                        found.put(person.getId(), person);
+                    }
+                    logger.debug("Loaded {} of {} batched person IDs", found.size(), batch.size());
+                    batch.forEach((id, lookups) -> {
+                        Optional<Person> person = Optional.ofNullable(found.get(id));
+                        lookups.forEach(lookup -> lookup.future().complete(person));
+                    });
+                } catch (RuntimeException e) {
+                    logger.error("Batched lookup of {} persons failed", batch.size(), e);
+                    fail(batch, e);
+                }
+            }));
+        } catch (RuntimeException e) {
+            logger.error("Dispatching batched lookup of {} persons failed", batch.size(), e);
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(Map<Long, List<PendingLookup>> batch, RuntimeException e) {
+        batch.values().forEach(lookups -> lookups.forEach(lookup -> lookup.future().completeExceptionally(e)));
+    }
+
+    private List<Person> loadBatch(Set<Long> ids) {
+        if (shardRouter.shardCount() == 1) {
+            return ReadRoute.onReplica(() -> personJpaRepository.findAllWithColorByIdIn(ids));
+        }
+        // A batch mixes IDs of all shards, so every shard gets its own IN query in parallel
+        List<List<Long>> idsByShard = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            idsByShard.add(new ArrayList<>());
+        }
+        ids.forEach(id -> idsByShard.get(shardRouter.shardFor(id)).add(id));
+        List<Person> persons = new ArrayList<>(ids.size());
+        shardRouter.mapShards(shard -> idsByShard.get(shard).isEmpty()
+                ? List.<Person>of()
+                : personJpaRepository.findAllWithColorByIdIn(idsByShard.get(shard))).forEach(persons::addAll);
+        return persons;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        loaders.shutdown();
+    }
+}
@@ -1,39 +1,82 @@
 package com.assecor.assessment.service.impl;
 
+import com.assecor.assessment.cache.PersonColorIndex;
+import com.assecor.assessment.cache.PersonColumnarSnapshot;
+import com.assecor.assessment.cache.PersonJsonCache;
+import com.assecor.assessment.datasource.ReadRoute;
+import com.assecor.assessment.datasource.ShardRouter;
 import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonField;
+import com.assecor.assessment.model.PersonFilter;
 import com.assecor.assessment.model.Color;
 import com.assecor.assessment.repository.PersonJpaRepository;
 import com.assecor.assessment.repository.ColorJpaRepository;
 import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.ServiceResult;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Implementation of PersonService.
  * Contains business logic for managing Person entities.
+ * Replaced by {@link MappedCsvPersonServiceImpl} when persons are served from a mapped CSV file.
+ * While the CSV source is enabled the file is the only writer, so writes are refused as read-only.
  */
 @Service
+@ConditionalOnProperty(prefix = "mapped-csv", name = "enabled", havingValue = "false", matchIfMissing = true)
 public class PersonServiceImpl implements PersonService {
 
     private static final Logger logger = LoggerFactory.getLogger(PersonServiceImpl.class);
+    private static final int BULK_DELETE_CHUNK_SIZE = 500;
+    private static final int IN_CLAUSE_CHUNK_SIZE = 500;
     
     private final PersonJpaRepository personJpaRepository;
     private final ColorJpaRepository colorJpaRepository;
+    private final PersonJsonCache personJsonCache;
+    private final PersonColorIndex personColorIndex;
+    private final PersonColumnarSnapshot personColumnarSnapshot;
+    private final PersonLookupBatcher personLookupBatcher;
+    private final ColorSearchCoalescer colorSearchCoalescer;
+    private final ShardRouter shardRouter;
+    private final boolean readOnly;
     private final Counter personRetrievalCounter;
     private final Counter personCreationCounter;
     private final Counter personUpdateCounter;
     private final Counter personDeletionCounter;
     private final Counter colorSearchCounter;
 
-    public PersonServiceImpl(PersonJpaRepository personJpaRepository, ColorJpaRepository colorJpaRepository, MeterRegistry meterRegistry) {
+    public PersonServiceImpl(PersonJpaRepository personJpaRepository, ColorJpaRepository colorJpaRepository,
+                             PersonJsonCache personJsonCache, PersonColorIndex personColorIndex,
+                             PersonColumnarSnapshot personColumnarSnapshot,
+                             PersonLookupBatcher personLookupBatcher, ColorSearchCoalescer colorSearchCoalescer,
+                             ShardRouter shardRouter, @Value("${csv-source.enabled:false}") boolean readOnly,
+                             MeterRegistry meterRegistry) {
         this.personJpaRepository = personJpaRepository;
         this.colorJpaRepository = colorJpaRepository;
+        this.personJsonCache = personJsonCache;
+        this.personColorIndex = personColorIndex;
+        this.personColumnarSnapshot = personColumnarSnapshot;
+        this.personLookupBatcher = personLookupBatcher;
+        this.colorSearchCoalescer = colorSearchCoalescer;
+        this.shardRouter = shardRouter;
+        this.readOnly = readOnly;
         this.personRetrievalCounter = Counter.builder("person.retrieval.total")
                 .description("Total number of person retrieval operations")
                 .register(meterRegistry);
@@ -52,19 +95,23 @@ public class PersonServiceImpl implements PersonService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<Person> getAllPersons() {
         logger.debug("Retrieving all persons from service layer");
         personRetrievalCounter.increment();
-        List<Person> persons = personJpaRepository.findAll();
+        List<Person> persons = mergeById(shardRouter.onEveryShard(() -> ReadRoute.onReplica(personJpaRepository::findAll)));
         logger.debug("Found {} persons", persons.size());
         return persons;
     }
 
+    // No transaction here: the query runs on the batcher's thread in the repository's read-only
+    // transaction, and one opened here would only hold a second connection while waiting for it
     @Override
     public Optional<Person> getPersonById(int id) {
         logger.debug("Retrieving person with ID: {} from service layer", id);
         personRetrievalCounter.increment();
-        Optional<Person> person = personJpaRepository.findById((long) id);
+        // Concurrent lookups share one IN query
+        Optional<Person> person = personLookupBatcher.load(id);
         if (person.isPresent()) {
             logger.debug("Person found: {}", person.get());
         } else {
@@ -73,72 +120,339 @@ public class PersonServiceImpl implements PersonService {
         return person;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Person> getPersonsByIds(Collection<Long> ids) {
+        logger.debug("Retrieving {} persons by ID from service layer", ids.size());
+        personRetrievalCounter.increment();
+        
+        Map<Long, Person> persons = new HashMap<>();
+        for (Person person : findAllWithColorByIds(ids)) {
+            persons.put(person.getId(), person);
+        }
+        logger.debug("Found {} of {} requested persons", persons.size(), ids.size());
+        return persons;
+    }
+
+    // No transaction here either, coalesced callers wait for the query of another thread
     @Override
     public List<Person> getPersonsByColor(String color) {
         logger.debug("Retrieving persons with color: {} from service layer", color);
         colorSearchCounter.increment();
-        List<Person> persons = personJpaRepository.findByColorNameIgnoreCase(color);
+        // Identical searches running at the same time share one query
+        List<Person> persons = colorSearchCoalescer.search(color,
+                () -> mergeById(shardRouter.onEveryShard(
+                        () -> ReadRoute.onReplica(() -> personJpaRepository.findByColorNameIgnoreCase(color)))));
         logger.debug("Found {} persons with color {}", persons.size(), color);
         return persons;
     }
 
     @Override
-    public Person createPerson(Person person) {
+    @Transactional(readOnly = true)
+    public List<Person> getPersonsByColors(Collection<String> colors, Collection<String> excludedColors) {
+        logger.debug("Retrieving persons with colors: {} excluding: {} from service layer", colors, excludedColors);
+        colorSearchCounter.increment();
+        
+        List<Long> includedColorIds = resolveColorIds(colors);
+        if (!colors.isEmpty() && includedColorIds.isEmpty()) {
+            logger.debug("None of the colors {} exist", colors);
+            return List.of();
+        }
+        BitSet ids = personColorIndex.find(includedColorIds, resolveColorIds(excludedColors));
+        
+        List<Long> idList = new ArrayList<>(ids.cardinality());
+        for (int id = ids.nextSetBit(0); id >= 0; id = ids.nextSetBit(id + 1)) {
+            idList.add((long) id);
+        }
+        List<Person> persons = new ArrayList<>(findAllWithColorByIds(idList));
+        persons.sort(Comparator.comparing(Person::getId));
+        logger.debug("Found {} persons with colors {} excluding {}", persons.size(), colors, excludedColors);
+        return persons;
+    }
+
+    private List<Long> resolveColorIds(Collection<String> colorNames) {
+        List<Long> colorIds = new ArrayList<>(colorNames.size());
+        for (String colorName : colorNames) {
+            colorJpaRepository.findByNameIgnoreCase(colorName).ifPresent(color -> colorIds.add(color.getId()));
+        }
+        return colorIds;
+    }
+
+    private List<Person> findAllWithColorByIds(Collection<Long> ids) {
+        if (shardRouter.shardCount() == 1) {
+            return findAllWithColorInChunks(new ArrayList<>(ids));
+        }
+        List<List<Long>> idsByShard = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            idsByShard.add(new ArrayList<>());
+        }
+        for (Long id : ids) {
+            idsByShard.get(shardRouter.shardFor(id)).add(id);
+        }
+        List<Person> persons = new ArrayList<>(ids.size());
+        shardRouter.mapShards(shard -> findAllWithColorInChunks(idsByShard.get(shard))).forEach(persons::addAll);
+        return persons;
+    }
+
+    // Large lists are split so the IN clause stays within sane parameter counts
+    private List<Person> findAllWithColorInChunks(List<Long> ids) {
+        List<Person> persons = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += IN_CLAUSE_CHUNK_SIZE) {
+            persons.addAll(personJpaRepository.findAllWithColorByIdIn(
+                    ids.subList(from, Math.min(from + IN_CLAUSE_CHUNK_SIZE, ids.size()))));
+        }
+        return persons;
+    }
+
+    private List<Person> mergeById(List<List<Person>> personsByShard) {
+        if (personsByShard.size() == 1) {
+            return personsByShard.get(0);
+        }
+        List<Person> merged = new ArrayList<>();
+        personsByShard.forEach(merged::addAll);
+        merged.sort(Comparator.comparing(Person::getId));
+        return merged;
+    }
+
+    // Merged like mergeById, so the ID is fetched for sorting even if it was not requested
+    private List<Map<String, Object>> findFieldsOnEveryShard(Set<PersonField> fields, String colorName) {
+        if (shardRouter.shardCount() == 1) {
+            return personJpaRepository.findFields(fields, null, colorName);
+        }
+        Set<PersonField> fieldsWithId = EnumSet.noneOf(PersonField.class);
+        fieldsWithId.addAll(fields);
+        fieldsWithId.add(PersonField.ID);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        shardRouter.onEveryShard(() -> personJpaRepository.findFields(fieldsWithId, null, colorName)).forEach(rows::addAll);
+        String id = PersonField.ID.getJsonName();
+        rows.sort(Comparator.comparingLong(row -> (Long) row.get(id)));
+        if (!fields.contains(PersonField.ID)) {
+            rows.forEach(row -> row.remove(id));
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Person> queryPersons(PersonFilter filter) {
+        logger.debug("Querying persons with filter: {} from service layer", filter);
+        personRetrievalCounter.increment();
+        List<Person> persons = personColumnarSnapshot.query(filter);
+        logger.debug("Found {} persons matching {}", persons.size(), filter);
+        return persons;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getAllPersonFields(Set<PersonField> fields) {
+        logger.debug("Retrieving fields {} of all persons from service layer", fields);
+        personRetrievalCounter.increment();
+        List<Map<String, Object>> persons = findFieldsOnEveryShard(fields, null);
+        logger.debug("Found {} persons", persons.size());
+        return persons;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getPersonFieldsById(int id, Set<PersonField> fields) {
+        logger.debug("Retrieving fields {} of person with ID: {} from service layer", fields, id);
+        personRetrievalCounter.increment();
+        List<Map<String, Object>> persons = shardRouter.onShard(shardRouter.shardFor(id),
+                () -> personJpaRepository.findFields(fields, (long) id, null));
+        if (persons.isEmpty()) {
+            logger.debug("Person with ID {} not found", id);
+            return Optional.empty();
+        }
+        return Optional.of(persons.get(0));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getPersonFieldsByColor(String color, Set<PersonField> fields) {
+        logger.debug("Retrieving fields {} of persons with color: {} from service layer", fields, color);
+        colorSearchCounter.increment();
+        List<Map<String, Object>> persons = findFieldsOnEveryShard(fields, color);
+        logger.debug("Found {} persons with color {}", persons.size(), color);
+        return persons;
+    }
+
+    @Override
+    public ServiceResult<Person> createPerson(Person person) {
         logger.debug("Creating new person: {}", person);
+        // CSV source IDs are line numbers; a created person would be overwritten once the file grows
+        if (readOnly) {
+            return ServiceResult.readOnly();
+        }
         personCreationCounter.increment();
         
-        // If person has a color with only name, find the Color entity
-        if (person.getColor() != null && person.getColor().getId() == null) {
-            Color existingColor = colorJpaRepository.findByNameIgnoreCase(person.getColor().getName())
-                    .orElseThrow(() -> new IllegalArgumentException("Color '" + person.getColor().getName() + "' not found"));
-            person.setColor(existingColor);
+        // Colors exist with the same ID on every shard, so any shard can resolve the name
+        if (!resolveColor(person)) {
+            return ServiceResult.invalid();
         }
-        
-        Person savedPerson = personJpaRepository.save(person);
+        // The shard's identity column allocates an ID that routes back to it
+        Person savedPerson = shardRouter.onShard(shardRouter.nextShardForInsert(), () -> personJpaRepository.save(person));
+        personColorIndex.put(savedPerson.getId(), savedPerson.getColor().getId());
+        personColumnarSnapshot.put(savedPerson);
+        colorSearchCoalescer.invalidate();
         logger.info("Person created successfully with ID: {}", savedPerson.getId());
-        return savedPerson;
+        return ServiceResult.ok(savedPerson);
+    }
+
+    // If the person has a color with only a name, find the Color entity; false if there is none
+    private boolean resolveColor(Person person) {
+        if (person.getColor() == null || person.getColor().getId() != null) {
+            return true;
+        }
+        Optional<Color> existingColor = colorJpaRepository.findByNameIgnoreCase(person.getColor().getName());
+        if (existingColor.isEmpty()) {
+            logger.warn("Color '{}' not found", person.getColor().getName());
+            return false;
+        }
+        person.setColor(existingColor.get());
+        return true;
     }
 
     @Override
-    public Optional<Person> updatePerson(int id, Person person) {
+    public ServiceResult<Person> updatePerson(int id, Person person) {
         logger.debug("Updating person with ID: {} with data: {}", id, person);
+        if (readOnly) {
+            return ServiceResult.readOnly();
+        }
         personUpdateCounter.increment();
         
+        int shard = shardRouter.shardFor(id);
+        
         // Check if person exists
-        Optional<Person> existingPerson = personJpaRepository.findById((long) id);
+        Optional<Person> existingPerson = shardRouter.onShard(shard, () -> personJpaRepository.findById((long) id));
         if (existingPerson.isEmpty()) {
             logger.warn("Person with ID {} not found for update", id);
-            return Optional.empty();
+            return ServiceResult.notFound();
         }
         
-        // If person has a color with only name, find the Color entity
-        if (person.getColor() != null && person.getColor().getId() == null) {
-            Color existingColor = colorJpaRepository.findByNameIgnoreCase(person.getColor().getName())
-                    .orElseThrow(() -> new IllegalArgumentException("Color '" + person.getColor().getName() + "' not found"));
-            person.setColor(existingColor);
+        if (!resolveColor(person)) {
+            return ServiceResult.invalid();
         }
         
         // Update the person data
         person.setId((long) id); // Ensure the ID is set correctly
-        Person updatedPerson = personJpaRepository.save(person);
+        person.setVersion(existingPerson.get().getVersion()); // Merge must see the current version
+        Person updatedPerson = shardRouter.onShard(shard, () -> personJpaRepository.save(person));
+        personJsonCache.invalidate(id);
+        personColorIndex.put(id, updatedPerson.getColor().getId());
+        personColumnarSnapshot.put(updatedPerson);
+        colorSearchCoalescer.invalidate();
         logger.info("Person with ID {} updated successfully", id);
-        return Optional.of(updatedPerson);
+        return ServiceResult.ok(updatedPerson);
+    }
+
+    @Override
+    public ServiceResult<Long> patchPerson(int id, Person changes, Long expectedVersion) {
+        logger.debug("Patching person with ID: {} with data: {}", id, changes);
+        if (readOnly) {
+            return ServiceResult.readOnly();
+        }
+        personUpdateCounter.increment();
+        int shard = shardRouter.shardFor(id);
+        
+        if (changes.getName() == null && changes.getLastname() == null && changes.getZipcode() == null
+                && changes.getCity() == null && changes.getColor() == null) {
+            logger.debug("Empty patch for person with ID {}, nothing to write", id);
+            // Nothing changes, but a stale version must still be refused like for any other patch
+            Optional<Long> storedVersion = shardRouter.onShard(shard, () -> personJpaRepository.findById((long) id))
+                    .map(Person::getVersion);
+            if (storedVersion.isEmpty()) {
+                return ServiceResult.notFound();
+            }
+            if (expectedVersion != null && !expectedVersion.equals(storedVersion.get())) {
+                logger.warn("Version conflict while patching person with ID {}", id);
+                return ServiceResult.conflict();
+            }
+            return ServiceResult.ok(storedVersion.get());
+        }
+        
+        // The color is referenced by ID, so resolve the name only when it actually changes
+        if (!resolveColor(changes)) {
+            return ServiceResult.invalid();
+        }
+        
+        int updated = shardRouter.onShard(shard,
+                () -> personJpaRepository.updateChangedFields((long) id, changes, expectedVersion));
+        if (updated > 0) {
+            personJsonCache.invalidate(id);
+            if (changes.getColor() != null) {
+                personColorIndex.put(id, changes.getColor().getId());
+            }
+            personColumnarSnapshot.patch(id, changes);
+            colorSearchCoalescer.invalidate();
+            logger.info("Person with ID {} patched successfully", id);
+            // The update matched the expected version and incremented it; without one the new version is unknown
+            return ServiceResult.ok(expectedVersion != null ? expectedVersion + 1 : null);
+        }
+        
+        // Zero rows: either the person is gone or another writer bumped the version first
+        if (expectedVersion != null && shardRouter.onShard(shard, () -> personJpaRepository.existsById((long) id))) {
+            logger.warn("Version conflict while patching person with ID {}", id);
+            return ServiceResult.conflict();
+        }
+        logger.warn("Person with ID {} not found for patch", id);
+        return ServiceResult.notFound();
     }
 
     @Override
-    public boolean deletePerson(int id) {
+    public ServiceResult<Void> deletePerson(int id) {
         logger.debug("Deleting person with ID: {}", id);
+        if (readOnly) {
+            return ServiceResult.readOnly();
+        }
         personDeletionCounter.increment();
         
-        // Check if person exists
-        Optional<Person> existingPerson = personJpaRepository.findById((long) id);
-        if (existingPerson.isEmpty()) {
+        // The affected-row count tells us whether the person existed
+        int deleted = shardRouter.onShard(shardRouter.shardFor(id), () -> personJpaRepository.removeById((long) id));
+        if (deleted == 0) {
             logger.warn("Person with ID {} not found for deletion", id);
-            return false;
+            return ServiceResult.notFound();
         }
+        personJsonCache.invalidate(id);
+        personColorIndex.remove(id);
+        personColumnarSnapshot.remove(id);
+        colorSearchCoalescer.invalidate();
         
-        personJpaRepository.deleteById((long) id);
         logger.info("Person with ID {} deleted successfully", id);
-        return true;
+        return ServiceResult.ok();
+    }
+
+    @Override
+    public ServiceResult<Integer> deletePersons(String color, String zipPrefix) {
+        logger.debug("Deleting persons with color: {} and zipcode prefix: {}", color, zipPrefix);
+        if (readOnly) {
+            return ServiceResult.readOnly();
+        }
+        // A blank filter would match every person, so it counts as missing
+        String colorFilter = color == null || color.isBlank() ? null : color;
+        String zipPrefixFilter = zipPrefix == null || zipPrefix.isBlank() ? null : zipPrefix;
+        if (colorFilter == null && zipPrefixFilter == null) {
+            throw new IllegalArgumentException("At least one filter is required for bulk deletion");
+        }
+        
+        // Each chunk commits on its own so locks are held only briefly
+        int total = shardRouter.onEveryShard(() -> {
+            int shardTotal = 0;
+            int deleted;
+            do {
+                deleted = personJpaRepository.deleteChunkByFilter(colorFilter, zipPrefixFilter, BULK_DELETE_CHUNK_SIZE);
+                shardTotal += deleted;
+            } while (deleted == BULK_DELETE_CHUNK_SIZE);
+            return shardTotal;
+        }).stream().mapToInt(Integer::intValue).sum();
+        
+        // The deleted IDs are not known here, drop everything rather than keep dead entries
+        if (total > 0) {
+            personJsonCache.invalidateAll();
+            personColorIndex.invalidate();
+            personColumnarSnapshot.invalidate();
+            colorSearchCoalescer.invalidate();
+        }
+        personDeletionCounter.increment(total);
+        logger.info("Deleted {} persons with color: {} and zipcode prefix: {}", total, color, zipPrefix);
+        return ServiceResult.ok(total);
     }
 }
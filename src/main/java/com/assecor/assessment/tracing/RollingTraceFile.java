@@ -0,0 +1,127 @@
+package com.assecor.assessment.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends kept traces as JSON lines to a file, rolling it over to {@code <file>.1}, {@code <file>.2} and
+ * so on when it grows past the maximum size. Writing happens on a single background thread, so requests
+ * never wait for the disk; when the writer falls behind, traces are dropped rather than queued without bound.
+ */
+class RollingTraceFile implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(RollingTraceFile.class);
+    private static final int QUEUE_CAPACITY = 1024;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Path file;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final ExecutorService writer;
+    private final Counter droppedCounter;
+    private OutputStream out;
+    private long size;
+
+    RollingTraceFile(Path file, long maxFileSize, int maxFiles, MeterRegistry meterRegistry) {
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        this.droppedCounter = Counter.builder("tracing.file.dropped")
+                .description("Kept traces not written to the trace file because the writer fell behind")
+                .register(meterRegistry);
+        this.writer = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                Thread.ofPlatform().name("trace-writer").daemon().factory(),
+                (task, executor) -> droppedCounter.increment());
+    }
+
+    void append(TraceRecord trace) {
+        writer.execute(() -> write(trace));
+    }
+
+    private void write(TraceRecord trace) {
+        try {
+            byte[] line = objectMapper.writeValueAsBytes(trace);
+            if (out == null) {
+                open();
+            }
+            if (size > 0 && size + line.length + 1 > maxFileSize) {
+                roll();
+                open();
+            }
+            out.write(line);
+            out.write('\n');
+            size += line.length + 1;
+            // Only flush once the queue is drained, so bursts of slow requests are written in one go
+            if (((ThreadPoolExecutor) writer).getQueue().isEmpty()) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write trace {} to {}", trace.traceId(), file, e);
+        }
+    }
+
+    // An existing file is continued until it is full
+    private void open() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND));
+        size = Files.size(file);
+    }
+
+    private void roll() throws IOException {
+        out.close();
+        out = null;
+        for (int index = maxFiles - 1; index >= 1; index--) {
+            Path older = sibling(index);
+            if (Files.exists(older)) {
+                Files.move(older, sibling(index + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(file, sibling(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(file);
+        }
+    }
+
+    private Path sibling(int index) {
+        return file.resolveSibling(file.getFileName() + "." + index);
+    }
+
+    @Override
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warn("Trace writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                logger.warn("Could not close trace file {}", file, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.assecor.assessment.tracing;
+
+/**
+ * A timed operation within a trace, such as a service call or a SQL statement.
+ * Spans are only touched by the thread that started them; the trace publishes them once the request ends.
+ */
+final class Span {
+
+    final Trace trace;
+    final Span parent;
+    final int id;
+    final String layer;
+    final String component;
+    final String operation;
+    final long startNanos;
+    final long threadId;
+    final boolean virtualThread;
+    final boolean recorded;
+    long endNanos;
+    String error;
+
+    Span(Trace trace, Span parent, int id, String layer, String component, String operation, boolean recorded) {
+        this.trace = trace;
+        this.parent = parent;
+        this.id = id;
+        this.layer = layer;
+        this.component = component;
+        this.operation = operation;
+        this.recorded = recorded;
+        Thread thread = Thread.currentThread();
+        this.threadId = thread.threadId();
+        this.virtualThread = thread.isVirtual();
+        this.startNanos = System.nanoTime();
+    }
+
+    void fail(Throwable e) {
+        error = e.getClass().getSimpleName();
+    }
+
+    void end() {
+        endNanos = System.nanoTime();
+    }
+}
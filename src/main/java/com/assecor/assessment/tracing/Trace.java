@@ -0,0 +1,80 @@
+package com.assecor.assessment.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The spans of one request, rooted in the span opened by the {@link TracingFilter}.
+ * Spans may be added from the threads a request fans out to, so adding is synchronized;
+ * spans started after the root ended belong to abandoned work and are dropped.
+ */
+final class Trace {
+
+    private final String id = Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+    private final long startEpochMillis = System.currentTimeMillis();
+    private final int maxSpans;
+    private final List<Span> spans = new ArrayList<>();
+    private final Span root;
+    private int nextSpanId = 1;
+    private int droppedSpans;
+    private boolean finished;
+    private String name;
+
+    Trace(String name, int maxSpans) {
+        this.name = name;
+        this.maxSpans = maxSpans;
+        this.root = new Span(this, null, 0, "http", "http", name, true);
+        spans.add(root);
+    }
+
+    synchronized String name() {
+        return name;
+    }
+
+    /**
+     * Renames the trace once the request has been matched to an endpoint.
+     */
+    synchronized void rename(String name) {
+        this.name = name;
+    }
+
+    Span root() {
+        return root;
+    }
+
+    String id() {
+        return id;
+    }
+
+    long startEpochMillis() {
+        return startEpochMillis;
+    }
+
+    synchronized Span start(Span parent, String layer, String component, String operation) {
+        boolean recorded = !finished && spans.size() < maxSpans;
+        Span span = new Span(this, parent, nextSpanId++, layer, component, operation, recorded);
+        if (recorded) {
+            spans.add(span);
+        } else {
+            droppedSpans++;
+        }
+        return span;
+    }
+
+    /**
+     * Ends the root span; spans still running on other threads are reported without an end.
+     */
+    synchronized void finish() {
+        root.end();
+        finished = true;
+    }
+
+    synchronized List<Span> spans() {
+        return List.copyOf(spans);
+    }
+
+    synchronized int droppedSpans() {
+        return droppedSpans;
+    }
+}
@@ -0,0 +1,112 @@
+package com.assecor.assessment.tracing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides which finished traces are kept, after the fact: failed requests, requests slower than the
+ * threshold and a small baseline sample of the rest. Only kept traces are converted into
+ * {@link TraceRecord}s, remembered for {@code /actuator/traces} and appended to the trace file;
+ * the spans of all other requests are simply left to the garbage collector.
+ */
+public class TraceCollector implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TraceCollector.class);
+
+    private final long slowThresholdNanos;
+    private final double baselineRate;
+    private final int retained;
+    private final RollingTraceFile file;
+    private final Deque<TraceRecord> recent = new ArrayDeque<>();
+    private final Counter errorCounter;
+    private final Counter slowCounter;
+    private final Counter baselineCounter;
+    private final Counter discardedCounter;
+
+    public TraceCollector(TracingProperties properties, MeterRegistry meterRegistry) {
+        this.slowThresholdNanos = properties.slowThreshold().toNanos();
+        this.baselineRate = properties.baselineRate();
+        this.retained = properties.retained();
+        this.file = properties.file() != null
+                ? new RollingTraceFile(properties.file(), properties.maxFileSize().toBytes(), properties.maxFiles(), meterRegistry)
+                : null;
+        this.errorCounter = counter(meterRegistry, "error");
+        this.slowCounter = counter(meterRegistry, "slow");
+        this.baselineCounter = counter(meterRegistry, "baseline");
+        this.discardedCounter = counter(meterRegistry, "discarded");
+    }
+
+    /**
+     * Takes a finished trace and keeps it if it is worth keeping.
+     *
+     * @param status the response status
+     * @param error the exception that escaped the request, or null
+     */
+    void complete(Trace trace, int status, Throwable error) {
+        Span root = trace.root();
+        String reason;
+        if (error != null || status >= 500) {
+            reason = "error";
+            errorCounter.increment();
+        } else if (root.endNanos - root.startNanos >= slowThresholdNanos) {
+            reason = "slow";
+            slowCounter.increment();
+        } else if (baselineRate > 0 && ThreadLocalRandom.current().nextDouble() < baselineRate) {
+            reason = "baseline";
+            baselineCounter.increment();
+        } else {
+            discardedCounter.increment();
+            return;
+        }
+
+        TraceRecord record = TraceRecord.of(trace, status, error != null ? error.getClass().getSimpleName() : null, reason);
+        logger.debug("Keeping {} trace {} of {} ({} ms)", reason, record.traceId(), record.name(), record.durationMs());
+        synchronized (recent) {
+            recent.addFirst(record);
+            if (recent.size() > retained) {
+                recent.removeLast();
+            }
+        }
+        if (file != null) {
+            file.append(record);
+        }
+    }
+
+    /**
+     * @return the kept traces, most recent first
+     */
+    public List<TraceRecord> recent() {
+        synchronized (recent) {
+            return List.copyOf(recent);
+        }
+    }
+
+    public Optional<TraceRecord> find(String traceId) {
+        synchronized (recent) {
+            return recent.stream().filter(trace -> trace.traceId().equals(traceId)).findFirst();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (file != null) {
+            file.close();
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("tracing.traces")
+                .description("Finished traces by sampling outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,67 @@
+package com.assecor.assessment.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A kept trace as served by {@code /actuator/traces} and written to the trace file.
+ * Times are milliseconds; span starts are relative to the start of the request.
+ */
+public record TraceRecord(
+        String traceId,
+        String name,
+        long startEpochMillis,
+        double durationMs,
+        int status,
+        String error,
+        String reason,
+        int droppedSpans,
+        List<SpanRecord> spans) {
+
+    private static final int MAX_OPERATION_LENGTH = 500;
+
+    /**
+     * @param parentId ID of the enclosing span, -1 for the root
+     * @param durationMs time until the span ended, or -1 if it was still running when the request ended
+     * @param thread the thread the span ran on, prefixed with {@code virtual-} for virtual threads
+     */
+    public record SpanRecord(
+            int id,
+            int parentId,
+            String layer,
+            String name,
+            double startMs,
+            double durationMs,
+            String thread,
+            String error) {
+    }
+
+    static TraceRecord of(Trace trace, int status, String error, String reason) {
+        Span root = trace.root();
+        List<Span> spans = trace.spans();
+        List<SpanRecord> records = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            records.add(new SpanRecord(
+                    span.id,
+                    span.parent != null ? span.parent.id : -1,
+                    span.layer,
+                    span == root ? trace.name() : name(span),
+                    millis(span.startNanos - root.startNanos),
+                    span.endNanos != 0 ? millis(span.endNanos - span.startNanos) : -1,
+                    (span.virtualThread ? "virtual-" : "thread-") + span.threadId,
+                    span.error));
+        }
+        return new TraceRecord(trace.id(), trace.name(), trace.startEpochMillis(),
+                millis(root.endNanos - root.startNanos), status, error, reason, trace.droppedSpans(), records);
+    }
+
+    // Names are only assembled for kept traces; SQL text is cut short
+    private static String name(Span span) {
+        String name = span.component.equals(span.layer) ? span.operation : span.component + "." + span.operation;
+        return name.length() > MAX_OPERATION_LENGTH ? name.substring(0, MAX_OPERATION_LENGTH) + "…" : name;
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000d;
+    }
+}
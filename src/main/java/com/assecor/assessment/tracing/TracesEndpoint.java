@@ -0,0 +1,31 @@
+package com.assecor.assessment.tracing;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint serving the kept traces at {@code /actuator/traces}, most recent first,
+ * and a single trace at {@code /actuator/traces/{traceId}}.
+ */
+@Endpoint(id = "traces")
+public class TracesEndpoint {
+
+    private final TraceCollector traceCollector;
+
+    public TracesEndpoint(TraceCollector traceCollector) {
+        this.traceCollector = traceCollector;
+    }
+
+    @ReadOperation
+    public List<TraceRecord> traces() {
+        return traceCollector.recent();
+    }
+
+    @ReadOperation
+    public TraceRecord trace(@Selector String traceId) {
+        return traceCollector.find(traceId).orElse(null);
+    }
+}
@@ -0,0 +1,102 @@
+package com.assecor.assessment.tracing;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The span of the current thread and its hand-over to other threads.
+ * Outside a traced request there is no current span and every call here is a no-op, so code on
+ * traced paths does not need to know whether tracing is enabled. Work handed to another thread,
+ * virtual or not, keeps its trace when it is wrapped with {@link #wrap(Runnable)} or {@link #wrap(Callable)}.
+ */
+public final class Tracing {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private Tracing() {
+    }
+
+    /**
+     * Starts a child of the current span and makes it current.
+     *
+     * @return the span, or null outside a traced request
+     */
+    static Span start(String layer, String component, String operation) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return null;
+        }
+        Span span = parent.trace.start(parent, layer, component, operation);
+        CURRENT.set(span);
+        return span;
+    }
+
+    /**
+     * Ends a span returned by {@link #start}, making its parent current again.
+     */
+    static void end(Span span) {
+        span.end();
+        if (span.parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(span.parent);
+        }
+    }
+
+    static Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Opens a trace with its root span on the current thread.
+     */
+    static Trace begin(String name, int maxSpans) {
+        Trace trace = new Trace(name, maxSpans);
+        CURRENT.set(trace.root());
+        return trace;
+    }
+
+    static void finish(Trace trace) {
+        trace.finish();
+        CURRENT.remove();
+    }
+
+    public static Runnable wrap(Runnable task) {
+        Span captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                task.run();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    public static <T> Callable<T> wrap(Callable<T> task) {
+        Span captured = CURRENT.get();
+        if (captured == null) {
+            return task;
+        }
+        return () -> {
+            Span previous = CURRENT.get();
+            CURRENT.set(captured);
+            try {
+                return task.call();
+            } finally {
+                restore(previous);
+            }
+        };
+    }
+
+    private static void restore(Span previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.assecor.assessment.tracing;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Opens a trace for every request and hands it to the {@link TraceCollector} once the response is complete.
+ * The trace ID is sent in the {@code X-Trace-Id} header, so a slow response seen by a client can be
+ * looked up at {@code /actuator/traces/{traceId}} if it was kept.
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+    public static final String TRACE_ID = "X-Trace-Id";
+
+    private final TraceCollector traceCollector;
+    private final int maxSpans;
+
+    public TracingFilter(TraceCollector traceCollector, TracingProperties properties) {
+        this.traceCollector = traceCollector;
+        this.maxSpans = properties.maxSpans();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Trace trace = Tracing.begin(request.getMethod() + " " + request.getRequestURI(), maxSpans);
+        response.setHeader(TRACE_ID, trace.id());
+        Throwable error = null;
+        try {
+            filterChain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            // The matched pattern keeps /persons/1 and /persons/2 under one name
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (pattern != null) {
+                trace.rename(request.getMethod() + " " + pattern);
+            }
+            Tracing.finish(trace);
+            traceCollector.complete(trace, error != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus(), error);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.assecor.assessment.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Controller;
+import org.springframework.stereotype.Service;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Records a span for every call into a controller, a service or a Spring Data repository.
+ * The layer and component name of a bean class are worked out once and cached per class.
+ */
+public class TracingMethodInterceptor implements MethodInterceptor {
+
+    private static final String SERVICE_PACKAGE = "com.assecor.assessment.service";
+
+    private record Component(String layer, String name) {
+    }
+
+    private static final ClassValue<Component> COMPONENTS = new ClassValue<>() {
+        @Override
+        protected Component computeValue(Class<?> type) {
+            return componentOf(type);
+        }
+    };
+
+    /**
+     * Matches the beans of the traced layers, leaving out the methods inherited from {@link Object}.
+     */
+    public static Pointcut pointcut() {
+        ClassFilter classFilter = type -> COMPONENTS.get(type) != null;
+        return new ComposablePointcut(classFilter, new StaticMethodMatcher() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return method.getDeclaringClass() != Object.class;
+            }
+        });
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (Tracing.current() == null) {
+            return invocation.proceed();
+        }
+        Component component = COMPONENTS.get(invocation.getThis() != null
+                ? invocation.getThis().getClass() : invocation.getMethod().getDeclaringClass());
+        if (component == null) {
+            return invocation.proceed();
+        }
+        Span span = Tracing.start(component.layer(), component.name(), invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            span.fail(e);
+            throw e;
+        } finally {
+            Tracing.end(span);
+        }
+    }
+
+    private static Component componentOf(Class<?> type) {
+        // Spring Data repositories are JDK proxies; their name is the repository interface
+        if (Repository.class.isAssignableFrom(type)) {
+            for (Class<?> candidate : ClassUtils.getAllInterfacesForClass(type)) {
+                if (Repository.class.isAssignableFrom(candidate) && candidate != Repository.class
+                        && !candidate.getPackageName().startsWith("org.springframework")) {
+                    return new Component("repository", candidate.getSimpleName());
+                }
+            }
+            return new Component("repository", type.getSimpleName());
+        }
+        Class<?> userClass = ClassUtils.getUserClass(type);
+        // Final classes cannot be proxied by subclassing
+        if (Modifier.isFinal(userClass.getModifiers())) {
+            return null;
+        }
+        if (AnnotatedElementUtils.hasAnnotation(userClass, Controller.class)) {
+            return new Component("controller", userClass.getSimpleName());
+        }
+        if (AnnotatedElementUtils.hasAnnotation(userClass, Service.class)
+                || userClass.getPackageName().startsWith(SERVICE_PACKAGE)) {
+            return new Component("service", userClass.getSimpleName());
+        }
+        return null;
+    }
+}
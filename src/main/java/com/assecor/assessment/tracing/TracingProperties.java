@@ -0,0 +1,34 @@
+package com.assecor.assessment.tracing;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Settings for in-process request tracing.
+ * Every request to the person and color endpoints is traced; once it completes the trace is kept only
+ * if it was slow, failed, or falls into the baseline sample, and everything else is discarded.
+ *
+ * @param enabled whether requests are traced at all
+ * @param slowThreshold requests taking at least this long are kept
+ * @param baselineRate fraction of the remaining successful requests kept for comparison
+ * @param maxSpans spans recorded per trace; further spans are only counted
+ * @param retained number of kept traces served by {@code /actuator/traces}
+ * @param file JSON lines file the kept traces are appended to; none if not set
+ * @param maxFileSize size at which the file is rolled over
+ * @param maxFiles number of rolled over files kept next to the current one
+ */
+@ConfigurationProperties(prefix = "tracing")
+public record TracingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("500ms") Duration slowThreshold,
+        @DefaultValue("0.001") double baselineRate,
+        @DefaultValue("256") int maxSpans,
+        @DefaultValue("200") int retained,
+        Path file,
+        @DefaultValue("10MB") DataSize maxFileSize,
+        @DefaultValue("5") int maxFiles) {
+}
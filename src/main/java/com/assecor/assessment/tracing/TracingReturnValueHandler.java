@@ -0,0 +1,60 @@
+package com.assecor.assessment.tracing;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records a span for writing the value a controller returned, which for the REST endpoints is where
+ * the response body is serialized. It starts after the controller span has ended.
+ */
+public class TracingReturnValueHandler implements HandlerMethodReturnValueHandler {
+
+    private final HandlerMethodReturnValueHandler delegate;
+
+    TracingReturnValueHandler(HandlerMethodReturnValueHandler delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wraps the handlers of a handler adapter. Handlers of asynchronous return values are left alone,
+     * because Spring MVC looks for them by type.
+     */
+    public static List<HandlerMethodReturnValueHandler> wrap(List<HandlerMethodReturnValueHandler> handlers) {
+        List<HandlerMethodReturnValueHandler> wrapped = new ArrayList<>(handlers.size());
+        for (HandlerMethodReturnValueHandler handler : handlers) {
+            wrapped.add(handler instanceof AsyncHandlerMethodReturnValueHandler ? handler : new TracingReturnValueHandler(handler));
+        }
+        return wrapped;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return delegate.supportsReturnType(returnType);
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest) throws Exception {
+        Span span = Tracing.start("serialization", ClassUtils.getUserClass(returnType.getContainingClass()).getSimpleName(),
+                returnType.getExecutable().getName());
+        if (span == null) {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+            return;
+        }
+        try {
+            delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+        } catch (Exception e) {
+            span.fail(e);
+            throw e;
+        } finally {
+            Tracing.end(span);
+        }
+    }
+}
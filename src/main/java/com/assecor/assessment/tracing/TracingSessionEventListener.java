@@ -0,0 +1,60 @@
+package com.assecor.assessment.tracing;
+
+import org.hibernate.SessionEventListener;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Records a span for every SQL statement and batch Hibernate executes.
+ * Hibernate creates one listener per session, named by {@code hibernate.session.events.auto}; the SQL text
+ * comes from {@link #STATEMENT_INSPECTOR}, which sees each statement as it is prepared.
+ * Statements issued through {@code JdbcTemplate} bypass Hibernate and show up in the enclosing span only.
+ */
+public class TracingSessionEventListener implements SessionEventListener {
+
+    private static final ThreadLocal<String> PREPARED_SQL = new ThreadLocal<>();
+
+    public static final StatementInspector STATEMENT_INSPECTOR = sql -> {
+        if (Tracing.current() != null) {
+            PREPARED_SQL.set(sql);
+        }
+        return sql;
+    };
+
+    private Span statement;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        start();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        end();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        start();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        end();
+    }
+
+    private void start() {
+        if (Tracing.current() == null) {
+            return;
+        }
+        String sql = PREPARED_SQL.get();
+        PREPARED_SQL.remove();
+        statement = Tracing.start("sql", "sql", sql != null ? sql : "statement");
+    }
+
+    private void end() {
+        if (statement != null) {
+            Tracing.end(statement);
+            statement = null;
+        }
+    }
+}
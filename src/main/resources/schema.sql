@@ -13,6 +13,7 @@ CREATE TABLE persons (
     zipcode VARCHAR(10) NOT NULL,
     city VARCHAR(100) NOT NULL,
     color_id BIGINT NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     PRIMARY KEY (id),
     FOREIGN KEY (color_id) REFERENCES colors(id)
 );
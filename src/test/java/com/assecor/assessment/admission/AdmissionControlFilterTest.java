@@ -0,0 +1,156 @@
+package com.assecor.assessment.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for AdmissionControlFilter.
+ * Tests rate limiting, load shedding and limit adaptation.
+ */
+class AdmissionControlFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        AdmissionControlProperties properties = new AdmissionControlProperties(
+                true, 1, 2, 2, 1, 10, Duration.ofMillis(100), 0.5, 100);
+        filter = new AdmissionControlFilter(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        filter.destroy();
+    }
+
+    @Test
+    void doFilter_WhenBurstExceeded_ShouldReturn429WithRetryAfter() throws Exception {
+        assertEquals(200, perform("10.0.0.1").getStatus());
+        assertEquals(200, perform("10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = perform("10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        assertNotNull(rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("admission.rejected.total").tag("reason", "rate_limit").counter().count());
+
+        // Other clients have their own bucket
+        assertEquals(200, perform("10.0.0.2").getStatus());
+    }
+
+    @Test
+    void doFilter_WhenConcurrencyLimitReached_ShouldReturn503() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = filter.getLimiter();
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+
+        MockHttpServletResponse rejected = perform("10.0.0.1");
+
+        assertEquals(503, rejected.getStatus());
+        assertEquals("1", rejected.getHeader("Retry-After"));
+        assertEquals(1.0, meterRegistry.get("admission.rejected.total").tag("reason", "concurrency_limit").counter().count());
+    }
+
+    @Test
+    void doFilter_WhenMoreClientsThanTracked_ShouldEvictLeastRecentlySeen() throws Exception {
+        // Given
+        perform("10.0.0.1");
+        perform("10.0.0.1");
+
+        // When
+        for (int i = 0; i < 150; i++) {
+            perform("10.0.1." + i);
+            if (i % 10 == 0) {
+                assertEquals(429, perform("10.0.0.1").getStatus());
+            }
+        }
+
+        // Then
+        assertEquals(100, filter.trackedClients());
+        assertEquals(100.0, meterRegistry.get("admission.clients.tracked").gauge().value());
+    }
+
+    @Test
+    void sweep_ShouldDropOnlyRefilledBuckets() throws Exception {
+        // Given
+        perform("10.0.0.1");
+        perform("10.0.0.2");
+
+        // When
+        filter.sweep(System.nanoTime());
+        int afterImmediateSweep = filter.trackedClients();
+        filter.sweep(System.nanoTime() + TimeUnit.SECONDS.toNanos(10));
+
+        // Then
+        assertEquals(2, afterImmediateSweep);
+        assertEquals(0, filter.trackedClients());
+    }
+
+    @Test
+    void limiter_ShouldBackOffOnSlowRequestsAndRecoverOnFastOnes() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 2, 16, TimeUnit.MILLISECONDS.toNanos(100), 0.5);
+
+        assertTrue(limiter.tryAcquire());
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(500));
+        assertEquals(4, limiter.getLimit());
+
+        for (int i = 0; i < 50; i++) {
+            for (int j = 0; j < limiter.getLimit(); j++) {
+                assertTrue(limiter.tryAcquire());
+            }
+            assertFalse(limiter.tryAcquire());
+            int admitted = limiter.getInFlight();
+            for (int j = 0; j < admitted; j++) {
+                limiter.release(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        assertTrue(limiter.getLimit() > 4);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limiter_WhenSlowRequestsStartedBeforeBackoff_ShouldBackOffOnce() {
+        // Given
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 16, TimeUnit.MILLISECONDS.toNanos(100), 0.5);
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+        long now = System.nanoTime();
+        long slow = TimeUnit.MILLISECONDS.toNanos(500);
+
+        // When
+        for (int i = 0; i < 8; i++) {
+            limiter.release(slow, now + TimeUnit.MILLISECONDS.toNanos(i));
+        }
+        int afterBurst = limiter.getLimit();
+        assertTrue(limiter.tryAcquire());
+        limiter.release(slow, now + TimeUnit.SECONDS.toNanos(1));
+
+        // Then
+        assertEquals(4, afterBurst);
+        assertEquals(2, limiter.getLimit());
+    }
+
+    private MockHttpServletResponse perform(String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/persons");
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
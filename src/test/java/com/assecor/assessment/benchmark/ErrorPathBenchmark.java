@@ -0,0 +1,139 @@
+package com.assecor.assessment.benchmark;
+
+import com.assecor.assessment.exception.ErrorResponses;
+import com.assecor.assessment.service.ServiceResult;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Measures throughput and allocation of 404/409-heavy traffic.
+ * First compares the former error path (exception with a captured stack trace, a message check and a
+ * fresh map body) against a result type with a shared response, then reports the cost of the error
+ * responses of the actual endpoints.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ErrorPathBenchmark}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:error-path-benchmark;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.assecor.assessment=ERROR",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class ErrorPathBenchmark {
+
+    private static final int WARMUP_CALLS = 20_000;
+    private static final int MEASURED_CALLS = 200_000;
+    private static final int WARMUP_REQUESTS = 2_000;
+    private static final int MEASURED_REQUESTS = 10_000;
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Test
+    void compareErrorPaths() {
+        System.out.printf("%-12s %14s %14s%n", "path", "alloc/call", "calls/s");
+        long[] exceptions = measure("exception", this::withException);
+        long[] results = measure("result", this::withResult);
+
+        assertTrue(results[0] < exceptions[0], "The result path should allocate less than the exception path");
+        assertTrue(results[1] > exceptions[1], "The result path should be faster than the exception path");
+    }
+
+    @Test
+    void measureEndpoints() throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+
+        System.out.printf("%-24s %14s %14s%n", "endpoint", "alloc/req", "req/s");
+        measure(mockMvc, "GET /colors/{id} 404", i -> get("/colors/{id}", 1_000_000 + i), 404);
+        measure(mockMvc, "DELETE /colors/{id} 404", i -> delete("/colors/{id}", 1_000_000 + i), 404);
+        measure(mockMvc, "GET /persons/{id} 404", i -> get("/persons/{id}", 1_000_000 + i), 404);
+        measure(mockMvc, "POST /colors 409", i -> post("/colors")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"name\":\"blau\"}"), 409);
+    }
+
+    // What the color endpoints did before: the service throws, the controller inspects the message
+    private ResponseEntity<?> withException(int i) {
+        try {
+            throw new IllegalArgumentException("Color with ID " + i + " not found");
+        } catch (IllegalArgumentException e) {
+            if (e.getMessage().contains("not found")) {
+                Map<String, Object> body = new HashMap<>();
+                body.put("timestamp", LocalDateTime.now());
+                body.put("status", HttpStatus.NOT_FOUND.value());
+                body.put("error", "Not Found");
+                body.put("message", e.getMessage());
+                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(body);
+            }
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    private ResponseEntity<?> withResult(int i) {
+        ServiceResult<Void> result = i >= 0 ? ServiceResult.notFound() : ServiceResult.ok();
+        return result.isOk() ? ResponseEntity.noContent().build() : ErrorResponses.of(result);
+    }
+
+    // Returns the allocated bytes and the calls per second
+    private long[] measure(String path, IntFunction<ResponseEntity<?>> call) {
+        for (int i = 0; i < WARMUP_CALLS; i++) {
+            assertEquals(404, call.apply(i).getStatusCode().value());
+        }
+
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_CALLS; i++) {
+            assertEquals(404, call.apply(i).getStatusCode().value());
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocatedPerCall = (threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore) / MEASURED_CALLS;
+
+        long callsPerSecond = MEASURED_CALLS * 1_000_000_000L / elapsedNanos;
+        System.out.printf("%-12s %,12d B %,14d%n", path, allocatedPerCall, callsPerSecond);
+        return new long[]{allocatedPerCall, callsPerSecond};
+    }
+
+    private void measure(MockMvc mockMvc, String endpoint, IntFunction<RequestBuilder> request, int status)
+            throws Exception {
+        for (int i = 0; i < WARMUP_REQUESTS; i++) {
+            assertEquals(status, mockMvc.perform(request.apply(i)).andReturn().getResponse().getStatus());
+        }
+
+        long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_REQUESTS; i++) {
+            assertEquals(status, mockMvc.perform(request.apply(i)).andReturn().getResponse().getStatus());
+        }
+        long elapsedNanos = System.nanoTime() - start;
+        long allocatedPerRequest = (threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore) / MEASURED_REQUESTS;
+
+        System.out.printf("%-24s %,12d B %,14d%n", endpoint, allocatedPerRequest,
+                MEASURED_REQUESTS * 1_000_000_000L / elapsedNanos);
+    }
+}
@@ -0,0 +1,106 @@
+package com.assecor.assessment.benchmark;
+
+import com.assecor.assessment.dto.PersonDto;
+import com.assecor.assessment.json.PersonJsonModule;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares encode/decode CPU time and allocation of reflective Jackson serialization against the
+ * streaming serializers of {@link PersonJsonModule} for 100k persons and person DTOs.
+ * Run with {@code mvn test -Pbenchmark -Dtest=JsonSerializerBenchmark}.
+ */
+@Tag("benchmark")
+class JsonSerializerBenchmark {
+
+    private static final int PERSONS = 100_000;
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final TypeReference<List<Person>> PERSON_LIST = new TypeReference<>() {
+    };
+    private static final TypeReference<List<PersonDto>> PERSON_DTO_LIST = new TypeReference<>() {
+    };
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareSerializers() throws Exception {
+        ObjectMapper reflective = new ObjectMapper();
+        ObjectMapper streaming = new ObjectMapper().registerModule(new PersonJsonModule());
+        List<Person> persons = samplePersons();
+        List<PersonDto> dtos = persons.stream().map(person -> new PersonDto(person.getId(), person.getName(),
+                person.getLastname(), person.getZipcode(), person.getCity(), person.getColorName())).toList();
+
+        assertArrayEquals(reflective.writeValueAsBytes(persons), streaming.writeValueAsBytes(persons));
+        assertArrayEquals(reflective.writeValueAsBytes(dtos), streaming.writeValueAsBytes(dtos));
+
+        System.out.printf("%-10s %-10s %10s %14s %10s %14s%n",
+                "type", "path", "encode", "alloc", "decode", "alloc");
+        long[] reflectivePersons = measure("Person", "reflective", reflective, persons, PERSON_LIST);
+        long[] streamingPersons = measure("Person", "streaming", streaming, persons, PERSON_LIST);
+        measure("PersonDto", "reflective", reflective, dtos, PERSON_DTO_LIST);
+        measure("PersonDto", "streaming", streaming, dtos, PERSON_DTO_LIST);
+
+        assertTrue(streamingPersons[0] < reflectivePersons[0], "Streaming encode should take less CPU time");
+        assertTrue(streamingPersons[2] < reflectivePersons[2], "Streaming decode should take less CPU time");
+    }
+
+    // Returns encode time, encode allocation, decode time and decode allocation per round
+    private <T> long[] measure(String type, String path, ObjectMapper mapper, List<T> values,
+                               TypeReference<List<T>> listType) throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(values), listType);
+        }
+
+        long[] totals = new long[4];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long cpu = threadMXBean.getCurrentThreadCpuTime();
+            long allocated = threadMXBean.getCurrentThreadAllocatedBytes();
+            byte[] payload = mapper.writeValueAsBytes(values);
+            long encodedCpu = threadMXBean.getCurrentThreadCpuTime();
+            long encodedAllocated = threadMXBean.getCurrentThreadAllocatedBytes();
+            List<T> decoded = mapper.readValue(payload, listType);
+            long decodedCpu = threadMXBean.getCurrentThreadCpuTime();
+            long decodedAllocated = threadMXBean.getCurrentThreadAllocatedBytes();
+            assertEquals(PERSONS, decoded.size());
+
+            totals[0] += encodedCpu - cpu;
+            // The payload itself is the same for both paths and not counted
+            totals[1] += encodedAllocated - allocated - payload.length;
+            totals[2] += decodedCpu - encodedCpu;
+            totals[3] += decodedAllocated - encodedAllocated;
+        }
+
+        long[] perRound = Arrays.stream(totals).map(total -> total / MEASURED_ROUNDS).toArray();
+        System.out.printf("%-10s %-10s %7.2f ms %,12d B %7.2f ms %,12d B%n", type, path,
+                perRound[0] / 1_000_000d, perRound[1], perRound[2] / 1_000_000d, perRound[3]);
+        return perRound;
+    }
+
+    private static List<Person> samplePersons() {
+        String[] cities = {"Lauterecken", "Stralsund", "Hansstadt", "Woanders", "Hierach"};
+        Color[] colors = {new Color(1L, "blau"), new Color(2L, "grün"), new Color(3L, "violett"),
+                new Color(4L, "rot"), new Color(5L, "gelb"), new Color(6L, "türkis"), new Color(7L, "weiß")};
+        List<Person> persons = new ArrayList<>(PERSONS);
+        for (int i = 0; i < PERSONS; i++) {
+            persons.add(new Person((long) i + 1, "Name" + i, "Lastname" + i, String.format("%05d", i % 100_000),
+                    cities[i % cities.length], colors[i % colors.length]));
+        }
+        return persons;
+    }
+}
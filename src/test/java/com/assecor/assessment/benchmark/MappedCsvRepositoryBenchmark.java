@@ -0,0 +1,180 @@
+package com.assecor.assessment.benchmark;
+
+import com.assecor.assessment.importer.PersonCsvReader;
+import com.assecor.assessment.importer.PersonCsvReader.CsvRecord;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.repository.MappedCsvPersonRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares startup time, retained heap and resident memory of serving persons from a memory-mapped CSV
+ * file against loading the same file into an in-memory H2 database, for growing file sizes.
+ * Also reports the latency of random lookups by ID on both paths.
+ * Run with {@code mvn test -Pbenchmark -Dtest=MappedCsvRepositoryBenchmark}.
+ */
+@Tag("benchmark")
+class MappedCsvRepositoryBenchmark {
+
+    private static final int[] ROW_COUNTS = {100_000, 500_000};
+    private static final int LOOKUPS = 10_000;
+    private static final int BATCH_SIZE = 1_000;
+    private static final List<Color> COLORS = List.of(new Color(1L, "blau"), new Color(2L, "grün"),
+            new Color(3L, "violett"), new Color(4L, "rot"), new Color(5L, "gelb"), new Color(6L, "türkis"),
+            new Color(7L, "weiß"), new Color(8L, "schwarz"));
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void compareStartupAndMemory() throws Exception {
+        System.out.printf("%-8s %-7s %12s %14s %14s %12s%n", "rows", "path", "startup", "heap", "rss", "lookup");
+        for (int rows : ROW_COUNTS) {
+            Path csv = writeCsv(rows);
+
+            long heapBefore = usedHeap();
+            long rssBefore = residentMemory();
+            long start = System.nanoTime();
+            try (Connection connection = loadIntoH2(csv, rows)) {
+                long startupNanos = System.nanoTime() - start;
+                long heap = usedHeap() - heapBefore;
+                long rss = residentMemory() - rssBefore;
+                long lookupNanos = lookUpInH2(connection, rows);
+                report(rows, "h2", startupNanos, heap, rss, lookupNanos);
+                long h2Heap = heap;
+
+                heapBefore = usedHeap();
+                rssBefore = residentMemory();
+                start = System.nanoTime();
+                try (MappedCsvPersonRepository repository = new MappedCsvPersonRepository(csv, COLORS)) {
+                    startupNanos = System.nanoTime() - start;
+                    heap = usedHeap() - heapBefore;
+                    rss = residentMemory() - rssBefore;
+                    assertEquals(rows, repository.count());
+                    lookupNanos = lookUpInMappedCsv(repository, rows);
+                    report(rows, "mapped", startupNanos, heap, rss, lookupNanos);
+                }
+
+                assertTrue(heap < h2Heap, "The offset index should retain less heap than H2 for " + rows + " rows");
+            }
+        }
+    }
+
+    private Path writeCsv(int rows) throws IOException {
+        Path csv = directory.resolve("persons-" + rows + ".csv");
+        String[] cities = {"Lauterecken", "Stralsund", "Hansstadt", "Woanders", "Hierach"};
+        try (BufferedWriter writer = Files.newBufferedWriter(csv, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write("Lastname" + i + ", Name" + i + ", " + String.format("%05d", i % 100_000) + " "
+                        + cities[i % cities.length] + ", " + (i % COLORS.size() + 1) + "\n");
+            }
+        }
+        return csv;
+    }
+
+    // What the application does with the default repository: parse the file and insert every row
+    private static Connection loadIntoH2(Path csv, int rows) throws IOException, SQLException {
+        Connection connection = DriverManager.getConnection(
+                "jdbc:h2:mem:mapped-csv-benchmark-" + rows + ";MODE=PostgreSQL", "test", "test");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE persons (id BIGINT PRIMARY KEY, name VARCHAR(100), lastname VARCHAR(100), "
+                    + "zipcode VARCHAR(10), city VARCHAR(100), color_id BIGINT)");
+            statement.execute("CREATE INDEX persons_color ON persons (color_id)");
+        }
+        try (Reader reader = Files.newBufferedReader(csv, StandardCharsets.UTF_8);
+             PersonCsvReader csvReader = new PersonCsvReader(reader);
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO persons (id, name, lastname, zipcode, city, color_id) VALUES (?, ?, ?, ?, ?, ?)")) {
+            int batched = 0;
+            CsvRecord record;
+            while ((record = csvReader.next()) != null) {
+                insert.setLong(1, record.line());
+                insert.setString(2, record.name());
+                insert.setString(3, record.lastname());
+                insert.setString(4, record.zipcode());
+                insert.setString(5, record.city());
+                insert.setLong(6, record.colorId());
+                insert.addBatch();
+                if (++batched % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        return connection;
+    }
+
+    private static long lookUpInH2(Connection connection, int rows) throws SQLException {
+        List<String> names = new ArrayList<>(LOOKUPS);
+        long start = System.nanoTime();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT name, lastname, zipcode, city, color_id FROM persons WHERE id = ?")) {
+            for (int i = 0; i < LOOKUPS; i++) {
+                select.setLong(1, ThreadLocalRandom.current().nextLong(1, rows + 1));
+                try (ResultSet resultSet = select.executeQuery()) {
+                    assertTrue(resultSet.next());
+                    names.add(resultSet.getString(1));
+                }
+            }
+        }
+        assertEquals(LOOKUPS, names.size());
+        return (System.nanoTime() - start) / LOOKUPS;
+    }
+
+    private static long lookUpInMappedCsv(MappedCsvPersonRepository repository, int rows) {
+        List<String> names = new ArrayList<>(LOOKUPS);
+        long start = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            names.add(repository.findById(ThreadLocalRandom.current().nextLong(1, rows + 1)).orElseThrow().getName());
+        }
+        assertEquals(LOOKUPS, names.size());
+        return (System.nanoTime() - start) / LOOKUPS;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    // Resident set size of the process in bytes, or 0 where /proc is not available
+    private static long residentMemory() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", "")) * 1024;
+            }
+        }
+        return 0;
+    }
+
+    private static void report(int rows, String path, long startupNanos, long heap, long rss, long lookupNanos) {
+        System.out.printf("%-8d %-7s %9.1f ms %,12d B %,12d B %9.2f µs%n",
+                rows, path, startupNanos / 1_000_000d, heap, rss, lookupNanos / 1_000d);
+    }
+}
@@ -0,0 +1,86 @@
+package com.assecor.assessment.benchmark;
+
+import com.assecor.assessment.config.ContentNegotiationConfig;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares payload size and encode/decode CPU time of JSON, CBOR and Smile for 100k persons.
+ * Run with {@code mvn test -Pbenchmark -Dtest=PayloadFormatBenchmark}.
+ */
+@Tag("benchmark")
+class PayloadFormatBenchmark {
+
+    private static final int PERSONS = 100_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    private static final TypeReference<List<Person>> PERSON_LIST = new TypeReference<>() {
+    };
+
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+
+    @Test
+    void compareFormats() throws Exception {
+        List<Person> persons = samplePersons();
+
+        long json = measure("json", new ObjectMapper(), persons);
+        long cbor = measure("cbor", new CBORMapper(), persons);
+        long smile = measure("smile", SmileMapper.builder(ContentNegotiationConfig.smileFactory()).build(), persons);
+
+        assertTrue(cbor < json, "CBOR should be smaller than JSON");
+        assertTrue(smile < json, "Smile should be smaller than JSON");
+    }
+
+    private long measure(String format, ObjectMapper mapper, List<Person> persons) throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(persons);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readValue(mapper.writeValueAsBytes(persons), PERSON_LIST);
+        }
+
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = threadMXBean.getCurrentThreadCpuTime();
+            payload = mapper.writeValueAsBytes(persons);
+            long encoded = threadMXBean.getCurrentThreadCpuTime();
+            List<Person> decoded = mapper.readValue(payload, PERSON_LIST);
+            long end = threadMXBean.getCurrentThreadCpuTime();
+            assertEquals(PERSONS, decoded.size());
+            encodeNanos += encoded - start;
+            decodeNanos += end - encoded;
+        }
+
+        System.out.printf("%-6s size=%,10d bytes  encode=%7.2f ms  decode=%7.2f ms%n",
+                format, payload.length,
+                encodeNanos / 1_000_000d / MEASURED_ROUNDS,
+                decodeNanos / 1_000_000d / MEASURED_ROUNDS);
+        return payload.length;
+    }
+
+    private static List<Person> samplePersons() {
+        String[] colors = {"blau", "grün", "violett", "rot", "gelb", "türkis", "weiß"};
+        String[] cities = {"Lauterecken", "Stralsund", "Hansstadt", "Woanders", "Hierach"};
+        List<Person> persons = new ArrayList<>(PERSONS);
+        for (int i = 0; i < PERSONS; i++) {
+            Color color = new Color((long) (i % colors.length) + 1, colors[i % colors.length]);
+            persons.add(new Person((long) i + 1, "Name" + i, "Lastname" + (i % 1000),
+                    String.format("%05d", i % 100_000), cities[i % cities.length], color));
+        }
+        return persons;
+    }
+}
@@ -0,0 +1,112 @@
+package com.assecor.assessment.benchmark;
+
+import com.assecor.assessment.model.Person;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares allocation and latency of loading persons in a read-write transaction against the
+ * read-only path (read-only transaction, read-only entities, manual flush) for growing result sizes.
+ * Run with {@code mvn test -Pbenchmark -Dtest=ReadOnlyReadPathBenchmark}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:readpath-benchmark;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.jpa.show-sql=false",
+        "logging.level.com.assecor.assessment=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class ReadOnlyReadPathBenchmark {
+
+    private static final int[] RESULT_SIZES = {1_000, 10_000, 50_000};
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final String QUERY = "SELECT p FROM Person p JOIN FETCH p.color";
+
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void compareReadPaths() {
+        TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        System.out.printf("%-8s %-10s %14s %12s%n", "rows", "path", "alloc/call", "latency");
+        for (int rows : RESULT_SIZES) {
+            seed(rows);
+            long baseline = measure(rows, "read-write", () -> readWrite.execute(status ->
+                    entityManager.createQuery(QUERY, Person.class).getResultList()));
+            long optimized = measure(rows, "read-only", () -> readOnly.execute(status ->
+                    entityManager.createQuery(QUERY, Person.class)
+                            .setHint(HibernateHints.HINT_READ_ONLY, true)
+                            .setHint(HibernateHints.HINT_FLUSH_MODE, "MANUAL")
+                            .getResultList()));
+
+            assertTrue(optimized < baseline,
+                    "Read-only path should allocate less than the read-write path for " + rows + " rows");
+        }
+    }
+
+    private long measure(int rows, String path, Supplier<List<Person>> query) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            assertEquals(rows, query.get().size());
+        }
+
+        long allocatedBytes = 0;
+        long elapsedNanos = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long allocatedBefore = threadMXBean.getCurrentThreadAllocatedBytes();
+            long start = System.nanoTime();
+            List<Person> persons = query.get();
+            elapsedNanos += System.nanoTime() - start;
+            allocatedBytes += threadMXBean.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            assertEquals(rows, persons.size());
+        }
+
+        long allocatedPerCall = allocatedBytes / MEASURED_ROUNDS;
+        System.out.printf("%-8d %-10s %,12d B %9.2f ms%n",
+                rows, path, allocatedPerCall, elapsedNanos / 1_000_000d / MEASURED_ROUNDS);
+        return allocatedPerCall;
+    }
+
+    private void seed(int rows) {
+        jdbcTemplate.update("DELETE FROM persons");
+        String[] cities = {"Lauterecken", "Stralsund", "Hansstadt", "Woanders", "Hierach"};
+        List<Object[]> batch = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            batch.add(new Object[]{"Name" + i, "Lastname" + i, String.format("%05d", i % 100_000),
+                    cities[i % cities.length], (long) (i % 8) + 1});
+        }
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO persons (name, lastname, zipcode, city, color_id) VALUES (?, ?, ?, ?, ?)", batch);
+    }
+}
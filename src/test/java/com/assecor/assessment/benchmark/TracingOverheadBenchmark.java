@@ -0,0 +1,105 @@
+package com.assecor.assessment.benchmark;
+
+import com.assecor.assessment.tracing.TracingFilter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Measures the latency added by tracing with the default sampling, where nearly every trace is discarded.
+ * Rounds with and without the tracing filter alternate on the same context, so both see the same caches
+ * and JIT state; without the filter no trace is open and the proxied layers only check for one.
+ * Run with {@code mvn test -Pbenchmark -Dtest=TracingOverheadBenchmark}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracing-benchmark;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "spring.jpa.show-sql=false",
+        "tracing.enabled=true",
+        "logging.level.com.assecor.assessment=ERROR",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class TracingOverheadBenchmark {
+
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 30;
+    private static final int REQUESTS_PER_ROUND = 2_000;
+    private static final double MAX_OVERHEAD_PERCENT = 2.0;
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterRegistrationBean<TracingFilter> tracingFilter;
+
+    @Test
+    void measureOverhead() throws Exception {
+        MockMvc untraced = MockMvcBuilders.webAppContextSetup(context).build();
+        MockMvc traced = MockMvcBuilders.webAppContextSetup(context).addFilters(tracingFilter.getFilter()).build();
+
+        System.out.printf("%-20s %14s %14s %10s%n", "endpoint", "untraced", "traced", "overhead");
+        double[] overheads = {
+                measure(untraced, traced, "GET /persons/{id}", i -> get("/persons/{id}", i % 5 + 1)),
+                measure(untraced, traced, "GET /colors/{id}", i -> get("/colors/{id}", i % 7 + 1)),
+                measure(untraced, traced, "GET /colors", i -> get("/colors"))
+        };
+
+        for (double overhead : overheads) {
+            assertTrue(overhead < MAX_OVERHEAD_PERCENT, "Tracing should add less than 2% latency");
+        }
+    }
+
+    // Returns the overhead in percent of the median round
+    private double measure(MockMvc untraced, MockMvc traced, String endpoint, IntFunction<RequestBuilder> request)
+            throws Exception {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            round(untraced, request);
+            round(traced, request);
+        }
+
+        long[] untracedRounds = new long[MEASURED_ROUNDS];
+        long[] tracedRounds = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            untracedRounds[i] = round(untraced, request);
+            tracedRounds[i] = round(traced, request);
+        }
+
+        double untracedNanos = median(untracedRounds) / REQUESTS_PER_ROUND;
+        double tracedNanos = median(tracedRounds) / REQUESTS_PER_ROUND;
+        double overhead = (tracedNanos - untracedNanos) * 100 / untracedNanos;
+        System.out.printf("%-20s %11.1f µs %11.1f µs %9.2f%%%n", endpoint,
+                untracedNanos / 1_000, tracedNanos / 1_000, overhead);
+        return overhead;
+    }
+
+    private long round(MockMvc mockMvc, IntFunction<RequestBuilder> request) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS_PER_ROUND; i++) {
+            assertEquals(200, mockMvc.perform(request.apply(i)).andReturn().getResponse().getStatus());
+        }
+        return System.nanoTime() - start;
+    }
+
+    private static double median(long[] rounds) {
+        long[] sorted = rounds.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+}
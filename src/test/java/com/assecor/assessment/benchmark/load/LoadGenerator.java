@@ -0,0 +1,145 @@
+package com.assecor.assessment.benchmark.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives the mixed workload against a running application with {@link HttpClient} on virtual threads
+ * and records the latency of every request in an HDR histogram per operation.
+ * <p>
+ * In the open model the latency is measured from the time a request was scheduled to start, not from
+ * when it was actually sent, so a stalled server shows up in the percentiles instead of silently
+ * lowering the request rate (coordinated omission).
+ */
+public class LoadGenerator {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final URI baseUri;
+    private final LoadTestSettings settings;
+    private final HttpClient client;
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    public LoadGenerator(URI baseUri, LoadTestSettings settings) {
+        this.baseUri = baseUri;
+        this.settings = settings;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Warm up, reset the recordings and run the measured phase.
+     *
+     * @param name the name of the run, used in the report
+     * @return the report of the measured phase
+     */
+    public LoadTestReport run(String name) throws InterruptedException {
+        runPhase(settings.warmup());
+        histograms.values().forEach(Histogram::reset);
+        errors.values().forEach(LongAdder::reset);
+
+        long start = System.nanoTime();
+        runPhase(settings.duration());
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        return LoadTestReport.of(name, settings, histograms, errors, elapsed);
+    }
+
+    /**
+     * Write the full percentile distribution of every operation in HdrHistogram's text format,
+     * which can be plotted or compared with the usual HdrHistogram tooling.
+     */
+    public void writeHistograms(Path directory, String name) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Path file = directory.resolve(name + "-" + entry.getKey().name().toLowerCase() + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+                // Values are recorded in microseconds and reported in milliseconds
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private void runPhase(Duration duration) throws InterruptedException {
+        long end = System.nanoTime() + duration.toNanos();
+        if (settings.model() == LoadTestSettings.Model.CLOSED) {
+            runClosed(end);
+        } else {
+            runOpen(end);
+        }
+    }
+
+    private void runClosed(long end) {
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < settings.concurrency(); i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < end) {
+                        send(Operation.pick(ThreadLocalRandom.current()), System.nanoTime());
+                    }
+                });
+            }
+        }
+    }
+
+    private void runOpen(long end) throws InterruptedException {
+        long interval = TimeUnit.SECONDS.toNanos(1) / settings.ratePerSecond();
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long next = System.nanoTime(); next < end; next += interval) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+                long intendedStart = next;
+                requests.submit(() -> send(Operation.pick(ThreadLocalRandom.current()), intendedStart));
+            }
+        }
+    }
+
+    private void send(Operation operation, long startNanos) {
+        boolean failed;
+        try {
+            HttpResponse<Void> response = client.send(
+                    operation.request(baseUri, ThreadLocalRandom.current()).timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        histograms.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+        if (failed) {
+            errors.get(operation).increment();
+        }
+    }
+}
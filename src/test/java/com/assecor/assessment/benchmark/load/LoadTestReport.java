@@ -0,0 +1,124 @@
+package com.assecor.assessment.benchmark.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Summary of a load test run: throughput and latency percentiles per operation and in total.
+ * Reports are stored as JSON so a later run can be compared with {@link #compareTo(LoadTestReport)}.
+ */
+public record LoadTestReport(String name, String startedAt, String model, int concurrency, int ratePerSecond,
+                             double durationSeconds, List<OperationStats> operations) {
+
+    static final String TOTAL = "TOTAL";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    /**
+     * Latencies are in milliseconds, throughput in requests per second.
+     */
+    public record OperationStats(String operation, long requests, long errors, double throughput,
+                                 double p50, double p99, double p999, double max) {
+
+        static OperationStats of(String operation, Histogram histogram, long errors, double seconds) {
+            return new OperationStats(operation, histogram.getTotalCount(), errors,
+                    histogram.getTotalCount() / seconds,
+                    millis(histogram.getValueAtPercentile(50.0)),
+                    millis(histogram.getValueAtPercentile(99.0)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+    }
+
+    static LoadTestReport of(String name, LoadTestSettings settings, Map<Operation, Histogram> histograms,
+                             Map<Operation, LongAdder> errors, Duration elapsed) {
+        double seconds = elapsed.toNanos() / 1e9;
+        List<OperationStats> operations = new ArrayList<>();
+        Histogram total = null;
+        long totalErrors = 0;
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            long operationErrors = errors.get(entry.getKey()).sum();
+            operations.add(OperationStats.of(entry.getKey().name(), entry.getValue(), operationErrors, seconds));
+            if (total == null) {
+                total = entry.getValue().copy();
+            } else {
+                total.add(entry.getValue());
+            }
+            totalErrors += operationErrors;
+        }
+        operations.add(OperationStats.of(TOTAL, total, totalErrors, seconds));
+        return new LoadTestReport(name, Instant.now().toString(), settings.model().name(), settings.concurrency(),
+                settings.ratePerSecond(), seconds, operations);
+    }
+
+    public OperationStats total() {
+        return operations.stream().filter(stats -> stats.operation().equals(TOTAL)).findFirst().orElseThrow();
+    }
+
+    public String toTable() {
+        StringBuilder table = new StringBuilder()
+                .append("Load test '").append(name).append("' (").append(model).append(", ")
+                .append(model.equals("OPEN") ? ratePerSecond + " req/s" : concurrency + " clients").append(", ")
+                .append("%.1f s".formatted(durationSeconds)).append(")\n")
+                .append("%-18s %10s %8s %10s %9s %9s %9s %9s%n"
+                        .formatted("operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (OperationStats stats : operations) {
+            table.append("%-18s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n".formatted(stats.operation(),
+                    stats.requests(), stats.errors(), stats.throughput(), stats.p50(), stats.p99(), stats.p999(), stats.max()));
+        }
+        return table.toString();
+    }
+
+    /**
+     * Relative change of throughput and percentiles against an earlier run; negative latency deltas are improvements.
+     */
+    public String compareTo(LoadTestReport baseline) {
+        StringBuilder table = new StringBuilder()
+                .append("Compared with '").append(baseline.name()).append("' from ").append(baseline.startedAt()).append('\n')
+                .append("%-18s %9s %9s %9s %9s%n".formatted("operation", "req/s", "p50", "p99", "p99.9"));
+        for (OperationStats current : operations) {
+            baseline.operations().stream()
+                    .filter(previous -> previous.operation().equals(current.operation()))
+                    .findFirst()
+                    .ifPresent(previous -> table.append("%-18s %9s %9s %9s %9s%n".formatted(current.operation(),
+                            change(previous.throughput(), current.throughput()),
+                            change(previous.p50(), current.p50()),
+                            change(previous.p99(), current.p99()),
+                            change(previous.p999(), current.p999()))));
+        }
+        return table.toString();
+    }
+
+    public Path write(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        Path file = directory.resolve(name + "-" + startedAt.replace(':', '-') + ".json");
+        MAPPER.writeValue(file.toFile(), this);
+        return file;
+    }
+
+    public static LoadTestReport read(Path file) throws IOException {
+        return MAPPER.readValue(file.toFile(), LoadTestReport.class);
+    }
+
+    private static String change(double previous, double current) {
+        if (previous == 0) {
+            return "n/a";
+        }
+        return "%+.1f%%".formatted((current - previous) / previous * 100);
+    }
+}
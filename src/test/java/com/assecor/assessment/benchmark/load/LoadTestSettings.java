@@ -0,0 +1,39 @@
+package com.assecor.assessment.benchmark.load;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Settings of a load test run, read from system properties so runs can be tuned from the command line:
+ * <ul>
+ *     <li>{@code loadtest.model}: {@code closed} (fixed number of looping clients) or {@code open} (fixed arrival rate)</li>
+ *     <li>{@code loadtest.concurrency}: number of clients in the closed model</li>
+ *     <li>{@code loadtest.rate}: requests per second in the open model</li>
+ *     <li>{@code loadtest.warmup}, {@code loadtest.duration}: ISO-8601 durations, e.g. {@code PT30S}</li>
+ *     <li>{@code loadtest.reports}: directory for the JSON reports and histograms</li>
+ *     <li>{@code loadtest.baseline}: a previous JSON report to compare against</li>
+ * </ul>
+ */
+public record LoadTestSettings(Model model, int concurrency, int ratePerSecond, Duration warmup, Duration duration,
+                               Path reportDirectory, Path baseline) {
+
+    public enum Model {
+        /** Each client sends its next request only after the previous one completed. */
+        CLOSED,
+        /** Requests are started on a fixed schedule regardless of how fast responses arrive. */
+        OPEN
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        String baseline = System.getProperty("loadtest.baseline");
+        return new LoadTestSettings(
+                Model.valueOf(System.getProperty("loadtest.model", "closed").toUpperCase(Locale.ROOT)),
+                Integer.getInteger("loadtest.concurrency", 32),
+                Integer.getInteger("loadtest.rate", 1000),
+                Duration.parse(System.getProperty("loadtest.warmup", "PT5S")),
+                Duration.parse(System.getProperty("loadtest.duration", "PT20S")),
+                Path.of(System.getProperty("loadtest.reports", "target/load-tests")),
+                baseline != null ? Path.of(baseline) : null);
+    }
+}
@@ -0,0 +1,99 @@
+package com.assecor.assessment.benchmark.load;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * The requests of the mixed workload and their share of it.
+ * Reads target the seeded persons and colors; writes create new persons or patch seeded ones.
+ */
+public enum Operation {
+
+    LIST_PERSONS(15) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, RandomGenerator random) {
+            return HttpRequest.newBuilder(baseUri.resolve("/persons")).GET();
+        }
+    },
+    GET_PERSON(45) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, RandomGenerator random) {
+            return HttpRequest.newBuilder(baseUri.resolve("/persons/" + seededPersonId(random))).GET();
+        }
+    },
+    PERSONS_BY_COLOR(20) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, RandomGenerator random) {
+            String color = URLEncoder.encode(COLORS.get(random.nextInt(COLORS.size())), StandardCharsets.UTF_8);
+            return HttpRequest.newBuilder(baseUri.resolve("/persons/color/" + color)).GET();
+        }
+    },
+    LIST_COLORS(10) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, RandomGenerator random) {
+            return HttpRequest.newBuilder(baseUri.resolve("/colors")).GET();
+        }
+    },
+    CREATE_PERSON(5) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, RandomGenerator random) {
+            String body = """
+                    {"name":"Load","lastname":"Test%d","zipcode":"12345","city":"Lastdorf","color":"%s"}"""
+                    .formatted(random.nextInt(1_000_000), COLORS.get(random.nextInt(COLORS.size())));
+            return HttpRequest.newBuilder(baseUri.resolve("/persons"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+    },
+    PATCH_PERSON(5) {
+        @Override
+        HttpRequest.Builder request(URI baseUri, RandomGenerator random) {
+            String body = "{\"city\":\"Lastdorf " + random.nextInt(100) + "\"}";
+            return HttpRequest.newBuilder(baseUri.resolve("/persons/" + seededPersonId(random)))
+                    .header("Content-Type", "application/json")
+                    .method("PATCH", HttpRequest.BodyPublishers.ofString(body));
+        }
+    };
+
+    private static final List<String> COLORS = List.of("blau", "grün", "violett", "rot", "gelb", "türkis", "weiß");
+    private static final int SEEDED_PERSONS = 10;
+    private static final int TOTAL_WEIGHT;
+
+    static {
+        int total = 0;
+        for (Operation operation : values()) {
+            total += operation.weight;
+        }
+        TOTAL_WEIGHT = total;
+    }
+
+    private final int weight;
+
+    Operation(int weight) {
+        this.weight = weight;
+    }
+
+    abstract HttpRequest.Builder request(URI baseUri, RandomGenerator random);
+
+    /**
+     * Pick an operation with probability proportional to its weight.
+     */
+    static Operation pick(RandomGenerator random) {
+        int ticket = random.nextInt(TOTAL_WEIGHT);
+        for (Operation operation : values()) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+
+    private static int seededPersonId(RandomGenerator random) {
+        return 1 + random.nextInt(SEEDED_PERSONS);
+    }
+}
@@ -0,0 +1,55 @@
+package com.assecor.assessment.benchmark.load;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the mixed workload against the application started on a random port.
+ * Admission control is switched off so the numbers show what the API itself can do.
+ * Run with {@code mvn test -Pbenchmark -Dtest=RestApiLoadTest}, tuned with the {@code loadtest.*}
+ * system properties described in {@link LoadTestSettings}, e.g.
+ * {@code -Dloadtest.model=open -Dloadtest.rate=2000 -Dloadtest.baseline=target/load-tests/mixed-....json}.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "admission.enabled=false",
+        // The test profile logs every statement and request, which would dominate the measured latency
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "logging.level.com.assecor.assessment=INFO",
+        "logging.level.org.hibernate.SQL=INFO",
+        "logging.level.org.hibernate.type.descriptor.sql.BasicBinder=INFO",
+        "logging.level.org.springframework.web=INFO"
+})
+@ActiveProfiles("test")
+@Tag("benchmark")
+class RestApiLoadTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.fromSystemProperties();
+        LoadGenerator generator = new LoadGenerator(URI.create("http://localhost:" + port), settings);
+
+        LoadTestReport report = generator.run("mixed");
+
+        System.out.println(report.toTable());
+        Path file = report.write(settings.reportDirectory());
+        generator.writeHistograms(settings.reportDirectory(), "mixed");
+        System.out.println("Report written to " + file.toAbsolutePath());
+        if (settings.baseline() != null) {
+            System.out.println(report.compareTo(LoadTestReport.read(settings.baseline())));
+        }
+
+        assertTrue(report.total().requests() > 0, "No requests completed");
+    }
+}
@@ -0,0 +1,95 @@
+package com.assecor.assessment.cache;
+
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PersonColorIndex.
+ * Tests set operations, incremental updates and rebuilding after invalidation.
+ */
+@ExtendWith(MockitoExtension.class)
+class PersonColorIndexTest {
+
+    private static final long BLAU = 1L;
+    private static final long GRUEN = 2L;
+    private static final long ROT = 4L;
+
+    @Mock
+    private PersonJpaRepository personJpaRepository;
+
+    private PersonColorIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        index = new PersonColorIndex(personJpaRepository, new ShardRouter(1, meterRegistry), meterRegistry);
+        when(personJpaRepository.findAllIdsWithColorId()).thenReturn(List.of(
+                new Object[] {1L, BLAU},
+                new Object[] {2L, GRUEN},
+                new Object[] {3L, ROT},
+                new Object[] {4L, BLAU}));
+    }
+
+    @Test
+    void find_WithIncludedAndExcludedColors_ShouldCombineBitsets() {
+        assertEquals(bits(1, 2, 4), index.find(List.of(BLAU, GRUEN), List.of(ROT)));
+        assertEquals(bits(1, 2, 4), index.find(List.of(), List.of(ROT)));
+        assertEquals(bits(), index.find(List.of(99L), List.of()));
+    }
+
+    @Test
+    void put_ShouldMovePersonToNewColor() {
+        index.find(List.of(), List.of());
+
+        index.put(1L, ROT);
+        index.put(5L, GRUEN);
+
+        assertEquals(bits(4), index.find(List.of(BLAU), List.of()));
+        assertEquals(bits(1, 3), index.find(List.of(ROT), List.of()));
+        assertEquals(bits(2, 5), index.find(List.of(GRUEN), List.of()));
+    }
+
+    @Test
+    void removeAndReassign_ShouldMirrorDatabaseChanges() {
+        index.find(List.of(), List.of());
+
+        index.remove(2L);
+        index.reassign(BLAU, ROT);
+
+        assertEquals(bits(), index.find(List.of(BLAU, GRUEN), List.of()));
+        assertEquals(bits(1, 3, 4), index.find(List.of(ROT), List.of()));
+    }
+
+    @Test
+    void invalidate_ShouldRebuildFromDatabaseOnNextFind() {
+        index.find(List.of(), List.of());
+        index.put(9L, BLAU);
+
+        index.invalidate();
+
+        assertEquals(bits(1, 4), index.find(List.of(BLAU), List.of()));
+        verify(personJpaRepository, times(2)).findAllIdsWithColorId();
+    }
+
+    private static BitSet bits(int... ids) {
+        BitSet bits = new BitSet();
+        for (int id : ids) {
+            bits.set(id);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,175 @@
+package com.assecor.assessment.cache;
+
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonFilter;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PersonColumnarSnapshot.
+ * Tests filter evaluation, decoding of the columns, incremental updates and parallel scans.
+ */
+@ExtendWith(MockitoExtension.class)
+class PersonColumnarSnapshotTest {
+
+    private static final Color BLAU = new Color(1L, "blau");
+    private static final Color GRUEN = new Color(2L, "grün");
+    private static final Color ROT = new Color(4L, "rot");
+
+    @Mock
+    private PersonJpaRepository personJpaRepository;
+
+    private PersonColumnarSnapshot snapshot;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        snapshot = new PersonColumnarSnapshot(personJpaRepository, new ShardRouter(1, meterRegistry), meterRegistry);
+    }
+
+    @Test
+    void query_ShouldCombineAllCriteria() {
+        // Given
+        when(personJpaRepository.findAll()).thenReturn(List.of(
+                new Person(1L, "Hans", "Müller", "67742", "Lauterecken", BLAU),
+                new Person(2L, "Peter", "Petersen", "18439", "Stralsund", GRUEN),
+                new Person(3L, "Paul", "Peters", "18055", "Stralsund", GRUEN),
+                new Person(4L, "Anna", "Müller", "18439", "Stralsund", ROT)));
+
+        // When / Then
+        assertEquals(List.of(2L, 3L), ids(snapshot.query(new PersonFilter(null, null, "stralsund", "GRÜN", "18"))));
+        assertEquals(List.of(1L, 4L), ids(snapshot.query(new PersonFilter(null, "müller", null, null, null))));
+        assertEquals(List.of(2L, 4L), ids(snapshot.query(new PersonFilter(null, null, null, null, "18439"))));
+        assertEquals(List.of(), ids(snapshot.query(new PersonFilter(null, null, "Berlin", null, null))));
+        assertEquals(List.of(1L, 2L, 3L, 4L), ids(snapshot.query(new PersonFilter(null, null, null, null, null))));
+    }
+
+    @Test
+    void query_WhileInvalidatedConcurrently_ShouldNeverSeeAnEmptySnapshot() throws Exception {
+        // Given
+        when(personJpaRepository.findAll()).thenReturn(List.of(
+                new Person(1L, "Hans", "Müller", "67742", "Lauterecken", BLAU),
+                new Person(2L, "Peter", "Petersen", "18439", "Stralsund", GRUEN)));
+        AtomicBoolean running = new AtomicBoolean(true);
+        Thread invalidator = Thread.ofPlatform().start(() -> {
+            while (running.get()) {
+                snapshot.invalidate();
+            }
+        });
+
+        // When / Then
+        try {
+            for (int i = 0; i < 2_000; i++) {
+                assertEquals(2, snapshot.query(new PersonFilter(null, null, null, null, null)).size());
+            }
+        } finally {
+            running.set(false);
+            invalidator.join();
+        }
+    }
+
+    @Test
+    void query_ShouldDecodePersonsWithLeadingZerosAndNonNumericZipcodes() {
+        // Given
+        Person leadingZero = new Person(1L, "Hans", "Müller", "01067", "Dresden", BLAU);
+        leadingZero.setVersion(3);
+        Person postcode = new Person(2L, "John", "Smith", "SW1A 1AA", "London", ROT);
+        when(personJpaRepository.findAll()).thenReturn(List.of(leadingZero, postcode));
+
+        // When
+        List<Person> byLeadingZero = snapshot.query(new PersonFilter(null, null, null, null, "010"));
+        List<Person> byPostcode = snapshot.query(new PersonFilter(null, null, null, null, "SW1A"));
+
+        // Then
+        assertEquals(List.of(leadingZero), byLeadingZero);
+        assertEquals(3, byLeadingZero.get(0).getVersion());
+        assertEquals("blau", byLeadingZero.get(0).getColorName());
+        assertEquals(List.of(postcode), byPostcode);
+        assertEquals(List.of(), snapshot.query(new PersonFilter(null, null, null, null, "1067")));
+    }
+
+    @Test
+    void writes_ShouldBeAppliedIncrementally() {
+        // Given
+        when(personJpaRepository.findAll()).thenReturn(List.of(
+                new Person(1L, "Hans", "Müller", "67742", "Lauterecken", BLAU),
+                new Person(2L, "Peter", "Petersen", "18439", "Stralsund", GRUEN),
+                new Person(3L, "Paul", "Peters", "18055", "Stralsund", GRUEN)));
+        snapshot.query(new PersonFilter(null, null, null, null, null));
+        Person patch = new Person();
+        patch.setCity("Rostock");
+
+        // When
+        snapshot.put(new Person(5L, "Jonas", "Jonasson", "18057", "Stralsund", BLAU));
+        snapshot.patch(3L, patch);
+        snapshot.remove(1L);
+        snapshot.reassign(GRUEN.getId(), BLAU.getId());
+        snapshot.renameColor(BLAU.getId(), "hellblau");
+
+        // Then
+        assertEquals(List.of(2L, 5L), ids(snapshot.query(new PersonFilter(null, null, "Stralsund", "hellblau", null))));
+        assertEquals(List.of(3L), ids(snapshot.query(new PersonFilter(null, null, "Rostock", null, "18"))));
+        assertEquals(List.of(), ids(snapshot.query(new PersonFilter("Hans", null, null, null, null))));
+        verify(personJpaRepository, times(1)).findAll();
+    }
+
+    @Test
+    void invalidate_ShouldRebuildFromDatabaseOnNextQuery() {
+        // Given
+        when(personJpaRepository.findAll()).thenReturn(List.of(
+                new Person(1L, "Hans", "Müller", "67742", "Lauterecken", BLAU)));
+        snapshot.query(new PersonFilter(null, null, null, null, null));
+
+        // When
+        snapshot.invalidate();
+        snapshot.query(new PersonFilter(null, null, null, null, null));
+
+        // Then
+        verify(personJpaRepository, times(2)).findAll();
+    }
+
+    @Test
+    void query_OverManyRows_ShouldMatchSequentialFilter() {
+        // Given
+        String[] cities = {"Lauterecken", "Stralsund", "Hansstadt", "Woanders", "Hierach"};
+        Color[] colors = {BLAU, GRUEN, ROT};
+        List<Person> persons = new ArrayList<>();
+        for (int i = 1; i <= 100_000; i++) {
+            persons.add(new Person((long) i, "Name" + (i % 1000), "Lastname", String.format("%05d", i % 100_000),
+                    cities[i % cities.length], colors[i % colors.length]));
+        }
+        when(personJpaRepository.findAll()).thenReturn(persons);
+
+        // When
+        List<Person> result = snapshot.query(new PersonFilter(null, null, "Stralsund", "grün", "1"));
+
+        // Then
+        List<Long> expected = IntStream.rangeClosed(1, 100_000)
+                .filter(i -> i % cities.length == 1 && i % colors.length == 1
+                        && String.format("%05d", i % 100_000).startsWith("1"))
+                .mapToObj(i -> (long) i)
+                .toList();
+        assertEquals(expected, ids(result));
+    }
+
+    private static List<Long> ids(List<Person> persons) {
+        return persons.stream().map(Person::getId).toList();
+    }
+}
@@ -0,0 +1,77 @@
+package com.assecor.assessment.cache;
+
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Unit tests for PersonJsonCache and PersonJsonHttpMessageConverter.
+ * Tests cache hits, staleness detection and list assembly.
+ */
+class PersonJsonCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private PersonJsonCache cache;
+    private Person person;
+
+    @BeforeEach
+    void setUp() {
+        cache = new PersonJsonCache(objectMapper, new SimpleMeterRegistry());
+        person = new Person(1L, "Hans", "Müller", "67742", "Lauterecken", new Color(1L, "blau"));
+    }
+
+    @Test
+    void get_WithSameVersion_ShouldReturnCachedBytes() throws Exception {
+        byte[] first = cache.get(person);
+        byte[] second = cache.get(person);
+
+        assertSame(first, second);
+        assertEquals("Hans", objectMapper.readTree(first).get("name").asText());
+    }
+
+    @Test
+    void get_WithNewVersion_ShouldReserialize() throws Exception {
+        byte[] first = cache.get(person);
+        person.setCity("Berlin");
+        person.setVersion(1);
+
+        byte[] second = cache.get(person);
+
+        assertNotSame(first, second);
+        assertEquals("Berlin", objectMapper.readTree(second).get("city").asText());
+    }
+
+    @Test
+    void get_WithRenamedColor_ShouldReserialize() throws Exception {
+        cache.get(person);
+        person.getColor().setName("hellblau");
+
+        assertEquals("hellblau", objectMapper.readTree(cache.get(person)).get("color").asText());
+    }
+
+    @Test
+    void converter_ShouldConcatenateCachedFragmentsIntoJsonArray() throws Exception {
+        Person other = new Person(2L, "Peter", "Petersen", "18439", "Stralsund", new Color(2L, "grün"));
+        PersonJsonHttpMessageConverter converter = new PersonJsonHttpMessageConverter(cache);
+        MockHttpOutputMessage output = new MockHttpOutputMessage();
+
+        converter.write(List.of(person, other), List.class, MediaType.APPLICATION_JSON, output);
+
+        JsonNode persons = objectMapper.readTree(output.getBodyAsBytes());
+        assertEquals(2, persons.size());
+        assertEquals("blau", persons.get(0).get("color").asText());
+        assertEquals("Peter", persons.get(1).get("name").asText());
+    }
+}
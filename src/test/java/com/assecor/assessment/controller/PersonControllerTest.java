@@ -1,35 +1,64 @@
 package com.assecor.assessment.controller;
 
+import com.assecor.assessment.cache.PersonJsonCache;
 import com.assecor.assessment.dto.PersonDto;
 import com.assecor.assessment.dto.PersonInputDto;
 import com.assecor.assessment.dto.PersonMapper;
+import com.assecor.assessment.dto.PersonPatchDto;
 import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonFilter;
 import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.PersonField;
 import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.ServiceResult;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(PersonController.class)
 class PersonControllerTest {
 
+    @TestConfiguration
+    static class PersonJsonCacheConfig {
+        @Bean
+        PersonJsonCache personJsonCache(ObjectMapper objectMapper) {
+            return new PersonJsonCache(objectMapper, new SimpleMeterRegistry());
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -132,6 +161,39 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$[0].color").value("blau"));
     }
 
+    @Test
+    void getAllPersons_WithColorFilters_ShouldReturnMatchingPersons() throws Exception {
+        when(personService.getPersonsByColors(List.of("blau", "grün"), List.of("rot")))
+                .thenReturn(List.of(testPerson1, testPerson2));
+        
+        mockMvc.perform(get("/persons").param("color", "blau,grün").param("notColor", "rot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].color").value("blau"))
+                .andExpect(jsonPath("$[1].color").value("grün"));
+        
+        verify(personService, never()).getAllPersons();
+    }
+
+    @Test
+    void getAllPersons_WithOnlyNotColor_ShouldMatchAllOtherColors() throws Exception {
+        when(personService.getPersonsByColors(List.of(), List.of("rot"))).thenReturn(List.of(testPerson1));
+        
+        mockMvc.perform(get("/persons").param("notColor", "rot"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void queryPersons_ShouldPassAllFilters() throws Exception {
+        when(personService.queryPersons(new PersonFilter(null, null, "Stralsund", "grün", "18")))
+                .thenReturn(List.of(testPerson2));
+        
+        mockMvc.perform(get("/persons/query").param("city", "Stralsund").param("color", "grün").param("zipPrefix", "18"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].color").value("grün"));
+    }
+
     @Test
     void createPerson_ShouldReturnCreatedPerson() throws Exception {
         PersonInputDto newPersonInputDto = new PersonInputDto(null, "John", "Doe", "12345", "TestCity", "rot");
@@ -140,7 +202,7 @@ class PersonControllerTest {
         PersonDto savedPersonDto = new PersonDto(11L, "John", "Doe", "12345", "TestCity", "rot");
         
         when(personMapper.toEntity(newPersonInputDto)).thenReturn(newPerson);
-        when(personService.createPerson(any(Person.class))).thenReturn(savedPerson);
+        when(personService.createPerson(any(Person.class))).thenReturn(ServiceResult.ok(savedPerson));
         when(personMapper.toDto(savedPerson)).thenReturn(savedPersonDto);
         
         mockMvc.perform(post("/persons")
@@ -152,4 +214,195 @@ class PersonControllerTest {
                 .andExpect(jsonPath("$.name").value("John"))
                 .andExpect(jsonPath("$.color").value("rot"));
     }
+
+    @Test
+    void patchPerson_WithIfMatch_ShouldReturnNewETag() throws Exception {
+        PersonPatchDto patchDto = new PersonPatchDto(null, null, null, "Berlin", null);
+        Person changes = new Person();
+        changes.setCity("Berlin");
+        
+        when(personMapper.toEntity(any(PersonPatchDto.class))).thenReturn(changes);
+        when(personService.patchPerson(eq(1), any(Person.class), eq(4L))).thenReturn(ServiceResult.ok(5L));
+        
+        mockMvc.perform(patch("/persons/1")
+                .header("If-Match", "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patchDto)))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string("ETag", "\"5\""));
+    }
+
+    @Test
+    void patchPerson_WhenVersionIsUnknown_ShouldReturnNoETag() throws Exception {
+        PersonPatchDto patchDto = new PersonPatchDto(null, null, null, "Berlin", null);
+        
+        when(personMapper.toEntity(any(PersonPatchDto.class))).thenReturn(new Person());
+        when(personService.patchPerson(eq(1), any(Person.class), eq(null))).thenReturn(ServiceResult.ok());
+        
+        mockMvc.perform(patch("/persons/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patchDto)))
+                .andExpect(status().isNoContent())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void patchPerson_WithBlankName_ShouldReturn400() throws Exception {
+        PersonPatchDto patchDto = new PersonPatchDto("   ", null, null, null, null);
+        
+        mockMvc.perform(patch("/persons/1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patchDto)))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(personService);
+    }
+
+    @Test
+    void patchPerson_WhenPersonNotExists_ShouldReturn404() throws Exception {
+        PersonPatchDto patchDto = new PersonPatchDto("Hans", null, null, null, null);
+        
+        when(personMapper.toEntity(any(PersonPatchDto.class))).thenReturn(new Person());
+        when(personService.patchPerson(eq(999), any(Person.class), eq(null))).thenReturn(ServiceResult.notFound());
+        
+        mockMvc.perform(patch("/persons/999")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patchDto)))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
+    @Test
+    void patchPerson_WhenVersionIsStale_ShouldReturn412() throws Exception {
+        PersonPatchDto patchDto = new PersonPatchDto(null, null, null, "Berlin", null);
+        
+        when(personMapper.toEntity(any(PersonPatchDto.class))).thenReturn(new Person());
+        when(personService.patchPerson(eq(1), any(Person.class), eq(3L))).thenReturn(ServiceResult.conflict());
+        
+        mockMvc.perform(patch("/persons/1")
+                .header("If-Match", "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(patchDto)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error").value("Precondition Failed"));
+    }
+
+    @Test
+    void getAllPersons_WithCborAccept_ShouldReturnCbor() throws Exception {
+        when(personService.getAllPersons()).thenReturn(List.of(testPerson1, testPerson2));
+        
+        byte[] body = mockMvc.perform(get("/persons").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn().getResponse().getContentAsByteArray();
+        
+        JsonNode persons = new CBORMapper().readTree(body);
+        assertEquals(2, persons.size());
+        assertEquals("Hans", persons.get(0).get("name").asText());
+        assertEquals("grün", persons.get(1).get("color").asText());
+    }
+
+    @Test
+    void getAllPersons_WithoutAccept_ShouldStillReturnJson() throws Exception {
+        when(personService.getAllPersons()).thenReturn(List.of(testPerson1));
+        
+        mockMvc.perform(get("/persons").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void getAllPersons_WithFields_ShouldReturnOnlyRequestedFields() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("name", "Hans");
+        when(personService.getAllPersonFields(EnumSet.of(PersonField.ID, PersonField.NAME))).thenReturn(List.of(row));
+        
+        mockMvc.perform(get("/persons").param("fields", "id,name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("Hans"))
+                .andExpect(jsonPath("$[0].color").doesNotExist());
+    }
+
+    @Test
+    void getAllPersons_WithFieldsAndColorFilter_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/persons").param("color", "blau").param("fields", "id"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/persons").param("notColor", "rot").param("fields", "id"))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(personService);
+    }
+
+    @Test
+    void getPersonById_WithUnknownField_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/persons/1").param("fields", "id,password"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getPersonsByIds_ShouldKeepRequestOrderAndReportMissing() throws Exception {
+        when(personService.getPersonsByIds(any())).thenReturn(Map.of(1L, testPerson1, 2L, testPerson2));
+        
+        mockMvc.perform(get("/persons").param("ids", "2,99,1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.persons[0].id").value(2))
+                .andExpect(jsonPath("$.persons[1].id").value(1))
+                .andExpect(jsonPath("$.missing[0]").value(99));
+    }
+
+    @Test
+    void getPersonsByIds_WithFields_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/persons").param("ids", "1,2").param("fields", "id"))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(personService);
+    }
+
+    @Test
+    void getPersonsByIds_WithInvalidId_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/persons").param("ids", "1,abc"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void createPerson_WhenPersonsAreReadOnly_ShouldReturn405() throws Exception {
+        PersonInputDto newPersonInputDto = new PersonInputDto(null, "John", "Doe", "12345", "TestCity", "rot");
+        when(personMapper.toEntity(newPersonInputDto)).thenReturn(new Person("John", "Doe", "12345", "TestCity", new Color("rot")));
+        when(personService.createPerson(any(Person.class))).thenReturn(ServiceResult.readOnly());
+
+        mockMvc.perform(post("/persons")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(newPersonInputDto)))
+                .andExpect(status().isMethodNotAllowed())
+                .andExpect(jsonPath("$.status").value(405));
+    }
+
+    @Test
+    void deletePerson_WhenPersonsAreReadOnly_ShouldReturn405() throws Exception {
+        when(personService.deletePerson(1)).thenReturn(ServiceResult.readOnly());
+
+        mockMvc.perform(delete("/persons/1"))
+                .andExpect(status().isMethodNotAllowed());
+    }
+
+    @Test
+    void deletePerson_WhenServiceFailsUnexpectedly_ShouldReturn500() throws Exception {
+        when(personService.deletePerson(1)).thenThrow(new UnsupportedOperationException("immutable list"));
+
+        mockMvc.perform(delete("/persons/1"))
+                .andExpect(status().isInternalServerError());
+    }
+
+    @Test
+    void deletePersons_WithEmptyZipPrefix_ShouldReturn400() throws Exception {
+        mockMvc.perform(delete("/persons").param("zipPrefix", ""))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(delete("/persons").param("color", "").param("zipPrefix", ""))
+                .andExpect(status().isBadRequest());
+
+        verify(personService, never()).deletePersons(any(), any());
+    }
 }
@@ -0,0 +1,87 @@
+package com.assecor.assessment.datasource;
+
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.service.ColorService;
+import com.assecor.assessment.service.PersonService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for read/write splitting with H2 databases standing in for the replicas.
+ * Replica 0 is the primary's own in-memory database and therefore always current; replica 1 is a
+ * separate empty database that never receives the heartbeat and so must never serve reads.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "datasource.routing.enabled=true",
+        "datasource.routing.heartbeat-interval=100ms",
+        "datasource.routing.replicas[0].url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "datasource.routing.replicas[0].username=sa",
+        "datasource.routing.replicas[0].password=password",
+        "datasource.routing.replicas[1].url=jdbc:h2:mem:routing-stale-replica;DB_CLOSE_DELAY=-1",
+        "datasource.routing.replicas[1].username=sa",
+        "datasource.routing.replicas[1].password=password"
+})
+@ActiveProfiles("test")
+class ReadReplicaRoutingTest {
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private ColorService colorService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void waitForFirstHeartbeat() throws InterruptedException {
+        for (int i = 0; i < 50 && Double.isNaN(lag("replica-0")); i++) {
+            Thread.sleep(100);
+        }
+        assertFalse(Double.isNaN(lag("replica-0")), "Replica 0 never received a heartbeat");
+    }
+
+    @Test
+    void reads_ShouldBeServedByTheCurrentReplica() {
+        double replicaBefore = routed("replica-0");
+        double staleBefore = routed("replica-1");
+
+        assertFalse(personService.getAllPersons().isEmpty());
+        assertFalse(colorService.getAllColors().isEmpty());
+
+        assertEquals(replicaBefore + 2, routed("replica-0"));
+        assertEquals(staleBefore, routed("replica-1"));
+        assertTrue(Double.isNaN(lag("replica-1")));
+    }
+
+    @Test
+    void writes_ShouldGoToThePrimary() {
+        Color color = colorService.getAllColors().get(0);
+        double primaryBefore = routed(ReplicaRoutingDataSource.PRIMARY);
+        double replicaBefore = routed("replica-0");
+
+        Person saved = personService.createPerson(new Person("Routing", "Write", "12345", "Primärstadt", color)).value();
+
+        assertTrue(routed(ReplicaRoutingDataSource.PRIMARY) > primaryBefore);
+        assertEquals(replicaBefore, routed("replica-0"));
+        assertTrue(personService.getAllPersons().stream().anyMatch(p -> p.getId().equals(saved.getId())));
+    }
+
+    private double routed(String pool) {
+        return meterRegistry.get("datasource.route.total").tag("pool", pool).counter().count();
+    }
+
+    private double lag(String pool) {
+        return meterRegistry.get("datasource.replica.lag").tag("pool", pool).gauge().value();
+    }
+}
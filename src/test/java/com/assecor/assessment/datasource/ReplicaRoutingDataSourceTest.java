@@ -0,0 +1,76 @@
+package com.assecor.assessment.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ReplicaRoutingDataSource.
+ * Tests the choice between primary and replicas depending on the read marker and replica lag.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dataSource = new ReplicaRoutingDataSource(pool("primary"), List.of(pool("replica-0"), pool("replica-1")),
+                Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @Test
+    void determineCurrentLookupKey_WithoutReadMarker_ShouldUsePrimary() {
+        dataSource.recordLag(0, 0);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, dataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void determineCurrentLookupKey_ShouldRoundRobinOverCurrentReplicas() {
+        dataSource.recordLag(0, 10);
+        dataSource.recordLag(1, 4_000);
+
+        List<Object> routes = ReadRoute.onReplica(() -> List.of(
+                dataSource.determineCurrentLookupKey(), dataSource.determineCurrentLookupKey()));
+
+        assertEquals(List.of("replica-0", "replica-1"), routes);
+    }
+
+    @Test
+    void determineCurrentLookupKey_ShouldSkipLaggingReplica() {
+        dataSource.recordLag(0, 10);
+        dataSource.recordLag(1, 6_000);
+
+        List<Object> routes = ReadRoute.onReplica(() -> List.of(
+                dataSource.determineCurrentLookupKey(), dataSource.determineCurrentLookupKey()));
+
+        assertEquals(List.of("replica-0", "replica-0"), routes);
+    }
+
+    @Test
+    void determineCurrentLookupKey_WhenNoReplicaIsCurrent_ShouldFallBackToPrimary() {
+        dataSource.recordLag(0, Long.MAX_VALUE);
+        dataSource.recordLag(1, 6_000);
+
+        Object route = ReadRoute.onReplica(dataSource::determineCurrentLookupKey);
+
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, route);
+        assertEquals(1, meterRegistry.get("datasource.route.fallback").counter().count());
+    }
+
+    private static HikariDataSource pool(String name) {
+        HikariDataSource pool = mock(HikariDataSource.class);
+        when(pool.getPoolName()).thenReturn(name);
+        return pool;
+    }
+}
@@ -0,0 +1,98 @@
+package com.assecor.assessment.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for ShardSchemaInitializer against in-memory H2 shards.
+ * Tests partitioning of the seed persons, restarts with the same layout and refusal of a changed layout.
+ */
+class ShardSchemaInitializerTest {
+
+    private final Resource schema = new ClassPathResource("schema.sql");
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        new ResourceDatabasePopulator(schema).execute(pool(0));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    @Test
+    void afterPropertiesSet_ShouldKeepOnlyPersonsRoutedToEachShard() throws Exception {
+        long seedPersons = count(pool(0));
+
+        initialize(2);
+
+        assertEquals(0, new JdbcTemplate(pool(0)).queryForObject(
+                "SELECT COUNT(*) FROM persons WHERE MOD(id, 2) <> 0", Long.class));
+        assertEquals(0, new JdbcTemplate(pool(1)).queryForObject(
+                "SELECT COUNT(*) FROM persons WHERE MOD(id, 2) <> 1", Long.class));
+        assertEquals(seedPersons, count(pool(0)) + count(pool(1)));
+    }
+
+    @Test
+    void afterPropertiesSet_WhenRestartedWithSameLayout_ShouldKeepPersons() throws Exception {
+        initialize(2);
+        long before = count(pool(0)) + count(pool(1));
+
+        initialize(2);
+
+        assertEquals(before, count(pool(0)) + count(pool(1)));
+    }
+
+    @Test
+    void afterPropertiesSet_WhenShardCountChanged_ShouldRefuseToStart() throws Exception {
+        // Given
+        initialize(2);
+        long shard0 = count(pool(0));
+        long shard1 = count(pool(1));
+
+        // When / Then
+        assertThrows(IllegalStateException.class, () -> initialize(3));
+        assertEquals(shard0, count(pool(0)));
+        assertEquals(shard1, count(pool(1)));
+    }
+
+    private void initialize(int shardCount) throws Exception {
+        List<HikariDataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(pool(shard));
+        }
+        new ShardSchemaInitializer(new ShardRoutingDataSource(shards, new SimpleMeterRegistry()), schema)
+                .afterPropertiesSet();
+    }
+
+    private HikariDataSource pool(int shard) {
+        while (pools.size() <= shard) {
+            HikariDataSource dataSource = new HikariDataSource();
+            // Unique per test, so every test starts from fresh databases
+            dataSource.setJdbcUrl("jdbc:h2:mem:shard-init-" + System.identityHashCode(this) + "-" + pools.size()
+                    + ";MODE=PostgreSQL");
+            dataSource.setUsername("sa");
+            pools.add(dataSource);
+        }
+        return pools.get(shard);
+    }
+
+    private static long count(HikariDataSource dataSource) {
+        return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM persons", Long.class);
+    }
+}
@@ -0,0 +1,181 @@
+package com.assecor.assessment.datasource;
+
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonField;
+import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import com.assecor.assessment.service.ColorService;
+import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.ServiceResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for persons sharded across three H2 databases.
+ * Tests partitioning of the seed data, ID allocation, routing and scatter-gather queries.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shard-0;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "datasource.sharding.enabled=true",
+        "datasource.sharding.shards[0].url=jdbc:h2:mem:shard-1;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "datasource.sharding.shards[0].username=sa",
+        "datasource.sharding.shards[0].password=password",
+        "datasource.sharding.shards[1].url=jdbc:h2:mem:shard-2;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "datasource.sharding.shards[1].username=sa",
+        "datasource.sharding.shards[1].password=password"
+})
+@ActiveProfiles("test")
+class ShardedPersonStorageTest {
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private ColorService colorService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private PersonJpaRepository personJpaRepository;
+
+    @Autowired
+    private ColorJpaRepository colorJpaRepository;
+
+    @Test
+    void everyShard_ShouldHoldOnlyPersonsRoutedToIt() {
+        List<List<Person>> personsByShard = shardRouter.mapShards(shard -> personJpaRepository.findAll());
+
+        assertEquals(3, personsByShard.size());
+        for (int shard = 0; shard < personsByShard.size(); shard++) {
+            assertFalse(personsByShard.get(shard).isEmpty());
+            for (Person person : personsByShard.get(shard)) {
+                assertEquals(shard, shardRouter.shardFor(person.getId()));
+            }
+        }
+    }
+
+    @Test
+    void getAllPersons_ShouldMergeAllShardsInIdOrder() {
+        List<Long> ids = personService.getAllPersons().stream().map(Person::getId).toList();
+
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertTrue(ids.containsAll(LongStream.rangeClosed(1, 10).boxed().toList()));
+    }
+
+    @Test
+    void getAllPersonFields_ShouldMergeAllShardsInIdOrder() {
+        List<Person> persons = personService.getAllPersons();
+
+        List<Map<String, Object>> names = personService.getAllPersonFields(EnumSet.of(PersonField.NAME));
+
+        assertEquals(persons.stream().map(Person::getName).toList(), names.stream().map(row -> row.get("name")).toList());
+        assertTrue(names.stream().allMatch(row -> row.size() == 1));
+    }
+
+    @Test
+    void createPerson_ShouldSpreadPersonsAndRouteThemByTheirId() {
+        Set<Integer> shards = new HashSet<>();
+        for (int i = 0; i < 3; i++) {
+            Person saved = personService.createPerson(new Person("Shard", "Verteilt" + i, "12345", "Teilstadt", new Color("gelb"))).value();
+            shards.add(shardRouter.shardFor(saved.getId()));
+
+            Optional<Person> found = personService.getPersonById(saved.getId().intValue());
+            assertTrue(found.isPresent());
+            assertEquals("Verteilt" + i, found.get().getLastname());
+        }
+        assertEquals(Set.of(0, 1, 2), shards);
+    }
+
+    @Test
+    void updateAndDelete_ShouldReachTheOwningShard() {
+        Person saved = personService.createPerson(new Person("Shard", "Ändern", "12345", "Teilstadt", new Color("rot"))).value();
+        int id = saved.getId().intValue();
+
+        personService.updatePerson(id, new Person("Shard", "Geändert", "54321", "Teilstadt", new Color("blau")));
+        assertEquals("Geändert", personService.getPersonById(id).orElseThrow().getLastname());
+
+        assertTrue(personService.deletePerson(id).isOk());
+        assertTrue(personService.getPersonById(id).isEmpty());
+    }
+
+    @Test
+    void getPersonsByColor_ShouldGatherFromAllShards() {
+        List<Long> created = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            created.add(personService.createPerson(
+                    new Person("Shard", "Weiß" + i, "12345", "Teilstadt", new Color("weiß"))).value().getId());
+        }
+
+        List<Long> found = personService.getPersonsByColor("weiß").stream().map(Person::getId).toList();
+
+        assertTrue(found.containsAll(created));
+        assertEquals(found.stream().sorted().toList(), found);
+    }
+
+    @Test
+    void createColor_ShouldBeCopiedToEveryShardWithTheSameId() {
+        Color saved = colorService.createColor(new Color("magenta")).value();
+
+        List<Optional<Color>> copies = shardRouter.mapShards(shard -> colorJpaRepository.findById(saved.getId()));
+
+        assertTrue(copies.stream().allMatch(copy -> copy.isPresent() && copy.get().getName().equals("magenta")));
+    }
+
+    @Test
+    void createColor_WhenOneShardRefusesCopy_ShouldRemoveItFromTheOthers() {
+        // Given a stray color of the same name on the last shard only
+        shardRouter.onShard(2, () -> colorJpaRepository.insertWithId(1_000L, "cyan"));
+
+        // When
+        ServiceResult<Color> result = colorService.createColor(new Color("cyan"));
+
+        // Then
+        assertEquals(ServiceResult.Status.CONFLICT, result.status());
+        List<Optional<Color>> copies = shardRouter.mapShards(shard -> colorJpaRepository.findByNameIgnoreCase("cyan"));
+        assertTrue(copies.get(0).isEmpty());
+        assertTrue(copies.get(1).isEmpty());
+        assertEquals(1_000L, copies.get(2).orElseThrow().getId());
+    }
+
+    @Test
+    void updateColor_WhenOneShardRefusesName_ShouldRestoreItOnTheOthers() {
+        // Given a stray color with the new name on the last shard only
+        Color saved = colorService.createColor(new Color("rosa")).value();
+        shardRouter.onShard(2, () -> colorJpaRepository.insertWithId(1_001L, "magenta"));
+
+        // When
+        ServiceResult<Color> result = colorService.updateColor(saved.getId(), new Color("magenta"));
+
+        // Then
+        assertEquals(ServiceResult.Status.CONFLICT, result.status());
+        assertEquals(List.of("rosa", "rosa", "rosa"), shardRouter.mapShards(
+                shard -> colorJpaRepository.findById(saved.getId()).orElseThrow().getName()));
+    }
+
+    @Test
+    void deleteColor_ShouldRemoveItFromEveryShard() {
+        Color saved = colorService.createColor(new Color("ocker")).value();
+
+        assertTrue(colorService.deleteColor(saved.getId()).isOk());
+
+        assertTrue(shardRouter.mapShards(shard -> colorJpaRepository.existsById(saved.getId())).stream()
+                .noneMatch(Boolean::booleanValue));
+    }
+}
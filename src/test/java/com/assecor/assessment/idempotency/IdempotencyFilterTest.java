@@ -0,0 +1,176 @@
+package com.assecor.assessment.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for IdempotencyFilter and IdempotencyStore.
+ * Tests replaying, concurrent duplicates, key reuse, server errors, expiry and the size bound.
+ */
+class IdempotencyFilterTest {
+
+    private final AtomicInteger executions = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    private IdempotencyFilter filter;
+    private volatile CountDownLatch release;
+    private volatile int status;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new IdempotencyFilter(new IdempotencyProperties(true, Duration.ofHours(1), 100, Duration.ofSeconds(5)),
+                meterRegistry);
+        status = 201;
+    }
+
+    @Test
+    void doFilter_WhenRetried_ShouldReplayOriginalResponse() throws Exception {
+        // Given
+        MockHttpServletResponse original = post("key-1", "{\"name\":\"blau\"}");
+
+        // When
+        MockHttpServletResponse retry = post("key-1", "{\"name\":\"blau\"}");
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(original.getContentAsString(), retry.getContentAsString());
+        assertEquals("/colors/1", retry.getHeader("Location"));
+        assertEquals("application/json", retry.getContentType());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        assertNull(original.getHeader(IdempotencyFilter.IDEMPOTENT_REPLAYED));
+        assertEquals(1.0, meterRegistry.get("idempotency.requests").tag("outcome", "replayed").counter().count());
+    }
+
+    @Test
+    void doFilter_WithoutKey_ShouldExecuteEveryRequest() throws Exception {
+        post(null, "{}");
+        post(null, "{}");
+
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void doFilter_WhenDuplicateArrivesWhileOriginalRuns_ShouldWaitForIt() throws Exception {
+        // Given
+        release = new CountDownLatch(1);
+        CompletableFuture<MockHttpServletResponse> original = CompletableFuture.supplyAsync(() -> postUnchecked("key-1"));
+        while (executions.get() == 0) {
+            Thread.sleep(1);
+        }
+
+        // When
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(() -> postUnchecked("key-1"));
+        Thread.sleep(50);
+        assertFalse(duplicate.isDone());
+        release.countDown();
+
+        // Then
+        assertEquals(201, duplicate.get(5, TimeUnit.SECONDS).getStatus());
+        assertEquals(original.get(5, TimeUnit.SECONDS).getContentAsString(),
+                duplicate.get().getContentAsString());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void doFilter_WhenKeyIsReusedForAnotherBody_ShouldReturn422() throws Exception {
+        post("key-1", "{\"name\":\"blau\"}");
+
+        MockHttpServletResponse reused = post("key-1", "{\"name\":\"rot\"}");
+
+        assertEquals(422, reused.getStatus());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void doFilter_WhenOriginalFailsWithServerError_ShouldExecuteRetry() throws Exception {
+        // Given
+        status = 503;
+        post("key-1", "{}");
+
+        // When
+        status = 201;
+        MockHttpServletResponse retry = post("key-1", "{}");
+
+        // Then
+        assertEquals(201, retry.getStatus());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void store_ShouldForgetExpiredKeysAndStayWithinBound() {
+        IdempotencyStore store = new IdempotencyStore(100, 2);
+
+        assertTrue(store.claim("a", new byte[0], 0).owner());
+        assertFalse(store.claim("a", new byte[0], 50).owner());
+        assertTrue(store.claim("a", new byte[0], 100).owner());
+
+        store.claim("b", new byte[0], 110);
+        store.claim("c", new byte[0], 120);
+        assertEquals(2, store.size());
+        assertTrue(store.claim("a", new byte[0], 130).owner());
+    }
+
+    private MockHttpServletResponse post(String key, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/colors");
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY, key);
+        }
+        request.setContentType("application/json");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new CreatingServlet()));
+        return response;
+    }
+
+    private MockHttpServletResponse postUnchecked(String key) {
+        try {
+            return post(key, "{}");
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Stands in for the controllers: echoes the body with a fresh ID per execution.
+     */
+    private class CreatingServlet extends HttpServlet {
+
+        @Override
+        protected void service(HttpServletRequest request, HttpServletResponse response) throws IOException {
+            int id = executions.incrementAndGet();
+            String body = new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            response.setStatus(status);
+            response.setHeader("Location", "/colors/" + id);
+            response.setContentType("application/json");
+            response.getWriter().write("{\"id\":" + id + ",\"request\":" + body + "}");
+        }
+    }
+}
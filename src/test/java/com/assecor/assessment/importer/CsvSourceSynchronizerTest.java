@@ -0,0 +1,144 @@
+package com.assecor.assessment.importer;
+
+import com.assecor.assessment.importer.CsvSourceSynchronizer.SyncResult;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.ServiceResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Integration tests for the CSV source.
+ * Tests the initial load, diffing against the applied version and picking up changes to the file.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:csv-source;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "csv-source.enabled=true",
+        // Long enough that the watcher never reloads between a test's write and its own reload
+        "csv-source.debounce=1s"
+})
+@ActiveProfiles("test")
+@DirtiesContext
+class CsvSourceSynchronizerTest {
+
+    private static final String INITIAL = """
+            Müller, Hans, 67742 Lauterecken, 1
+            Petersen, Peter, 18439 Stralsund, 2
+            Johnson, Johnny, 88888 made up, 3
+            """;
+
+    private static Path csvFile;
+
+    @Autowired
+    private CsvSourceSynchronizer csvSourceSynchronizer;
+
+    @Autowired
+    private PersonService personService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void csvSource(DynamicPropertyRegistry registry) throws IOException {
+        csvFile = Files.createTempDirectory("csv-source").resolve("persons.csv");
+        Files.writeString(csvFile, INITIAL, StandardCharsets.UTF_8);
+        registry.add("csv-source.path", csvFile::toString);
+    }
+
+    @BeforeEach
+    void resetFile() throws IOException {
+        write(INITIAL);
+        csvSourceSynchronizer.reload();
+    }
+
+    @Test
+    void reload_ShouldApplyOnlyChangedRows() throws IOException {
+        // Given
+        write("""
+                Müller, Hans, 67742 Kaiserslautern, 1
+                Petersen, Peter, 18439 Stralsund, 2
+
+                Bart, Bertram,
+                12313 Wasweißich, 1
+                """);
+
+        // When
+        SyncResult result = csvSourceSynchronizer.reload();
+
+        // Then
+        assertEquals(new SyncResult(1, 1, 1), result);
+        assertEquals("Kaiserslautern", personService.getPersonById(1).orElseThrow().getCity());
+        assertEquals("Stralsund", personService.getPersonById(2).orElseThrow().getCity());
+        assertTrue(personService.getPersonById(3).isEmpty());
+        assertEquals("Bertram", personService.getPersonById(4).orElseThrow().getName());
+    }
+
+    @Test
+    void reload_WhenFileIsUnchanged_ShouldWriteNothing() throws IOException {
+        assertEquals(new SyncResult(0, 0, 0), csvSourceSynchronizer.reload());
+    }
+
+    @Test
+    void personWrites_ShouldBeRefusedWhileTheFileOwnsTheIds() {
+        // When
+        ServiceResult<Person> created = personService.createPerson(new Person("Klaus", "Klaussen", "43246", "Hierach",
+                personService.getPersonById(1).orElseThrow().getColor()));
+        ServiceResult<Void> deleted = personService.deletePerson(1);
+
+        // Then
+        assertEquals(ServiceResult.Status.READ_ONLY, created.status());
+        assertEquals(ServiceResult.Status.READ_ONLY, deleted.status());
+        assertTrue(personService.getPersonById(1).isPresent());
+    }
+
+    @Test
+    void reload_WithRecordsBeyondTheIdentity_ShouldRestartItPastThem() throws IOException {
+        // Given a record starting in line 25
+        write(INITIAL + "Andersson, Anders, 32132 Schweden, 2\n" + "\n".repeat(20) + "Gerber, Gerda, 76535 Woanders, 3\n");
+
+        // When
+        csvSourceSynchronizer.reload();
+
+        // Then
+        jdbcTemplate.update("INSERT INTO persons (name, lastname, zipcode, city, color_id) "
+                + "VALUES ('Klaus', 'Klaussen', '43246', 'Hierach', 1)");
+        assertTrue(jdbcTemplate.queryForObject("SELECT MAX(id) FROM persons WHERE name = 'Klaus'", Long.class) > 25);
+        jdbcTemplate.update("DELETE FROM persons WHERE name = 'Klaus'");
+    }
+
+    @Test
+    void watcher_ShouldApplyChangesToTheFile() throws Exception {
+        // When
+        write(INITIAL.replace("made up", "Hansstadt"));
+
+        // Then
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        Optional<Person> person = personService.getPersonById(3);
+        while (!"Hansstadt".equals(person.map(Person::getCity).orElse(null)) && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+            person = personService.getPersonById(3);
+        }
+        assertEquals("Hansstadt", person.orElseThrow().getCity());
+    }
+
+    private static void write(String content) throws IOException {
+        Files.writeString(csvFile, content, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,150 @@
+package com.assecor.assessment.importer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+
+/**
+ * Unit tests for ImportJobService.
+ * Tests spooling uploads to disk, progress reporting, failures and the bounded queue.
+ */
+@ExtendWith(MockitoExtension.class)
+class ImportJobServiceTest {
+
+    @Mock
+    private PersonImporter personImporter;
+
+    @TempDir
+    private Path spoolDirectory;
+
+    private ImportJobService importJobService;
+
+    @BeforeEach
+    void setUp() {
+        ImportProperties properties = new ImportProperties(ImportProperties.DuplicatePolicy.SKIP, 0.01, 100,
+                1, 1, spoolDirectory, Duration.ofHours(1));
+        importJobService = new ImportJobService(personImporter, properties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        importJobService.shutdown();
+    }
+
+    @Test
+    void submit_ShouldImportSpooledFileInBackground() throws Exception {
+        // Given
+        doAnswer(invocation -> {
+            Reader reader = invocation.getArgument(0);
+            ImportProgress progress = invocation.getArgument(1);
+            assertEquals("Müller, Hans, 67742 Lauterecken, 1", new BufferedReader(reader).readLine());
+            progress.rowParsed();
+            progress.inserted();
+            return null;
+        }).when(personImporter).importCsv(any(Reader.class), any(ImportProgress.class));
+
+        // When
+        ImportJob job = importJobService.submit(csv("Müller, Hans, 67742 Lauterecken, 1\n"));
+        ImportJobStatus status = awaitFinished(job);
+
+        // Then
+        assertEquals(ImportJob.Status.COMPLETED, status.status());
+        assertEquals(1, status.result().rowsParsed());
+        assertEquals(1, status.result().inserted());
+        assertEquals(job, importJobService.getJob(job.getId()).orElseThrow());
+        try (var files = Files.list(spoolDirectory)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void submit_WhenImportFails_ShouldMarkJobFailed() throws Exception {
+        // Given
+        doThrow(new IOException("Invalid CSV in line 3"))
+                .when(personImporter).importCsv(any(Reader.class), any(ImportProgress.class));
+
+        // When
+        ImportJobStatus status = awaitFinished(importJobService.submit(csv("broken")));
+
+        // Then
+        assertEquals(ImportJob.Status.FAILED, status.status());
+        assertEquals("Invalid CSV in line 3", status.error());
+    }
+
+    @Test
+    void submit_WhenQueueIsFull_ShouldRefuseUploadAndDeleteIt() throws Exception {
+        // Given one running and one queued import
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> release.await(10, TimeUnit.SECONDS))
+                .when(personImporter).importCsv(any(Reader.class), any(ImportProgress.class));
+        importJobService.submit(csv("first"));
+        importJobService.submit(csv("second"));
+
+        InputStream third = csv("third");
+
+        // When / Then
+        assertThrows(RejectedExecutionException.class, () -> importJobService.submit(third));
+        assertEquals(5, third.available(), "A refused upload should not be read");
+        try (var files = Files.list(spoolDirectory)) {
+            assertTrue(files.count() <= 2);
+        }
+        release.countDown();
+    }
+
+    @Test
+    void submit_AfterQueuedImportsFinished_ShouldAcceptAgain() throws Exception {
+        // Given
+        ImportJob first = importJobService.submit(csv("first"));
+        ImportJob second = importJobService.submit(csv("second"));
+        awaitFinished(first);
+        awaitFinished(second);
+
+        // When
+        ImportJob third = importJobService.submit(csv("third"));
+
+        // Then
+        assertEquals(ImportJob.Status.COMPLETED, awaitFinished(third).status());
+    }
+
+    private static InputStream csv(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static ImportJobStatus awaitFinished(ImportJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            ImportJobStatus status = job.status(Instant.now());
+            if (status.finishedAt() != null) {
+                return status;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Import " + job.getId() + " did not finish");
+    }
+}
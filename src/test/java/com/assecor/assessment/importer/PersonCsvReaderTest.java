@@ -0,0 +1,82 @@
+package com.assecor.assessment.importer;
+
+import com.assecor.assessment.importer.PersonCsvReader.CsvRecord;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for PersonCsvReader.
+ * Tests parsing of the sample-input.csv format, records spanning lines and malformed records.
+ */
+class PersonCsvReaderTest {
+
+    @Test
+    void next_ShouldParseRecordsInSampleFormat() throws IOException {
+        // When
+        List<CsvRecord> records = readAll("""
+                Müller, Hans, 67742 Lauterecken, 1
+                Andersson, Anders, 32132 Schweden - ☀, 2
+                """);
+
+        // Then
+        assertEquals(List.of(
+                new CsvRecord(1, "Hans", "Müller", "67742", "Lauterecken", 1, null),
+                new CsvRecord(2, "Anders", "Andersson", "32132", "Schweden - ☀", 2, null)), records);
+    }
+
+    @Test
+    void next_ShouldJoinRecordsContinuedOnTheNextLine() throws IOException {
+        // When
+        List<CsvRecord> records = readAll("""
+                Bart, Bertram,
+                12313 Wasweißich, 1
+
+                Gerber, Gerda, 76535 Woanders, 3
+                """);
+
+        // Then
+        assertEquals(2, records.size());
+        assertEquals(new CsvRecord(1, "Bertram", "Bart", "12313", "Wasweißich", 1, null), records.get(0));
+        assertEquals(4, records.get(1).line());
+    }
+
+    @Test
+    void next_ShouldRejectMalformedRecordsAndContinue() throws IOException {
+        // When
+        List<CsvRecord> records = readAll("""
+                Müller, Hans, 67742Lauterecken, 1
+                Petersen, Peter, 18439 Stralsund, blau
+                Klaussen, Klaus, 43246 Hierach, 2, 5
+                Millenium, Milly, 77777 made up too, 4
+                Fujitsu, Tastatur,
+                """);
+
+        // Then
+        assertEquals(5, records.size());
+        assertTrue(records.get(0).isRejected());
+        assertTrue(records.get(1).isRejected());
+        assertTrue(records.get(2).isRejected());
+        assertFalse(records.get(3).isRejected());
+        assertTrue(records.get(4).isRejected());
+        assertEquals(5, records.get(4).line());
+    }
+
+    private static List<CsvRecord> readAll(String csv) throws IOException {
+        List<CsvRecord> records = new ArrayList<>();
+        try (PersonCsvReader reader = new PersonCsvReader(new StringReader(csv))) {
+            CsvRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
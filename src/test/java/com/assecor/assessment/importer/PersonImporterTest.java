@@ -0,0 +1,174 @@
+package com.assecor.assessment.importer;
+
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.importer.ImportProperties.DuplicatePolicy;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import com.assecor.assessment.service.PersonService;
+import com.assecor.assessment.service.ServiceResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PersonImporter.
+ * Tests the Bloom filter pre-check, exact confirmation of duplicates, the duplicate policies and metrics.
+ */
+@ExtendWith(MockitoExtension.class)
+class PersonImporterTest {
+
+    private static final Color BLAU = new Color(1L, "blau");
+
+    @Mock
+    private PersonService personService;
+
+    @Mock
+    private PersonJpaRepository personJpaRepository;
+
+    @Mock
+    private ColorJpaRepository colorJpaRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private Person existing;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        existing = new Person(1L, "Hans", "Müller", "67742", "Lauterecken", BLAU);
+        when(personJpaRepository.findAllDuplicateKeys()).thenReturn(List.<Object[]>of(new Object[] {"Hans", "Müller", "67742"}));
+        lenient().when(colorJpaRepository.findById(1L)).thenReturn(Optional.of(BLAU));
+        lenient().when(colorJpaRepository.findById(99L)).thenReturn(Optional.empty());
+        lenient().when(personService.createPerson(any(Person.class)))
+                .thenAnswer(invocation -> ServiceResult.ok(invocation.getArgument(0)));
+        lenient().when(personService.updatePerson(anyInt(), any(Person.class)))
+                .thenAnswer(invocation -> ServiceResult.ok(invocation.getArgument(1)));
+    }
+
+    @Test
+    void importCsv_WhenPersonsAreReadOnly_ShouldRejectRows() throws IOException {
+        // Given
+        when(personService.createPerson(any(Person.class))).thenReturn(ServiceResult.readOnly());
+
+        // When
+        ImportResult result = importer(DuplicatePolicy.SKIP).importCsv(new StringReader("""
+                Petersen, Peter, 18439 Stralsund, 1
+                """));
+
+        // Then
+        assertEquals(0, result.inserted());
+        assertEquals(1, result.rejected());
+        assertEquals(1, result.problems().size());
+    }
+
+    @Test
+    void importCsv_ShouldInsertNewRowsWithoutDatabaseLookup() throws IOException {
+        // When
+        ImportResult result = importer(DuplicatePolicy.SKIP).importCsv(new StringReader("""
+                Petersen, Peter, 18439 Stralsund, 1
+                Johnson, Johnny, 88888 made up, 1
+                """));
+
+        // Then
+        assertEquals(new ImportResult(2, 2, 0, 0, 0, List.of()), result);
+        verify(personService, times(2)).createPerson(any(Person.class));
+        verify(personJpaRepository, never()).findByDuplicateKey(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void importCsv_WithSkipPolicy_ShouldDropConfirmedDuplicates() throws IOException {
+        // Given
+        when(personJpaRepository.findByDuplicateKey("hans", "müller", "67742")).thenReturn(List.of(existing));
+
+        // When
+        ImportResult result = importer(DuplicatePolicy.SKIP).importCsv(new StringReader("""
+                MÜLLER,  hans , 67742 Lauterecken, 1
+                """));
+
+        // Then
+        assertEquals(new ImportResult(1, 0, 0, 1, 0, List.of()), result);
+        verify(personService, never()).createPerson(any(Person.class));
+        assertEquals(1.0, meterRegistry.get("import.duplicate.rate").gauge().value());
+    }
+
+    @Test
+    void importCsv_WithUpdatePolicy_ShouldOverwriteExistingPerson() throws IOException {
+        // Given
+        when(personJpaRepository.findByDuplicateKey("hans", "müller", "67742")).thenReturn(List.of(existing));
+
+        // When
+        ImportResult result = importer(DuplicatePolicy.UPDATE).importCsv(new StringReader("""
+                Müller, Hans, 67742 Kaiserslautern, 1
+                """));
+
+        // Then
+        assertEquals(new ImportResult(1, 0, 1, 1, 0, List.of()), result);
+        verify(personService).updatePerson(eq(1), any(Person.class));
+    }
+
+    @Test
+    void importCsv_WithReportPolicy_ShouldListDuplicatesAndRejectedRows() throws IOException {
+        // Given
+        when(personJpaRepository.findByDuplicateKey("hans", "müller", "67742")).thenReturn(List.of(existing));
+
+        // When
+        ImportResult result = importer(DuplicatePolicy.REPORT).importCsv(new StringReader("""
+                Müller, Hans, 67742 Lauterecken, 1
+                Petersen, Peter, 18439 Stralsund, 99
+                Petersen, Peter, 1843 Stralsund, 1
+                """));
+
+        // Then
+        assertEquals(List.of(
+                new ImportResult.Problem(1, "Duplicate of person with ID 1"),
+                new ImportResult.Problem(2, "Color with ID 99 not found"),
+                new ImportResult.Problem(3, "Zipcode must be between 5 and 10 characters")), result.problems());
+        assertEquals(2, result.rejected());
+        verify(personService, never()).createPerson(any(Person.class));
+    }
+
+    @Test
+    void importCsv_WhenBloomFilterReportsFalsePositive_ShouldInsertAndCountIt() throws IOException {
+        // Given
+        when(personJpaRepository.findByDuplicateKey("peter", "petersen", "18439")).thenReturn(List.of());
+
+        // When the filter knows the key of the first row but the database does not, as inserts are mocked
+        PersonImporter importer = importer(DuplicatePolicy.SKIP);
+        importer.importCsv(new StringReader("""
+                Petersen, Peter, 18439 Stralsund, 1
+                Petersen, Peter, 18439 Stralsund, 1
+                """));
+
+        // Then
+        verify(personService, times(2)).createPerson(any(Person.class));
+        assertEquals(1.0, meterRegistry.get("import.duplicate.bloom.false.positive").counter().count());
+    }
+
+    private PersonImporter importer(DuplicatePolicy policy) {
+        return new PersonImporter(personService, personJpaRepository, colorJpaRepository,
+                new ShardRouter(1, meterRegistry), Validation.buildDefaultValidatorFactory().getValidator(),
+                new ImportProperties(policy, 0.01, 100, 1, 1, null, Duration.ofHours(1)), meterRegistry);
+    }
+}
@@ -0,0 +1,93 @@
+package com.assecor.assessment.json;
+
+import com.assecor.assessment.dto.PersonDto;
+import com.assecor.assessment.dto.PersonInputDto;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.exc.UnrecognizedPropertyException;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for PersonJsonModule.
+ * Tests that the streaming serializers produce the same JSON as the annotated classes and read it back.
+ */
+class PersonJsonModuleTest {
+
+    private final ObjectMapper reflective = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    private final ObjectMapper streaming = new ObjectMapper()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .registerModule(new PersonJsonModule());
+
+    @Test
+    void serialize_ShouldMatchAnnotatedClasses() throws Exception {
+        Color blau = new Color(1L, "blau");
+        List<Object> values = List.of(
+                new Person(1L, "Hans", "Müller", "67742", "Lauterecken", blau),
+                new Person("Neu", "Ohne \"ID\"", "12345", "Zürich\n", null),
+                new PersonDto(2L, "Peter", "Petersen", "18439", "Stralsund", "grün"),
+                new PersonInputDto(null, "Johnny", "Johnson", "88888", "made up", "violett"),
+                blau);
+
+        for (Object value : values) {
+            assertEquals(reflective.writeValueAsString(value), streaming.writeValueAsString(value));
+        }
+    }
+
+    @Test
+    void deserialize_Person_ShouldReadColorAsName() throws Exception {
+        // When
+        Person person = streaming.readValue(
+                "{\"id\":7,\"name\":\"Hans\",\"lastname\":\"Müller\",\"zipcode\":\"67742\",\"city\":\"Lauterecken\","
+                        + "\"color\":\"blau\",\"version\":3,\"unknown\":{\"nested\":[1,2]}}", Person.class);
+
+        // Then
+        assertEquals(7L, person.getId());
+        assertEquals("Lauterecken", person.getCity());
+        assertEquals("blau", person.getColorName());
+        assertNull(person.getColor().getId());
+        assertEquals(0L, person.getVersion());
+    }
+
+    @Test
+    void deserialize_ShouldRoundTripListsInEveryFormat() throws Exception {
+        List<PersonInputDto> dtos = List.of(
+                new PersonInputDto(null, "Hans", "Müller", "67742", "Lauterecken", "blau"),
+                new PersonInputDto(3L, "Peter", null, "18439", "Stralsund", null));
+        CBORMapper cbor = CBORMapper.builder().addModule(new PersonJsonModule()).build();
+
+        assertEquals(dtos, streaming.readValue(streaming.writeValueAsBytes(dtos), new TypeReference<List<PersonInputDto>>() {
+        }));
+        assertEquals(dtos, cbor.readValue(cbor.writeValueAsBytes(dtos), new TypeReference<List<PersonInputDto>>() {
+        }));
+    }
+
+    @Test
+    void deserialize_ShouldCoerceScalarsLikeJackson() throws Exception {
+        PersonDto dto = streaming.readValue("{\"id\":\"5\",\"zipcode\":12345,\"color\":null}", PersonDto.class);
+
+        assertEquals(5L, dto.getId());
+        assertEquals("12345", dto.getZipcode());
+        assertNull(dto.getColor());
+    }
+
+    @Test
+    void deserialize_ShouldRejectMalformedInput() {
+        ObjectMapper strict = new ObjectMapper().registerModule(new PersonJsonModule());
+
+        assertThrows(MismatchedInputException.class, () -> streaming.readValue("[1]", Color.class));
+        assertThrows(MismatchedInputException.class, () -> streaming.readValue("{\"name\":[\"x\"]}", Color.class));
+        assertThrows(UnrecognizedPropertyException.class, () -> strict.readValue("{\"nickname\":\"x\"}", PersonDto.class));
+    }
+}
@@ -0,0 +1,69 @@
+package com.assecor.assessment.metrics;
+
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for MetricsSnapshotEndpoint.
+ * Tests the aggregation of request latency and pool meters.
+ */
+class MetricsSnapshotEndpointTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MetricsSnapshotEndpoint endpoint;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        endpoint = new MetricsSnapshotEndpoint(meterRegistry);
+    }
+
+    @Test
+    void snapshot_ShouldAggregateRequestLatencyAndSkipActuator() {
+        Timer persons = Timer.builder("http.server.requests")
+                .tags("method", "GET", "uri", "/persons", "status", "200")
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        persons.record(Duration.ofMillis(5));
+        persons.record(Duration.ofMillis(50));
+        Timer.builder("http.server.requests")
+                .tags("method", "GET", "uri", "/actuator/dashboard", "status", "200")
+                .register(meterRegistry)
+                .record(Duration.ofMillis(1));
+
+        MetricsSnapshot snapshot = endpoint.snapshot();
+
+        assertEquals(1, snapshot.endpoints().size());
+        MetricsSnapshot.Endpoint endpointStats = snapshot.endpoints().get(0);
+        assertEquals("/persons", endpointStats.uri());
+        assertEquals(2, endpointStats.count());
+        assertTrue(endpointStats.percentiles().containsKey("0.99"));
+        assertFalse(endpointStats.histogram().isEmpty());
+        assertEquals(2.0, endpointStats.histogram().get(endpointStats.histogram().size() - 1).count());
+    }
+
+    @Test
+    void snapshot_ShouldReportHikariPoolSaturation() {
+        meterRegistry.gauge("hikaricp.connections.active", Tags.of("pool", "main"), 7);
+        meterRegistry.gauge("hikaricp.connections.max", Tags.of("pool", "main"), 10);
+        meterRegistry.gauge("hikaricp.connections.pending", Tags.of("pool", "main"), 3);
+
+        MetricsSnapshot snapshot = endpoint.snapshot();
+
+        assertEquals(1, snapshot.pools().size());
+        assertEquals("main", snapshot.pools().get(0).name());
+        assertEquals(7.0, snapshot.pools().get(0).active());
+        assertEquals(3.0, snapshot.pools().get(0).pending());
+        assertEquals(0.0, snapshot.pools().get(0).idle());
+    }
+}
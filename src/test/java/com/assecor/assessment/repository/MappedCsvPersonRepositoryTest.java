@@ -0,0 +1,96 @@
+package com.assecor.assessment.repository;
+
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for MappedCsvPersonRepository.
+ * Tests indexing of the sample-input.csv format, lookups by ID and color, and skipped records.
+ */
+class MappedCsvPersonRepositoryTest {
+
+    private static final List<Color> COLORS = List.of(new Color(1L, "blau"), new Color(2L, "grün"),
+            new Color(3L, "violett"));
+
+    @TempDir
+    private Path directory;
+
+    private MappedCsvPersonRepository repository;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path csv = directory.resolve("persons.csv");
+        Files.writeString(csv, """
+                Müller, Hans, 67742 Lauterecken, 1
+                Andersson, Anders, 32132 Schweden - ☀, 2
+
+                Bart, Bertram,
+                12313 Wasweißich, 1
+                Broken, Record, 12345 Nowhere, 1, extra
+                Unknown, Color, 12345 Nowhere, 9
+                Nocity, Address, 12345, 3
+                Gerber, Gerda, 76535 Woanders, 3\r
+                """, StandardCharsets.UTF_8);
+        repository = new MappedCsvPersonRepository(csv, COLORS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    @Test
+    void findAll_ShouldDecodeValidRecordsWithLineAsId() {
+        // When
+        List<Person> persons = repository.findAll();
+
+        // Then
+        assertEquals(List.of(1L, 2L, 4L, 9L), ids(persons));
+        Person bart = persons.get(2);
+        assertEquals("Bertram", bart.getName());
+        assertEquals("Bart", bart.getLastname());
+        assertEquals("12313", bart.getZipcode());
+        assertEquals("Wasweißich", bart.getCity());
+        assertEquals("blau", bart.getColorName());
+        assertEquals("Schweden - ☀", persons.get(1).getCity());
+        assertEquals("Woanders", persons.get(3).getCity());
+        assertEquals(5, repository.count());
+    }
+
+    @Test
+    void findById_ShouldUseTheIndex() {
+        assertEquals("Gerda", repository.findById(9).orElseThrow().getName());
+        assertTrue(repository.findById(3).isEmpty());
+        assertTrue(repository.findById(6).isEmpty());
+        assertTrue(repository.findById(8).isEmpty());
+    }
+
+    @Test
+    void findAllById_ShouldReturnFoundPersonsOrderedById() {
+        assertEquals(List.of(2L, 9L), ids(repository.findAllById(List.of(9L, 100L, 2L, 9L))));
+    }
+
+    @Test
+    void findByColor_ShouldUseThePerColorLists() {
+        assertEquals(List.of(1L, 4L), ids(repository.findByColorNameIgnoreCase("BLAU")));
+        assertEquals(List.of(), ids(repository.findByColorNameIgnoreCase("rot")));
+        assertEquals(List.of(2L, 9L), ids(repository.findByColorIdIn(List.of(3L, 2L))));
+    }
+
+    private static List<Long> ids(List<Person> persons) {
+        return persons.stream().map(Person::getId).toList();
+    }
+}
@@ -3,10 +3,16 @@ package com.assecor.assessment.repository;
 import com.assecor.assessment.AbstractIntegrationTest;
 import com.assecor.assessment.model.Person;
 import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.PersonField;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -21,6 +27,9 @@ class PersonJpaRepositoryTest extends AbstractIntegrationTest {
     
     @Autowired
     private ColorJpaRepository colorJpaRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
 
     @Test
     void findByColorNameIgnoreCase_ShouldReturnPersonsWithMatchingColor() {
@@ -83,4 +92,124 @@ class PersonJpaRepositoryTest extends AbstractIntegrationTest {
         assertEquals(initialCount - 1, personJpaRepository.count());
         assertFalse(personJpaRepository.findById(1L).isPresent());
     }
+
+    @Test
+    void updateChangedFields_ShouldWriteOnlySuppliedFieldsInOneStatement() {
+        Color blue = colorJpaRepository.findByNameIgnoreCase("blau").orElseThrow();
+        Person saved = personJpaRepository.save(new Person("Patch", "Me", "12345", "Before", blue));
+        
+        Person changes = new Person();
+        changes.setCity("After");
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        int updated = personJpaRepository.updateChangedFields(saved.getId(), changes, saved.getVersion());
+        
+        assertEquals(1, updated);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        
+        Person reloaded = personJpaRepository.findById(saved.getId()).orElseThrow();
+        assertEquals("After", reloaded.getCity());
+        assertEquals("Patch", reloaded.getName());
+        assertEquals("blau", reloaded.getColor().getName());
+        assertEquals(saved.getVersion() + 1, reloaded.getVersion());
+    }
+
+    @Test
+    void updateChangedFields_WithStaleVersion_ShouldUpdateNothing() {
+        Color blue = colorJpaRepository.findByNameIgnoreCase("blau").orElseThrow();
+        Person saved = personJpaRepository.save(new Person("Stale", "Version", "12345", "Before", blue));
+        
+        Person changes = new Person();
+        changes.setCity("After");
+        
+        assertEquals(1, personJpaRepository.updateChangedFields(saved.getId(), changes, saved.getVersion()));
+        assertEquals(0, personJpaRepository.updateChangedFields(saved.getId(), changes, saved.getVersion()));
+        assertEquals(0, personJpaRepository.updateChangedFields(999L, changes, null));
+    }
+
+    @Test
+    void removeById_ShouldReportAffectedRows() {
+        Color blue = colorJpaRepository.findByNameIgnoreCase("blau").orElseThrow();
+        Person saved = personJpaRepository.save(new Person("Remove", "Me", "12345", "Somewhere", blue));
+        
+        assertEquals(1, personJpaRepository.removeById(saved.getId()));
+        assertEquals(0, personJpaRepository.removeById(saved.getId()));
+    }
+
+    @Test
+    void deleteChunkByFilter_ShouldDeleteOnlyMatchingPersonsUpToChunkSize() {
+        Color yellow = colorJpaRepository.findByNameIgnoreCase("gelb").orElseThrow();
+        for (int i = 0; i < 3; i++) {
+            personJpaRepository.save(new Person("Bulk" + i, "Delete", "99" + (100 + i), "Bulkstadt", yellow));
+        }
+        Person other = personJpaRepository.save(new Person("Keep", "Me", "98000", "Bulkstadt", yellow));
+        
+        assertEquals(2, personJpaRepository.deleteChunkByFilter("GELB", "99", 2));
+        assertEquals(1, personJpaRepository.deleteChunkByFilter("GELB", "99", 2));
+        assertEquals(0, personJpaRepository.deleteChunkByFilter("GELB", "99", 2));
+        assertTrue(personJpaRepository.findById(other.getId()).isPresent());
+    }
+
+    @Test
+    void reassignColor_ShouldMoveAllPersonsAndBumpVersion() {
+        Color from = colorJpaRepository.save(new Color("reassign-from"));
+        Color to = colorJpaRepository.save(new Color("reassign-to"));
+        Person first = personJpaRepository.save(new Person("First", "Mover", "12345", "Farbstadt", from));
+        personJpaRepository.save(new Person("Second", "Mover", "12345", "Farbstadt", from));
+        
+        assertEquals(2, personJpaRepository.reassignColor(from.getId(), to.getId()));
+        
+        assertTrue(personJpaRepository.findByColorNameIgnoreCase("reassign-from").isEmpty());
+        assertEquals(2, personJpaRepository.findByColorNameIgnoreCase("reassign-to").size());
+        assertEquals(first.getVersion() + 1, personJpaRepository.findById(first.getId()).orElseThrow().getVersion());
+    }
+
+    @Test
+    void findFields_ShouldSelectOnlyRequestedColumns() {
+        Color green = colorJpaRepository.findByNameIgnoreCase("grün").orElseThrow();
+        Person saved = personJpaRepository.save(new Person("Sparse", "Fields", "12345", "Projektstadt", green));
+        
+        List<Map<String, Object>> rows = personJpaRepository.findFields(
+                EnumSet.of(PersonField.ID, PersonField.NAME, PersonField.COLOR), saved.getId(), null);
+        
+        assertEquals(1, rows.size());
+        assertEquals(List.of("id", "name", "color"), List.copyOf(rows.get(0).keySet()));
+        assertEquals(saved.getId(), rows.get(0).get("id"));
+        assertEquals("Sparse", rows.get(0).get("name"));
+        assertEquals("grün", rows.get(0).get("color"));
+    }
+
+    @Test
+    void findFields_WithColorFilterButNoColorField_ShouldFilterWithoutSelectingColor() {
+        List<Map<String, Object>> rows = personJpaRepository.findFields(
+                EnumSet.of(PersonField.NAME), null, "GRÜN");
+        
+        assertFalse(rows.isEmpty());
+        assertTrue(rows.stream().allMatch(row -> row.size() == 1 && row.containsKey("name")));
+        assertTrue(rows.stream().anyMatch(row -> row.get("name").equals("Peter")));
+    }
+
+    @Test
+    void findAllWithColorByIdIn_ShouldReturnOnlyExistingPersonsWithColor() {
+        Color violet = colorJpaRepository.findByNameIgnoreCase("violett").orElseThrow();
+        Person first = personJpaRepository.save(new Person("Multi", "Get", "12345", "Batchstadt", violet));
+        Person second = personJpaRepository.save(new Person("Multi", "Get", "12345", "Batchstadt", violet));
+        
+        List<Person> persons = personJpaRepository.findAllWithColorByIdIn(List.of(first.getId(), second.getId(), 99_999L));
+        
+        assertEquals(2, persons.size());
+        assertTrue(persons.stream().allMatch(p -> "violett".equals(p.getColor().getName())));
+    }
+
+    @Test
+    void findAllIdsWithColorId_ShouldReturnColorIdOfEveryPerson() {
+        Color yellow = colorJpaRepository.findByNameIgnoreCase("gelb").orElseThrow();
+        Person saved = personJpaRepository.save(new Person("Index", "Entry", "12345", "Bitstadt", yellow));
+        
+        List<Object[]> rows = personJpaRepository.findAllIdsWithColorId();
+        
+        assertEquals(personJpaRepository.count(), rows.size());
+        assertTrue(rows.stream().anyMatch(row -> row[0].equals(saved.getId()) && row[1].equals(yellow.getId())));
+    }
 }
@@ -0,0 +1,122 @@
+package com.assecor.assessment.service.impl;
+
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for ColorSearchCoalescer.
+ * Tests sharing of in-flight queries, invalidation on writes and error propagation.
+ */
+class ColorSearchCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ColorSearchCoalescer coalescer;
+
+    private final List<Person> persons = List.of(
+            new Person(1L, "Hans", "Müller", "67111", "Maxdorf", new Color(1L, "blau")));
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        coalescer = new ColorSearchCoalescer(meterRegistry);
+    }
+
+    @Test
+    void search_WithConcurrentDuplicates_ShouldRunOneQuery() throws Exception {
+        // Given
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            // When
+            Future<List<Person>> leader = executor.submit(() -> coalescer.search("blau", () -> {
+                queries.incrementAndGet();
+                queryStarted.countDown();
+                await(release);
+                return persons;
+            }));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            Future<List<Person>> follower = executor.submit(() -> coalescer.search("BLAU", () -> {
+                queries.incrementAndGet();
+                return persons;
+            }));
+            while (meterRegistry.get("person.color.search.coalesced").counter().count() < 1) {
+                Thread.sleep(1);
+            }
+            release.countDown();
+
+            // Then
+            assertSame(leader.get(5, TimeUnit.SECONDS), follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, queries.get());
+    }
+
+    @Test
+    void search_AfterInvalidate_ShouldNotJoinQueryStartedBeforeWrite() throws Exception {
+        // Given
+        AtomicInteger queries = new AtomicInteger();
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<Person>> stale = executor.submit(() -> coalescer.search("blau", () -> {
+                queries.incrementAndGet();
+                queryStarted.countDown();
+                await(release);
+                return List.<Person>of();
+            }));
+            assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+
+            // When
+            coalescer.invalidate();
+            List<Person> fresh = coalescer.search("blau", () -> {
+                queries.incrementAndGet();
+                return persons;
+            });
+            release.countDown();
+
+            // Then
+            assertEquals(persons, fresh);
+            assertTrue(stale.get(5, TimeUnit.SECONDS).isEmpty());
+        }
+        assertEquals(2, queries.get());
+        assertEquals(0, meterRegistry.get("person.color.search.coalesced").counter().count());
+    }
+
+    @Test
+    void search_WhenQueryFails_ShouldPropagateAndNotKeepFailure() {
+        // When
+        assertThrows(IllegalStateException.class, () -> coalescer.search("blau", () -> {
+            throw new IllegalStateException("database unavailable");
+        }));
+        List<Person> result = coalescer.search("blau", () -> persons);
+
+        // Then
+        assertEquals(persons, result);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package com.assecor.assessment.service.impl;
 
+import com.assecor.assessment.cache.PersonColorIndex;
+import com.assecor.assessment.cache.PersonColumnarSnapshot;
+import com.assecor.assessment.cache.PersonJsonCache;
+import com.assecor.assessment.datasource.ShardRouter;
 import com.assecor.assessment.model.Color;
 import com.assecor.assessment.repository.ColorJpaRepository;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import com.assecor.assessment.service.ServiceResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Arrays;
 import java.util.List;
@@ -16,10 +27,10 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -34,7 +45,24 @@ class ColorServiceImplTest {
     @Mock
     private ColorJpaRepository colorJpaRepository;
 
-    @InjectMocks
+    @Mock
+    private PersonJpaRepository personJpaRepository;
+
+    @Mock
+    private PersonJsonCache personJsonCache;
+
+    @Mock
+    private PersonColorIndex personColorIndex;
+
+    @Mock
+    private PersonColumnarSnapshot personColumnarSnapshot;
+
+    @Mock
+    private ColorSearchCoalescer colorSearchCoalescer;
+
+    @Spy
+    private ShardRouter shardRouter = new ShardRouter(1, new SimpleMeterRegistry());
+
     private ColorServiceImpl colorService;
 
     private Color testColor;
@@ -44,6 +72,8 @@ class ColorServiceImplTest {
     void setUp() {
         testColor = new Color(1L, "blau");
         anotherColor = new Color(2L, "grün");
+        colorService = new ColorServiceImpl(colorJpaRepository, personJpaRepository, personJsonCache, personColorIndex,
+                personColumnarSnapshot, colorSearchCoalescer, shardRouter, false, false);
     }
 
     @Test
@@ -101,7 +131,7 @@ class ColorServiceImplTest {
         when(colorJpaRepository.save(newColor)).thenReturn(savedColor);
 
         // When
-        Color result = colorService.createColor(newColor);
+        Color result = colorService.createColor(newColor).value();
 
         // Then
         assertNotNull(result);
@@ -111,31 +141,31 @@ class ColorServiceImplTest {
     }
 
     @Test
-    void createColor_WithExistingColorName_ShouldThrowException() {
+    void createColor_WithExistingColorName_ShouldReturnConflict() {
         // Given
         Color newColor = new Color("blau");
         when(colorJpaRepository.findByNameIgnoreCase("blau")).thenReturn(Optional.of(testColor));
 
-        // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-            () -> colorService.createColor(newColor));
-        
-        assertEquals("Color with name 'blau' already exists", exception.getMessage());
+        // When
+        ServiceResult<Color> result = colorService.createColor(newColor);
+
+        // Then
+        assertEquals(ServiceResult.Status.CONFLICT, result.status());
         verify(colorJpaRepository).findByNameIgnoreCase("blau");
         verify(colorJpaRepository, never()).save(any(Color.class));
     }
 
     @Test
-    void createColor_WithCaseInsensitiveName_ShouldThrowException() {
+    void createColor_WithCaseInsensitiveName_ShouldReturnConflict() {
         // Given
         Color newColor = new Color("BLAU"); // Different case
         when(colorJpaRepository.findByNameIgnoreCase("BLAU")).thenReturn(Optional.of(testColor));
 
-        // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-            () -> colorService.createColor(newColor));
-        
-        assertEquals("Color with name 'BLAU' already exists", exception.getMessage());
+        // When
+        ServiceResult<Color> result = colorService.createColor(newColor);
+
+        // Then
+        assertEquals(ServiceResult.Status.CONFLICT, result.status());
         verify(colorJpaRepository).findByNameIgnoreCase("BLAU");
         verify(colorJpaRepository, never()).save(any(Color.class));
     }
@@ -152,7 +182,7 @@ class ColorServiceImplTest {
         when(colorJpaRepository.save(any(Color.class))).thenReturn(savedColor);
 
         // When
-        Color result = colorService.updateColor(colorId, updatedColorData);
+        Color result = colorService.updateColor(colorId, updatedColorData).value();
 
         // Then
         assertNotNull(result);
@@ -163,24 +193,24 @@ class ColorServiceImplTest {
     }
 
     @Test
-    void updateColor_WhenColorNotExists_ShouldThrowException() {
+    void updateColor_WhenColorNotExists_ShouldReturnNotFound() {
         // Given
         Long colorId = 999L;
         Color updatedColorData = new Color("updated");
         
         when(colorJpaRepository.findById(colorId)).thenReturn(Optional.empty());
 
-        // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-            () -> colorService.updateColor(colorId, updatedColorData));
-        
-        assertEquals("Color with ID 999 not found", exception.getMessage());
+        // When
+        ServiceResult<Color> result = colorService.updateColor(colorId, updatedColorData);
+
+        // Then
+        assertEquals(ServiceResult.Status.NOT_FOUND, result.status());
         verify(colorJpaRepository).findById(colorId);
         verify(colorJpaRepository, never()).save(any(Color.class));
     }
 
     @Test
-    void updateColor_WithExistingNameForDifferentColor_ShouldThrowException() {
+    void updateColor_WithExistingNameForDifferentColor_ShouldReturnConflict() {
         // Given
         Long colorId = 1L;
         Color updatedColorData = new Color("grün"); // Same name as anotherColor
@@ -188,11 +218,11 @@ class ColorServiceImplTest {
         when(colorJpaRepository.findById(colorId)).thenReturn(Optional.of(testColor));
         when(colorJpaRepository.findByNameIgnoreCase("grün")).thenReturn(Optional.of(anotherColor));
 
-        // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-            () -> colorService.updateColor(colorId, updatedColorData));
-        
-        assertEquals("Another color with name 'grün' already exists", exception.getMessage());
+        // When
+        ServiceResult<Color> result = colorService.updateColor(colorId, updatedColorData);
+
+        // Then
+        assertEquals(ServiceResult.Status.CONFLICT, result.status());
         verify(colorJpaRepository).findById(colorId);
         verify(colorJpaRepository).findByNameIgnoreCase("grün");
         verify(colorJpaRepository, never()).save(any(Color.class));
@@ -209,7 +239,7 @@ class ColorServiceImplTest {
         when(colorJpaRepository.save(any(Color.class))).thenReturn(testColor);
 
         // When
-        Color result = colorService.updateColor(colorId, updatedColorData);
+        Color result = colorService.updateColor(colorId, updatedColorData).value();
 
         // Then
         assertNotNull(result);
@@ -223,31 +253,185 @@ class ColorServiceImplTest {
     void deleteColor_WhenColorExists_ShouldDeleteColor() {
         // Given
         Long colorId = 1L;
-        when(colorJpaRepository.findById(colorId)).thenReturn(Optional.of(testColor));
+        when(colorJpaRepository.removeById(colorId)).thenReturn(1);
 
         // When
-        colorService.deleteColor(colorId);
+        ServiceResult<Void> result = colorService.deleteColor(colorId);
 
         // Then
-        verify(colorJpaRepository).findById(colorId);
-        verify(colorJpaRepository).deleteById(colorId);
+        assertTrue(result.isOk());
+        verify(colorJpaRepository).removeById(colorId);
+        verify(colorJpaRepository, never()).findById(anyLong());
     }
 
     @Test
-    void deleteColor_WhenColorNotExists_ShouldThrowException() {
+    void deleteColor_WhenColorNotExists_ShouldReturnNotFound() {
         // Given
         Long colorId = 999L;
-        when(colorJpaRepository.findById(colorId)).thenReturn(Optional.empty());
+        when(colorJpaRepository.removeById(colorId)).thenReturn(0);
 
-        // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-            () -> colorService.deleteColor(colorId));
-        
-        assertEquals("Color with ID 999 not found", exception.getMessage());
-        verify(colorJpaRepository).findById(colorId);
+        // When
+        ServiceResult<Void> result = colorService.deleteColor(colorId);
+
+        // Then
+        assertEquals(ServiceResult.Status.NOT_FOUND, result.status());
+        verify(colorJpaRepository).removeById(colorId);
         verify(colorJpaRepository, never()).deleteById(anyLong());
     }
 
+    @Test
+    void deleteColor_WhenColorInUse_ShouldReturnConflict() {
+        // Given
+        Long colorId = 1L;
+        when(colorJpaRepository.removeById(colorId)).thenThrow(new DataIntegrityViolationException("FK"));
+
+        // When
+        ServiceResult<Void> result = colorService.deleteColor(colorId);
+
+        // Then
+        assertEquals(ServiceResult.Status.CONFLICT, result.status());
+    }
+
+    @Test
+    void deleteColor_WithReassignTarget_ShouldMovePersonsBeforeDeleting() {
+        // Given
+        when(colorJpaRepository.existsById(1L)).thenReturn(true);
+        when(colorJpaRepository.existsById(2L)).thenReturn(true);
+        when(personJpaRepository.reassignColor(1L, 2L)).thenReturn(2);
+        when(colorJpaRepository.removeById(1L)).thenReturn(1);
+
+        // When
+        colorService.deleteColor(1L, 2L);
+
+        // Then
+        InOrder inOrder = inOrder(personJpaRepository, colorJpaRepository);
+        inOrder.verify(personJpaRepository).reassignColor(1L, 2L);
+        inOrder.verify(colorJpaRepository).removeById(1L);
+    }
+
+    @Test
+    void reassignColor_ShouldIssueSingleUpdate() {
+        // Given
+        when(colorJpaRepository.existsById(1L)).thenReturn(true);
+        when(colorJpaRepository.existsById(2L)).thenReturn(true);
+        when(personJpaRepository.reassignColor(1L, 2L)).thenReturn(3);
+
+        // When
+        int result = colorService.reassignColor(1L, 2L).value();
+
+        // Then
+        assertEquals(3, result);
+        verify(personJpaRepository).reassignColor(1L, 2L);
+        verify(personColorIndex).reassign(1L, 2L);
+    }
+
+    @Test
+    void reassignColor_InTransaction_ShouldMoveIndexOnlyAfterCommit() {
+        // Given
+        when(colorJpaRepository.existsById(1L)).thenReturn(true);
+        when(colorJpaRepository.existsById(2L)).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            colorService.reassignColor(1L, 2L);
+
+            // Then
+            verify(personColorIndex, never()).reassign(anyLong(), anyLong());
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+            verify(personColorIndex).reassign(1L, 2L);
+            verify(personColumnarSnapshot).reassign(1L, 2L);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reassignColor_WhenRolledBack_ShouldInvalidateIndex() {
+        // Given
+        when(colorJpaRepository.existsById(1L)).thenReturn(true);
+        when(colorJpaRepository.existsById(2L)).thenReturn(true);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            colorService.reassignColor(1L, 2L);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            verify(personColorIndex, never()).reassign(anyLong(), anyLong());
+            verify(personColumnarSnapshot, never()).reassign(anyLong(), anyLong());
+            verify(personColorIndex).invalidate();
+            verify(personColumnarSnapshot).invalidate();
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void reassignColor_WhenTargetNotExists_ShouldReturnNotFound() {
+        // Given
+        when(colorJpaRepository.existsById(1L)).thenReturn(true);
+        when(colorJpaRepository.existsById(999L)).thenReturn(false);
+
+        // When
+        ServiceResult<Integer> result = colorService.reassignColor(1L, 999L);
+
+        // Then
+        assertEquals(ServiceResult.Status.NOT_FOUND, result.status());
+        verify(personJpaRepository, never()).reassignColor(anyLong(), anyLong());
+    }
+
+    @Test
+    void reassignColor_ToItself_ShouldReturnInvalid() {
+        // When
+        ServiceResult<Integer> result = colorService.reassignColor(1L, 1L);
+
+        // Then
+        assertEquals(ServiceResult.Status.INVALID, result.status());
+        verify(personJpaRepository, never()).reassignColor(anyLong(), anyLong());
+    }
+
+    @Test
+    void deleteColor_WithReassignmentWhilePersonsAreReadOnly_ShouldReturnReadOnly() {
+        // Given
+        colorService = new ColorServiceImpl(colorJpaRepository, personJpaRepository, personJsonCache, personColorIndex,
+                personColumnarSnapshot, colorSearchCoalescer, shardRouter, true, false);
+
+        // When
+        ServiceResult<Void> result = colorService.deleteColor(1L, 2L);
+
+        // Then
+        assertEquals(ServiceResult.Status.READ_ONLY, result.status());
+        verify(personJpaRepository, never()).reassignColor(anyLong(), anyLong());
+        verify(colorJpaRepository, never()).removeById(anyLong());
+    }
+
+    @Test
+    void colorWrites_WhilePersonsAreMapped_ShouldReturnReadOnly() {
+        // Given
+        colorService = new ColorServiceImpl(colorJpaRepository, personJpaRepository, personJsonCache, personColorIndex,
+                personColumnarSnapshot, colorSearchCoalescer, shardRouter, false, true);
+
+        // When / Then
+        assertEquals(ServiceResult.Status.READ_ONLY, colorService.createColor(new Color("lila")).status());
+        assertEquals(ServiceResult.Status.READ_ONLY, colorService.updateColor(1L, new Color("lila")).status());
+        assertEquals(ServiceResult.Status.READ_ONLY, colorService.deleteColor(1L).status());
+        assertEquals(ServiceResult.Status.READ_ONLY, colorService.reassignColor(1L, 2L).status());
+        verify(colorJpaRepository, never()).save(any(Color.class));
+        verify(colorJpaRepository, never()).removeById(anyLong());
+    }
+
+    @Test
+    void deleteColor_WithReassignmentToItself_ShouldReturnInvalid() {
+        // When
+        ServiceResult<Void> result = colorService.deleteColor(1L, 1L);
+
+        // Then
+        assertEquals(ServiceResult.Status.INVALID, result.status());
+        verify(colorJpaRepository, never()).removeById(anyLong());
+    }
+
     @Test
     void createColor_WithNullName_ShouldHandleGracefully() {
         // Given
@@ -256,7 +440,7 @@ class ColorServiceImplTest {
         when(colorJpaRepository.save(newColor)).thenReturn(new Color(3L, null));
 
         // When
-        Color result = colorService.createColor(newColor);
+        Color result = colorService.createColor(newColor).value();
 
         // Then
         assertNotNull(result);
@@ -272,7 +456,7 @@ class ColorServiceImplTest {
         when(colorJpaRepository.save(newColor)).thenReturn(new Color(3L, ""));
 
         // When
-        Color result = colorService.createColor(newColor);
+        Color result = colorService.createColor(newColor).value();
 
         // Then
         assertNotNull(result);
@@ -291,7 +475,7 @@ class ColorServiceImplTest {
         when(colorJpaRepository.save(any(Color.class))).thenReturn(testColor);
 
         // When
-        Color result = colorService.updateColor(colorId, updatedColorData);
+        Color result = colorService.updateColor(colorId, updatedColorData).value();
 
         // Then
         assertNotNull(result);
@@ -0,0 +1,138 @@
+package com.assecor.assessment.service.impl;
+
+import com.assecor.assessment.datasource.ShardRouter;
+import com.assecor.assessment.model.Color;
+import com.assecor.assessment.model.Person;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for PersonLookupBatcher.
+ * Tests batching of concurrent lookups, error propagation and lookups that are never answered.
+ */
+@ExtendWith(MockitoExtension.class)
+class PersonLookupBatcherTest {
+
+    @Mock
+    private PersonJpaRepository personJpaRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private PersonLookupBatcher batcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        batcher = new PersonLookupBatcher(personJpaRepository, new ShardRouter(1, meterRegistry),
+                Duration.ofMillis(50), 4, Duration.ofSeconds(5), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        batcher.shutdown();
+    }
+
+    @Test
+    void load_WithConcurrentLookups_ShouldShareOneQuery() throws Exception {
+        // Given
+        Color color = new Color(1L, "blau");
+        when(personJpaRepository.findAllWithColorByIdIn(any())).thenAnswer(invocation -> {
+            List<Person> persons = new ArrayList<>();
+            for (Long id : invocation.<Collection<Long>>getArgument(0)) {
+                if (id != 3L) {
+                    persons.add(new Person(id, "Name" + id, "Lastname", "12345", "City", color));
+                }
+            }
+            return persons;
+        });
+
+        // When
+        List<Future<Optional<Person>>> results = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long id : new long[] {1L, 2L, 3L, 1L}) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return batcher.load(id);
+                }));
+            }
+            start.countDown();
+        }
+
+        // Then
+        assertEquals("Name1", results.get(0).get().orElseThrow().getName());
+        assertEquals("Name2", results.get(1).get().orElseThrow().getName());
+        assertFalse(results.get(2).get().isPresent());
+        assertEquals("Name1", results.get(3).get().orElseThrow().getName());
+        verify(personJpaRepository, atMost(2)).findAllWithColorByIdIn(any());
+        verify(personJpaRepository, never()).findById(any());
+        assertTrue(meterRegistry.get("person.lookup.batch.size").summary().count() >= 1);
+    }
+
+    @Test
+    void load_WhenQueryFails_ShouldPropagateException() {
+        // Given
+        when(personJpaRepository.findAllWithColorByIdIn(any())).thenThrow(new IllegalStateException("db down"));
+
+        // When & Then
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> batcher.load(1L));
+        assertEquals("db down", exception.getMessage());
+    }
+
+    @Test
+    void load_AfterShutdown_ShouldFailInsteadOfWaiting() {
+        // Given
+        batcher.shutdown();
+
+        // When & Then
+        assertThrows(RejectedExecutionException.class, () -> batcher.load(1L));
+        verify(personJpaRepository, never()).findAllWithColorByIdIn(any());
+    }
+
+    @Test
+    void load_WhenBatchIsNotAnsweredInTime_ShouldTimeOut() {
+        // Given
+        PersonLookupBatcher impatient = new PersonLookupBatcher(personJpaRepository,
+                new ShardRouter(1, meterRegistry), Duration.ofMillis(1), 4, Duration.ofMillis(100), meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        when(personJpaRepository.findAllWithColorByIdIn(any())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+
+        // When & Then
+        try {
+            assertThrows(QueryTimeoutException.class, () -> impatient.load(1L));
+        } finally {
+            release.countDown();
+            impatient.shutdown();
+        }
+    }
+}
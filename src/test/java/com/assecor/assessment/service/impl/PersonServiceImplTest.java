@@ -1,18 +1,30 @@
 package com.assecor.assessment.service.impl;
 
+import com.assecor.assessment.cache.PersonColorIndex;
+import com.assecor.assessment.cache.PersonColumnarSnapshot;
+import com.assecor.assessment.cache.PersonJsonCache;
+import com.assecor.assessment.datasource.ShardRouter;
 import com.assecor.assessment.model.Color;
 import com.assecor.assessment.model.Person;
+import com.assecor.assessment.model.PersonFilter;
 import com.assecor.assessment.repository.ColorJpaRepository;
-import com.assecor.assessment.repository.PersonJpaRepository;import io.micrometer.core.instrument.MeterRegistry;
+import com.assecor.assessment.repository.PersonJpaRepository;
+import com.assecor.assessment.service.ServiceResult;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -20,8 +32,11 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -41,6 +56,15 @@ class PersonServiceImplTest {
     @Mock
     private MeterRegistry meterRegistry;
 
+    @Mock
+    private PersonJsonCache personJsonCache;
+
+    @Mock
+    private PersonColorIndex personColorIndex;
+
+    @Mock
+    private PersonColumnarSnapshot personColumnarSnapshot;
+
     private PersonServiceImpl personService;
 
     private Person testPerson;
@@ -57,7 +81,10 @@ class PersonServiceImplTest {
             new io.micrometer.core.instrument.simple.SimpleMeterRegistry();
         
         // Create service instance with real MeterRegistry
-        personService = new PersonServiceImpl(personJpaRepository, colorJpaRepository, simpleMeterRegistry);
+        ShardRouter shardRouter = new ShardRouter(1, simpleMeterRegistry);
+        personService = new PersonServiceImpl(personJpaRepository, colorJpaRepository, personJsonCache, personColorIndex,
+            personColumnarSnapshot, new PersonLookupBatcher(personJpaRepository, shardRouter, Duration.ZERO, 64, Duration.ofSeconds(5), simpleMeterRegistry),
+            new ColorSearchCoalescer(simpleMeterRegistry), shardRouter, false, simpleMeterRegistry);
     }
 
     @Test
@@ -105,6 +132,21 @@ class PersonServiceImplTest {
         verify(personJpaRepository).findById((long) personId);
     }
 
+    @Test
+    void getPersonsByIds_ShouldQueryInChunks() {
+        // Given
+        List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().collect(Collectors.toList());
+        when(personJpaRepository.findAllWithColorByIdIn(any())).thenReturn(List.of(testPerson));
+
+        // When
+        Map<Long, Person> result = personService.getPersonsByIds(ids);
+
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(testPerson, result.get(1L));
+        verify(personJpaRepository, times(3)).findAllWithColorByIdIn(any());
+    }
+
     @Test
     void getPersonsByColor_ShouldReturnPersonsWithMatchingColor() {
         // Given
@@ -122,6 +164,55 @@ class PersonServiceImplTest {
         verify(personJpaRepository).findByColorNameIgnoreCase(colorName);
     }
 
+    @Test
+    void getPersonsByColors_ShouldFetchIndexedIdsInIdOrder() {
+        // Given
+        Color gruen = new Color(2L, "grün");
+        Color rot = new Color(4L, "rot");
+        Person second = new Person(7L, "Peter", "Petersen", "18439", "Stralsund", gruen);
+        BitSet ids = new BitSet();
+        ids.set(1);
+        ids.set(7);
+        when(colorJpaRepository.findByNameIgnoreCase("blau")).thenReturn(Optional.of(testColor));
+        when(colorJpaRepository.findByNameIgnoreCase("grün")).thenReturn(Optional.of(gruen));
+        when(colorJpaRepository.findByNameIgnoreCase("rot")).thenReturn(Optional.of(rot));
+        when(personColorIndex.find(List.of(1L, 2L), List.of(4L))).thenReturn(ids);
+        when(personJpaRepository.findAllWithColorByIdIn(List.of(1L, 7L))).thenReturn(List.of(second, testPerson));
+
+        // When
+        List<Person> result = personService.getPersonsByColors(List.of("blau", "grün"), List.of("rot"));
+
+        // Then
+        assertEquals(List.of(testPerson, second), result);
+    }
+
+    @Test
+    void getPersonsByColors_WithOnlyUnknownColors_ShouldReturnEmptyList() {
+        // Given
+        when(colorJpaRepository.findByNameIgnoreCase("magenta")).thenReturn(Optional.empty());
+
+        // When
+        List<Person> result = personService.getPersonsByColors(List.of("magenta"), List.of());
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(personColorIndex, never()).find(any(), any());
+    }
+
+    @Test
+    void queryPersons_ShouldAnswerFromSnapshot() {
+        // Given
+        PersonFilter filter = new PersonFilter(null, null, "Stralsund", "blau", "18");
+        when(personColumnarSnapshot.query(filter)).thenReturn(List.of(testPerson));
+
+        // When
+        List<Person> result = personService.queryPersons(filter);
+
+        // Then
+        assertEquals(List.of(testPerson), result);
+        verify(personJpaRepository, never()).findAll();
+    }
+
     @Test
     void createPerson_WithValidPerson_ShouldReturnSavedPerson() {
         // Given
@@ -130,7 +221,7 @@ class PersonServiceImplTest {
         when(personJpaRepository.save(newPerson)).thenReturn(savedPerson);
 
         // When
-        Person result = personService.createPerson(newPerson);
+        Person result = personService.createPerson(newPerson).value();
 
         // Then
         assertNotNull(result);
@@ -149,7 +240,7 @@ class PersonServiceImplTest {
         when(personJpaRepository.save(any(Person.class))).thenReturn(savedPerson);
 
         // When
-        Person result = personService.createPerson(personWithColorName);
+        Person result = personService.createPerson(personWithColorName).value();
 
         // Then
         assertNotNull(result);
@@ -159,18 +250,18 @@ class PersonServiceImplTest {
     }
 
     @Test
-    void createPerson_WithNonExistentColor_ShouldThrowException() {
+    void createPerson_WithNonExistentColor_ShouldReturnInvalid() {
         // Given
         Color colorWithNameOnly = new Color("nonexistent");
         Person personWithColorName = new Person("John", "Doe", "12345", "TestCity", colorWithNameOnly);
         
         when(colorJpaRepository.findByNameIgnoreCase("nonexistent")).thenReturn(Optional.empty());
 
-        // When & Then
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, 
-            () -> personService.createPerson(personWithColorName));
-        
-        assertEquals("Color 'nonexistent' not found", exception.getMessage());
+        // When
+        ServiceResult<Person> result = personService.createPerson(personWithColorName);
+
+        // Then
+        assertEquals(ServiceResult.Status.INVALID, result.status());
         verify(colorJpaRepository).findByNameIgnoreCase("nonexistent");
         verify(personJpaRepository, never()).save(any(Person.class));
     }
@@ -186,17 +277,17 @@ class PersonServiceImplTest {
         when(personJpaRepository.save(any(Person.class))).thenReturn(savedPerson);
 
         // When
-        Optional<Person> result = personService.updatePerson(personId, updatedPersonData);
+        ServiceResult<Person> result = personService.updatePerson(personId, updatedPersonData);
 
         // Then
-        assertTrue(result.isPresent());
-        assertEquals(savedPerson, result.get());
+        assertTrue(result.isOk());
+        assertEquals(savedPerson, result.value());
         verify(personJpaRepository).findById((long) personId);
         verify(personJpaRepository).save(any(Person.class));
     }
 
     @Test
-    void updatePerson_WhenPersonNotExists_ShouldThrowException() {
+    void updatePerson_WhenPersonNotExists_ShouldReturnNotFound() {
         // Given
         int personId = 999;
         Person updatedPersonData = new Person("Hans", "Updated", "67111", "Maxdorf", testColor);
@@ -204,10 +295,10 @@ class PersonServiceImplTest {
         when(personJpaRepository.findById((long) personId)).thenReturn(Optional.empty());
 
         // When
-        Optional<Person> result = personService.updatePerson(personId, updatedPersonData);
+        ServiceResult<Person> result = personService.updatePerson(personId, updatedPersonData);
         
         // Then
-        assertFalse(result.isPresent());
+        assertEquals(ServiceResult.Status.NOT_FOUND, result.status());
         verify(personJpaRepository).findById((long) personId);
         verify(personJpaRepository, never()).save(any(Person.class));
     }
@@ -225,42 +316,176 @@ class PersonServiceImplTest {
         when(personJpaRepository.save(any(Person.class))).thenReturn(savedPerson);
 
         // When
-        Optional<Person> result = personService.updatePerson(personId, personWithColorName);
+        ServiceResult<Person> result = personService.updatePerson(personId, personWithColorName);
 
         // Then
-        assertTrue(result.isPresent());
-        assertEquals(savedPerson, result.get());
+        assertTrue(result.isOk());
+        assertEquals(savedPerson, result.value());
         verify(colorJpaRepository).findByNameIgnoreCase("blau");
         verify(personJpaRepository).save(any(Person.class));
     }
 
+    @Test
+    void patchPerson_WhenPersonExists_ShouldIssueSingleUpdate() {
+        // Given
+        int personId = 1;
+        Person changes = new Person();
+        changes.setCity("Berlin");
+        when(personJpaRepository.updateChangedFields(1L, changes, 3L)).thenReturn(1);
+
+        // When
+        ServiceResult<Long> result = personService.patchPerson(personId, changes, 3L);
+
+        // Then
+        assertTrue(result.isOk());
+        assertEquals(Long.valueOf(4), result.value());
+        verify(personJpaRepository).updateChangedFields(1L, changes, 3L);
+        verify(personJpaRepository, never()).findById(anyLong());
+        verify(personJpaRepository, never()).save(any(Person.class));
+    }
+
+    @Test
+    void patchPerson_WhenEmptyAndVersionIsStale_ShouldReturnConflict() {
+        // Given
+        testPerson.setVersion(4L);
+        when(personJpaRepository.findById(1L)).thenReturn(Optional.of(testPerson));
+
+        // When
+        ServiceResult<Long> result = personService.patchPerson(1, new Person(), 3L);
+
+        // Then
+        assertEquals(ServiceResult.Status.CONFLICT, result.status());
+        verify(personJpaRepository, never()).updateChangedFields(anyLong(), any(Person.class), any());
+    }
+
+    @Test
+    void patchPerson_WhenEmpty_ShouldReturnStoredVersion() {
+        // Given
+        testPerson.setVersion(4L);
+        when(personJpaRepository.findById(1L)).thenReturn(Optional.of(testPerson));
+
+        // When
+        ServiceResult<Long> result = personService.patchPerson(1, new Person(), 4L);
+
+        // Then
+        assertTrue(result.isOk());
+        assertEquals(Long.valueOf(4), result.value());
+    }
+
+    @Test
+    void patchPerson_WithColorName_ShouldResolveColor() {
+        // Given
+        Person changes = new Person();
+        changes.setColor(new Color("blau"));
+        when(colorJpaRepository.findByNameIgnoreCase("blau")).thenReturn(Optional.of(testColor));
+        when(personJpaRepository.updateChangedFields(eq(1L), any(Person.class), eq(null))).thenReturn(1);
+
+        // When
+        ServiceResult<Long> result = personService.patchPerson(1, changes, null);
+
+        // Then
+        assertTrue(result.isOk());
+        assertEquals(testColor, changes.getColor());
+    }
+
+    @Test
+    void patchPerson_WhenVersionIsStale_ShouldReturnConflict() {
+        // Given
+        Person changes = new Person();
+        changes.setCity("Berlin");
+        when(personJpaRepository.updateChangedFields(1L, changes, 3L)).thenReturn(0);
+        when(personJpaRepository.existsById(1L)).thenReturn(true);
+
+        // When
+        ServiceResult<Long> result = personService.patchPerson(1, changes, 3L);
+
+        // Then
+        assertEquals(ServiceResult.Status.CONFLICT, result.status());
+    }
+
+    @Test
+    void patchPerson_WhenPersonNotExists_ShouldReturnNotFound() {
+        // Given
+        Person changes = new Person();
+        changes.setCity("Berlin");
+        when(personJpaRepository.updateChangedFields(999L, changes, null)).thenReturn(0);
+
+        // When
+        ServiceResult<Long> result = personService.patchPerson(999, changes, null);
+
+        // Then
+        assertEquals(ServiceResult.Status.NOT_FOUND, result.status());
+        verify(personJpaRepository, never()).existsById(anyLong());
+    }
+
     @Test
     void deletePerson_WhenPersonExists_ShouldDeletePerson() {
         // Given
         int personId = 1;
-        when(personJpaRepository.findById((long) personId)).thenReturn(Optional.of(testPerson));
+        when(personJpaRepository.removeById((long) personId)).thenReturn(1);
 
         // When
-        boolean result = personService.deletePerson(personId);
+        ServiceResult<Void> result = personService.deletePerson(personId);
 
         // Then
-        assertTrue(result);
-        verify(personJpaRepository).findById((long) personId);
-        verify(personJpaRepository).deleteById((long) personId);
+        assertTrue(result.isOk());
+        verify(personJpaRepository).removeById((long) personId);
+        verify(personJpaRepository, never()).findById(anyLong());
+        verify(personJsonCache).invalidate(personId);
+        verify(personColumnarSnapshot).remove(personId);
     }
 
     @Test
-    void deletePerson_WhenPersonNotExists_ShouldReturnFalse() {
+    void deletePerson_WhenPersonNotExists_ShouldReturnNotFound() {
         // Given
         int personId = 999;
-        when(personJpaRepository.findById((long) personId)).thenReturn(Optional.empty());
+        when(personJpaRepository.removeById((long) personId)).thenReturn(0);
 
         // When
-        boolean result = personService.deletePerson(personId);
+        ServiceResult<Void> result = personService.deletePerson(personId);
         
         // Then
-        assertFalse(result);
-        verify(personJpaRepository).findById((long) personId);
+        assertEquals(ServiceResult.Status.NOT_FOUND, result.status());
+        verify(personJpaRepository).removeById((long) personId);
         verify(personJpaRepository, never()).deleteById(anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void deletePersons_ShouldDeleteInChunksUntilExhausted() {
+        // Given
+        when(personJpaRepository.deleteChunkByFilter("blau", "18", 500)).thenReturn(500, 500, 42);
+
+        // When
+        int result = personService.deletePersons("blau", "18").value();
+
+        // Then
+        assertEquals(1042, result);
+        verify(personJpaRepository, times(3)).deleteChunkByFilter("blau", "18", 500);
+    }
+
+    @Test
+    void deletePersons_WithoutFilter_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> personService.deletePersons(null, null));
+        verify(personJpaRepository, never()).deleteChunkByFilter(any(), any(), anyInt());
+    }
+
+    @Test
+    void deletePersons_WithBlankFilters_ShouldThrowException() {
+        assertThrows(IllegalArgumentException.class, () -> personService.deletePersons(null, ""));
+        assertThrows(IllegalArgumentException.class, () -> personService.deletePersons(" ", ""));
+        verify(personJpaRepository, never()).deleteChunkByFilter(any(), any(), anyInt());
+    }
+
+    @Test
+    void deletePersons_WithBlankZipPrefix_ShouldFilterByColorOnly() {
+        // Given
+        when(personJpaRepository.deleteChunkByFilter("blau", null, 500)).thenReturn(3);
+
+        // When
+        int result = personService.deletePersons("blau", "").value();
+
+        // Then
+        assertEquals(3, result);
+        verify(personJpaRepository).deleteChunkByFilter("blau", null, 500);
+    }
+}
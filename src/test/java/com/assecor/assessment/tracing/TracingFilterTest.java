@@ -0,0 +1,222 @@
+package com.assecor.assessment.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for TracingFilter, TraceCollector and the hand-over of traces between threads.
+ * Tests tail sampling, span nesting, virtual threads, the span and retention bounds and the rolling trace file.
+ */
+class TracingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private TraceCollector collector;
+    private TracingFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        use(properties(Duration.ofHours(1), 200, 256, null, DataSize.ofMegabytes(10), 5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        collector.close();
+    }
+
+    @Test
+    void doFilter_WhenFast_ShouldDiscardTrace() throws Exception {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // When
+        filter.doFilter(new MockHttpServletRequest("GET", "/persons/1"), response, (req, res) -> {
+        });
+
+        // Then
+        assertNotNull(response.getHeader(TracingFilter.TRACE_ID));
+        assertTrue(collector.recent().isEmpty());
+        assertNull(Tracing.current());
+        assertEquals(1.0, meterRegistry.get("tracing.traces").tag("outcome", "discarded").counter().count());
+    }
+
+    @Test
+    void doFilter_WhenRequestFails_ShouldKeepTrace() {
+        // Given
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        FilterChain failing = (req, res) -> {
+            throw new IllegalStateException("boom");
+        };
+
+        // When
+        assertThrows(IllegalStateException.class,
+                () -> filter.doFilter(new MockHttpServletRequest("GET", "/persons/1"), response, failing));
+
+        // Then
+        TraceRecord trace = collector.recent().getFirst();
+        assertEquals(response.getHeader(TracingFilter.TRACE_ID), trace.traceId());
+        assertEquals("error", trace.reason());
+        assertEquals(500, trace.status());
+        assertEquals("IllegalStateException", trace.error());
+        assertNull(Tracing.current());
+    }
+
+    @Test
+    void doFilter_WhenSlow_ShouldKeepNestedSpans() throws Exception {
+        // Given
+        use(properties(Duration.ZERO, 200, 256, null, DataSize.ofMegabytes(10), 5));
+
+        // When
+        perform(() -> {
+            Span service = Tracing.start("service", "PersonServiceImpl", "getPersonById");
+            Tracing.end(Tracing.start("sql", "sql", "select p1_0.id from person p1_0 where p1_0.id=?"));
+            Tracing.end(service);
+        });
+
+        // Then
+        TraceRecord trace = collector.recent().getFirst();
+        assertEquals("slow", trace.reason());
+        assertEquals("GET /persons/1", trace.name());
+        List<TraceRecord.SpanRecord> spans = trace.spans();
+        assertEquals(List.of("http", "service", "sql"), spans.stream().map(TraceRecord.SpanRecord::layer).toList());
+        assertEquals("PersonServiceImpl.getPersonById", spans.get(1).name());
+        assertEquals(spans.get(0).id(), spans.get(1).parentId());
+        assertEquals(spans.get(1).id(), spans.get(2).parentId());
+        assertTrue(spans.stream().allMatch(span -> span.durationMs() >= 0));
+    }
+
+    @Test
+    void wrap_OnVirtualThread_ShouldAttachSpansToRequest() throws Exception {
+        // Given
+        use(properties(Duration.ZERO, 200, 256, null, DataSize.ofMegabytes(10), 5));
+
+        // When
+        perform(() -> {
+            Span service = Tracing.start("service", "PersonServiceImpl", "getAllPersons");
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                executor.submit(Tracing.wrap(() -> Tracing.end(Tracing.start("sql", "sql", "select 1"))));
+            }
+            Tracing.end(service);
+        });
+
+        // Then
+        List<TraceRecord.SpanRecord> spans = collector.recent().getFirst().spans();
+        assertEquals(3, spans.size());
+        TraceRecord.SpanRecord sql = spans.get(2);
+        assertEquals(spans.get(1).id(), sql.parentId());
+        assertTrue(sql.thread().startsWith("virtual-"));
+        assertFalse(spans.get(1).thread().startsWith("virtual-"));
+    }
+
+    @Test
+    void wrap_OutsideRequest_ShouldReturnTaskUnchanged() {
+        Runnable task = () -> {
+        };
+
+        assertSame(task, Tracing.wrap(task));
+        assertNull(Tracing.start("service", "PersonServiceImpl", "getAllPersons"));
+    }
+
+    @Test
+    void doFilter_WhenSpanLimitReached_ShouldCountDroppedSpans() throws Exception {
+        // Given
+        use(properties(Duration.ZERO, 200, 3, null, DataSize.ofMegabytes(10), 5));
+
+        // When
+        perform(() -> {
+            for (int i = 0; i < 5; i++) {
+                Tracing.end(Tracing.start("repository", "PersonJpaRepository", "findById"));
+            }
+        });
+
+        // Then
+        TraceRecord trace = collector.recent().getFirst();
+        assertEquals(3, trace.spans().size());
+        assertEquals(3, trace.droppedSpans());
+    }
+
+    @Test
+    void complete_WhenRetainedExceeded_ShouldKeepMostRecent() throws Exception {
+        // Given
+        use(properties(Duration.ZERO, 2, 256, null, DataSize.ofMegabytes(10), 5));
+
+        // When
+        String first = perform(() -> {
+        });
+        String second = perform(() -> {
+        });
+        String third = perform(() -> {
+        });
+
+        // Then
+        assertEquals(List.of(third, second), collector.recent().stream().map(TraceRecord::traceId).toList());
+        assertTrue(collector.find(first).isEmpty());
+        assertTrue(collector.find(second).isPresent());
+    }
+
+    @Test
+    void complete_WhenFileFull_ShouldRollOver(@TempDir Path directory) throws Exception {
+        // Given
+        Path file = directory.resolve("traces.jsonl");
+        use(properties(Duration.ZERO, 200, 256, file, DataSize.ofBytes(1), 1));
+
+        // When
+        perform(() -> {
+        });
+        perform(() -> {
+        });
+        String last = perform(() -> {
+        });
+        collector.close();
+
+        // Then
+        assertTrue(Files.exists(file.resolveSibling("traces.jsonl.1")));
+        assertFalse(Files.exists(file.resolveSibling("traces.jsonl.2")));
+        List<String> lines = Files.readAllLines(file);
+        assertEquals(1, lines.size());
+        assertEquals(last, new ObjectMapper().readValue(lines.getFirst(), TraceRecord.class).traceId());
+    }
+
+    private void use(TracingProperties properties) {
+        if (collector != null) {
+            collector.close();
+        }
+        collector = new TraceCollector(properties, meterRegistry);
+        filter = new TracingFilter(collector, properties);
+    }
+
+    private static TracingProperties properties(Duration slowThreshold, int retained, int maxSpans, Path file,
+                                                DataSize maxFileSize, int maxFiles) {
+        return new TracingProperties(true, slowThreshold, 0, maxSpans, retained, file, maxFileSize, maxFiles);
+    }
+
+    // Runs the work as the handling of GET /persons/1 and returns the trace ID
+    private String perform(Runnable work) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/persons/1"), response, (req, res) -> work.run());
+        return response.getHeader(TracingFilter.TRACE_ID);
+    }
+}
@@ -0,0 +1,84 @@
+package com.assecor.assessment.tracing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Integration tests for tracing the person and color endpoints.
+ * Tests that a request is recorded through every layer and served by {@code /actuator/traces}.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:tracing-test;DB_CLOSE_DELAY=-1;MODE=PostgreSQL",
+        "tracing.enabled=true",
+        "tracing.slow-threshold=0ms"
+})
+@ActiveProfiles("test")
+class TracingIntegrationTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private FilterRegistrationBean<TracingFilter> tracingFilter;
+
+    @Autowired
+    private TraceCollector traceCollector;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).addFilters(tracingFilter.getFilter()).build();
+    }
+
+    @Test
+    void getColor_ShouldRecordEveryLayer() throws Exception {
+        // When
+        String traceId = mockMvc.perform(get("/colors/{id}", 1))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(TracingFilter.TRACE_ID);
+
+        // Then
+        assertNotNull(traceId);
+        TraceRecord trace = traceCollector.find(traceId).orElseThrow();
+        assertEquals("GET /colors/{id}", trace.name());
+        assertEquals(200, trace.status());
+        List<String> layers = trace.spans().stream().map(TraceRecord.SpanRecord::layer).toList();
+        assertEquals(List.of("http", "controller", "service", "repository", "sql", "serialization"),
+                layers.stream().distinct().toList());
+        assertTrue(trace.spans().stream().anyMatch(span -> span.name().equals("ColorController.getColorById")));
+        assertTrue(trace.spans().stream().anyMatch(span -> span.layer().equals("sql")
+                && span.name().toLowerCase().startsWith("select")));
+    }
+
+    @Test
+    void tracesEndpoint_ShouldServeKeptTrace() throws Exception {
+        // Given
+        String traceId = mockMvc.perform(get("/colors/{id}", 1))
+                .andReturn().getResponse().getHeader(TracingFilter.TRACE_ID);
+
+        // When / Then
+        mockMvc.perform(get("/actuator/traces/{traceId}", traceId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.traceId").value(traceId))
+                .andExpect(jsonPath("$.reason").value("slow"));
+        mockMvc.perform(get("/actuator/traces/{traceId}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+}